@@ -9,6 +9,8 @@
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MemberDeclarator;
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
 import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParser;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
 
 import java.util.Optional;
 
@@ -16,6 +18,14 @@ public class AstCodeParser extends CodeParser {
 
     private final AntlrAstConversionVisitor converter = new AntlrAstConversionVisitor();
 
+    public AstCodeParser() {
+        super();
+    }
+
+    public AstCodeParser(final PredictionStrategy predictionStrategy) {
+        super(predictionStrategy);
+    }
+
     /**
      * Gets the content of a Java method and parses the code written in java-grammar into the {@link AstNode}
      * representation.
@@ -26,9 +36,20 @@ public class AstCodeParser extends CodeParser {
      *                        is caught and a checked {@link ParseException} is thrown externally.
      */
     public MemberDeclarator<MethodDeclaration> parseMethod(String code) throws ParseException {
-        final JavaParser javaParser = parseCodeFragment(code);
+        return parseMethod(CharStreams.fromString(code));
+    }
+
+    /**
+     * Parses the Java method read by the given stream into the {@link AstNode} representation.
+     *
+     * @param code The method code to be parsed.
+     * @return The parsed {@link AstNode} of the method.
+     * @throws ParseException If the Java code was not parseable.
+     * @see #parseMethod(String)
+     */
+    public MemberDeclarator<MethodDeclaration> parseMethod(final CharStream code) throws ParseException {
         try {
-            final var declaration = converter.visitClassBodyDeclaration(javaParser.classBodyDeclaration());
+            final var declaration = converter.visitClassBodyDeclaration(parse(code, JavaParser::classBodyDeclaration));
             return returnMethodElseThrow(declaration);
         }
         catch (InternalParseException e) {
@@ -44,10 +65,8 @@ public MemberDeclarator<MethodDeclaration> parseMethod(String code) throws Parse
      * @return The parsed {@link AstNode} of the CompilationUnit.
      */
     public Optional<MemberDeclarator<MethodDeclaration>> parseMethodSkipErrors(String code) {
-        final JavaParser javaParser = parseCodeFragment(code);
-
         try {
-            final var declaration = converter.visitClassBodyDeclaration(javaParser.classBodyDeclaration());
+            final var declaration = converter.visitClassBodyDeclaration(parse(code, JavaParser::classBodyDeclaration));
             return Optional.of(returnMethodElseThrow(declaration));
         }
         catch (ParseException | InternalParseException e) {
@@ -82,9 +101,20 @@ private boolean isMethodDeclaration(final ClassBodyDeclaration declaration) {
      *                        is caught and a checked {@link ParseException} is thrown externally.
      */
     public AstNode parseCodeToCompilationUnit(String code) throws ParseException {
-        final JavaParser javaParser = parseCodeFragment(code);
+        return parseCodeToCompilationUnit(CharStreams.fromString(code));
+    }
+
+    /**
+     * Parses the Java file read by the given stream into the {@link AstNode} representation.
+     *
+     * @param code The Java code to be parsed.
+     * @return The parsed {@link AstNode} of the CompilationUnit.
+     * @throws ParseException If the Java code was not parseable.
+     * @see #parseCodeToCompilationUnit(String)
+     */
+    public AstNode parseCodeToCompilationUnit(final CharStream code) throws ParseException {
         try {
-            return converter.visitCompilationUnit(javaParser.compilationUnit());
+            return converter.visitCompilationUnit(parse(code, JavaParser::compilationUnit));
         }
         catch (InternalParseException e) {
             throw new ParseException(e.getMessage(), e);
@@ -7,26 +7,265 @@
 import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaLexer;
 import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParser;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
 public class CodeParser {
 
     private static final Logger log = LoggerFactory.getLogger(CodeParser.class);
 
+    private static final ANTLRErrorListener ERROR_LISTENER = new ErrorListener();
+
+    /**
+     * One lexer and parser per thread that are reset for each code fragment.
+     * <p>
+     * The generated recognizers share their DFA caches statically, so reusing them keeps the caches warm as before and
+     * only saves setting up new recognizers for every fragment.
+     */
+    private static final ThreadLocal<Recognizers> RECOGNIZERS = ThreadLocal.withInitial(Recognizers::new);
+
+    /**
+     * The lookahead up to which the DFA states are stored in the DFA cache.
+     * <p>
+     * Covers the decisions that recur in most inputs while leaving out the long chains of states that single inputs
+     * create for deep lookahead.
+     */
+    private static final int DFA_CACHE_LOOKAHEAD = 8;
+
+    private static final LongAdder SLL_PARSES = new LongAdder();
+
+    private static final LongAdder LL_FALLBACKS = new LongAdder();
+
+    private final PredictionStrategy predictionStrategy;
+
+    public CodeParser() {
+        this(PredictionStrategy.LL);
+    }
+
+    public CodeParser(final PredictionStrategy predictionStrategy) {
+        this.predictionStrategy = predictionStrategy;
+    }
+
     /**
      * Takes a code fragment string and returns the java parser object.
+     * <p>
+     * The parser is owned by the calling thread and is reset by its next call of this method. The parse trees created
+     * before stay valid. The parser always uses full LL prediction.
      *
      * @param code The code string.
      * @return The java parser object.
      */
     public JavaParser parseCodeFragment(String code) {
-        final JavaLexer lx = new JavaLexer(CharStreams.fromString(code));
-        final CommonTokenStream tokenStream = new CommonTokenStream(lx);
-        final JavaParser parser = new JavaParser(tokenStream);
-        parser.getErrorListeners().clear();
-        parser.addErrorListener(new ErrorListener());
-        return parser;
+        return RECOGNIZERS.get().reset(CharStreams.fromString(code));
+    }
+
+    /**
+     * Parses a code fragment starting at the given grammar rule using the prediction strategy of this parser.
+     *
+     * @param code The code string.
+     * @param rule The start rule, e.g. {@code JavaParser::compilationUnit}.
+     * @param <T>  The type of the parse tree of the start rule.
+     * @return The parse tree.
+     */
+    protected <T extends ParserRuleContext> T parse(final String code, final Function<JavaParser, T> rule) {
+        return parse(CharStreams.fromString(code), rule);
+    }
+
+    /**
+     * Parses the code of a stream starting at the given grammar rule using the prediction strategy of this parser.
+     *
+     * @param code The code stream.
+     * @param rule The start rule, e.g. {@code JavaParser::compilationUnit}.
+     * @param <T>  The type of the parse tree of the start rule.
+     * @return The parse tree.
+     */
+    protected <T extends ParserRuleContext> T parse(final CharStream code, final Function<JavaParser, T> rule) {
+        final JavaParser parser = RECOGNIZERS.get().reset(code);
+        if (predictionStrategy == PredictionStrategy.LL) {
+            return rule.apply(parser);
+        }
+
+        final Recognizers recognizers = RECOGNIZERS.get();
+        SLL_PARSES.increment();
+        try {
+            recognizers.useSll();
+            return rule.apply(parser);
+        }
+        catch (ParseCancellationException e) {
+            LL_FALLBACKS.increment();
+            recognizers.rewind();
+            return rule.apply(parser);
+        }
+        finally {
+            recognizers.useLl();
+        }
+    }
+
+    /**
+     * Gets how often parsing with {@link PredictionStrategy#SLL_THEN_LL} had to fall back to full LL prediction.
+     *
+     * @return The counts of all parsers since the start of the program.
+     */
+    public static Statistics statistics() {
+        return new Statistics(SLL_PARSES.sum(), LL_FALLBACKS.sum());
+    }
+
+    /**
+     * Counts of the two-stage parses.
+     *
+     * @param sllParses   The number of inputs parsed with SLL prediction first.
+     * @param llFallbacks The number of these inputs that had to be parsed again with full LL prediction.
+     */
+    public record Statistics(long sllParses, long llFallbacks) {
+
+        public double fallbackRate() {
+            return sllParses == 0 ? 0.0 : (double) llFallbacks / sllParses;
+        }
+    }
+
+    /**
+     * Loads the prediction DFA of an earlier program run so that parsing starts with a warm DFA.
+     * <p>
+     * Should be called before the first input is parsed, as only decisions that were not used for prediction yet are
+     * loaded.
+     *
+     * @param cacheFile A file written by {@link #saveDfaCache(Path)}.
+     * @return The number of loaded DFA states. Zero if the file does not exist or was written for another grammar or
+     *     ANTLR version.
+     * @throws IOException Thrown if the file cannot be read or is no DFA cache.
+     */
+    public static int loadDfaCache(final Path cacheFile) throws IOException {
+        if (!Files.isRegularFile(cacheFile)) {
+            return 0;
+        }
+
+        final JavaParser parser = RECOGNIZERS.get().parser;
+        final ParserATNSimulator interpreter = parser.getInterpreter();
+        final int loaded = DfaCache.read(
+            Files.readAllBytes(cacheFile), interpreter.decisionToDFA, interpreter.atn, parser.getSerializedATN(),
+            interpreter.getSharedContextCache()
+        );
+        if (loaded < 0) {
+            log.warn("Ignoring DFA cache {} that was written for another grammar or ANTLR version.", cacheFile);
+        }
+        return Math.max(0, loaded);
+    }
+
+    /**
+     * Saves the current prediction DFA of the parser.
+     * <p>
+     * The file is replaced atomically if the file system supports it, so that concurrent program runs never read a
+     * partially written cache. The cache is created with the default permissions of new files, so that other users
+     * can read it.
+     *
+     * @param cacheFile The file to write to.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public static void saveDfaCache(final Path cacheFile) throws IOException {
+        final JavaParser parser = RECOGNIZERS.get().parser;
+        final Path directory = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        // not created by Files.createTempFile, as its owner-only permissions would be moved onto the cache
+        final Path tempFile = directory.resolve(cacheFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            final OutputStream file = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW);
+            try (OutputStream out = new BufferedOutputStream(file)) {
+                DfaCache.write(
+                    out, parser.getInterpreter().decisionToDFA, parser.getSerializedATN(), DFA_CACHE_LOOKAHEAD
+                );
+            }
+
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Counts the states of the prediction DFA shared by all parsers.
+     *
+     * @return The number of DFA states over all decisions.
+     */
+    public static int dfaStateCount() {
+        int count = 0;
+        for (final DFA dfa : RECOGNIZERS.get().parser.getInterpreter().decisionToDFA) {
+            synchronized (dfa.states) {
+                count += dfa.states.size();
+            }
+        }
+        return count;
+    }
+
+    private static final class Recognizers {
+
+        private final JavaLexer lexer = new JavaLexer(CharStreams.fromString(""));
+        private final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        private final JavaParser parser = new JavaParser(tokenStream);
+
+        private final ANTLRErrorStrategy defaultStrategy = new DefaultErrorStrategy();
+        private final ANTLRErrorStrategy bailStrategy = new BailErrorStrategy();
+
+        private Recognizers() {
+            parser.setErrorHandler(defaultStrategy);
+            parser.removeErrorListeners();
+            parser.addErrorListener(ERROR_LISTENER);
+        }
+
+        private JavaParser reset(final CharStream input) {
+            lexer.setInputStream(input);
+            tokenStream.setTokenSource(lexer);
+            parser.setTokenStream(tokenStream);
+            return parser;
+        }
+
+        /**
+         * Switches to SLL prediction that cancels the parse at the first syntax error without reporting it.
+         */
+        private void useSll() {
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            parser.setErrorHandler(bailStrategy);
+            parser.removeErrorListeners();
+        }
+
+        private void useLl() {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(defaultStrategy);
+            if (parser.getErrorListeners().isEmpty()) {
+                parser.addErrorListener(ERROR_LISTENER);
+            }
+        }
+
+        /**
+         * Restarts the current input with full LL prediction.
+         */
+        private void rewind() {
+            useLl();
+            tokenStream.seek(0);
+            parser.reset();
+        }
     }
 
     private static class ErrorListener extends ConsoleErrorListener {
@@ -0,0 +1,651 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.ast.parser;
+
+import org.antlr.v4.runtime.RuntimeMetaData;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.dfa.DFAState;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Reads and writes the prediction DFA that the parser builds while parsing.
+ * <p>
+ * The generated parser starts every program run with empty DFAs and only reaches its full speed once they contain the
+ * decisions of the parsed inputs. Storing the DFA states together with the prediction contexts they refer to allows a
+ * later run to start with the DFA of earlier runs. A cache is only accepted for the same ANTLR runtime version and the
+ * same grammar it was written for.
+ * <p>
+ * Few inputs need a long lookahead to decide between alternatives, but the states they add make up most of the DFA.
+ * Only the states within a maximum lookahead from the start states are therefore stored, as loading the others costs
+ * more time than computing them again on the rare occasion they are needed. The edges to the dropped states are
+ * removed, so the parser recomputes their targets.
+ * <p>
+ * All numbers are stored as variable-length integers. References to contexts and states are stored as their position
+ * plus one, so that zero marks a missing reference. Edges are stored sparsely, as most tokens do not have a transition
+ * in a state.
+ * <p>
+ * The DFA of the lexer is not stored, as its states cannot be restored with the public API of the runtime. It is
+ * small and warms up within the first few inputs.
+ */
+final class DfaCache {
+
+    private static final int MAGIC = 0x47444641;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int NONE = 0;
+
+    private static final int ERROR_STATE = 1;
+
+    private static final int FIRST_STATE = 2;
+
+    private static final int EMPTY_CONTEXT = 0;
+    private static final int SINGLETON_CONTEXT = 1;
+    private static final int ARRAY_CONTEXT = 2;
+
+    private static final int NO_PREDICATE = 0;
+    private static final int PREDICATE = 1;
+    private static final int PRECEDENCE_PREDICATE = 2;
+    private static final int AND = 3;
+    private static final int OR = 4;
+
+    private DfaCache() {
+        throw new IllegalCallerException("utility class constructor");
+    }
+
+    /**
+     * Writes the DFA of all decisions.
+     *
+     * @param stream        The stream to write to.
+     * @param decisionToDfa The DFA of each decision of the parser.
+     * @param serializedAtn The serialized ATN of the grammar the DFA was built for.
+     * @param maxLookahead  The maximum number of edges between a start state and the stored states.
+     * @throws IOException Thrown if the stream cannot be written.
+     */
+    static void write(
+        final OutputStream stream, final DFA[] decisionToDfa, final String serializedAtn, final int maxLookahead
+    ) throws IOException {
+        final List<List<DFAState>> states = new ArrayList<>(decisionToDfa.length);
+        for (final DFA dfa : decisionToDfa) {
+            states.add(statesWithinLookahead(dfa, maxLookahead));
+        }
+
+        final Tables tables = new Tables();
+        for (final List<DFAState> decisionStates : states) {
+            for (final DFAState state : decisionStates) {
+                tables.collect(state);
+            }
+        }
+
+        final Output out = new Output(stream);
+        out.data.writeInt(MAGIC);
+        out.data.writeInt(FORMAT_VERSION);
+        out.data.writeUTF(RuntimeMetaData.VERSION);
+        out.data.writeInt(serializedAtn.hashCode());
+        out.writeVarInt(decisionToDfa.length);
+
+        writeContexts(out, tables);
+        writeSemanticContexts(out, tables);
+
+        for (int decision = 0; decision < decisionToDfa.length; ++decision) {
+            writeDfa(out, decisionToDfa[decision], states.get(decision), tables);
+        }
+        out.data.flush();
+    }
+
+    /**
+     * Reads the DFA of all decisions into DFAs that were not used for parsing yet.
+     * <p>
+     * Decisions whose DFA already contains states are skipped. The prediction contexts are added to the shared
+     * context cache of the parser.
+     *
+     * @param data          The content of a cache.
+     * @param decisionToDfa The DFA of each decision of the parser.
+     * @param atn           The ATN of the grammar.
+     * @param serializedAtn The serialized ATN of the grammar.
+     * @param contextCache  The shared context cache of the parser.
+     * @return The number of DFA states added, or {@code -1} if the cache was written for another grammar or runtime.
+     * @throws IOException Thrown if the data is no valid cache.
+     */
+    static int read(
+        final byte[] data, final DFA[] decisionToDfa, final ATN atn, final String serializedAtn,
+        final PredictionContextCache contextCache
+    ) throws IOException {
+        final Input in = new Input(ByteBuffer.wrap(data));
+        try {
+            if (in.buffer.getInt() != MAGIC || in.buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a DFA cache file.");
+            }
+            if (!RuntimeMetaData.VERSION.equals(in.readUtf()) || in.buffer.getInt() != serializedAtn.hashCode()
+                || in.readVarInt() != decisionToDfa.length) {
+                return -1;
+            }
+
+            final PredictionContext[] contexts = readContexts(in, contextCache);
+            final SemanticContext[] semanticContexts = readSemanticContexts(in);
+
+            final List<LoadedDfa> loaded = new ArrayList<>(decisionToDfa.length);
+            for (final DFA dfa : decisionToDfa) {
+                loaded.add(readDfa(in, dfa, atn, contexts, semanticContexts));
+            }
+
+            int added = 0;
+            for (final LoadedDfa dfa : loaded) {
+                added += dfa.install();
+            }
+            return added;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Truncated DFA cache file.", e);
+        }
+    }
+
+    /**
+     * Collects the states of a DFA in breadth-first order starting at its start states.
+     */
+    private static List<DFAState> statesWithinLookahead(final DFA dfa, final int maxLookahead) {
+        final List<DFAState> states = new ArrayList<>();
+        final Map<DFAState, Integer> depths = new IdentityHashMap<>();
+        final Queue<DFAState> queue = new ArrayDeque<>();
+
+        final DFAState[] starts = dfa.isPrecedenceDfa() ? dfa.s0.edges : new DFAState[]{dfa.s0};
+        if (starts != null) {
+            for (final DFAState start : starts) {
+                if (start != null && depths.putIfAbsent(start, 0) == null) {
+                    queue.add(start);
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final DFAState state = queue.remove();
+            states.add(state);
+
+            final int depth = depths.get(state);
+            if (depth == maxLookahead || state.edges == null) {
+                continue;
+            }
+            for (final DFAState target : state.edges) {
+                if (target != null && target != ATNSimulator.ERROR && depths.putIfAbsent(target, depth + 1) == null) {
+                    queue.add(target);
+                }
+            }
+        }
+
+        return states;
+    }
+
+    private static void writeContexts(final Output out, final Tables tables) throws IOException {
+        out.writeVarInt(tables.orderedContexts.size());
+        for (final PredictionContext context : tables.orderedContexts) {
+            if (context instanceof EmptyPredictionContext) {
+                out.writeVarInt(EMPTY_CONTEXT);
+            }
+            else if (context instanceof SingletonPredictionContext singleton) {
+                out.writeVarInt(SINGLETON_CONTEXT);
+                out.writeReference(tables.contexts, singleton.parent);
+                out.writeVarInt(singleton.returnState);
+            }
+            else {
+                out.writeVarInt(ARRAY_CONTEXT);
+                out.writeVarInt(context.size());
+                for (int i = 0; i < context.size(); ++i) {
+                    out.writeReference(tables.contexts, context.getParent(i));
+                    out.writeVarInt(context.getReturnState(i));
+                }
+            }
+        }
+    }
+
+    private static PredictionContext[] readContexts(final Input in, final PredictionContextCache cache)
+        throws IOException {
+        final PredictionContext[] contexts = new PredictionContext[in.readVarInt()];
+        for (int i = 0; i < contexts.length; ++i) {
+            final PredictionContext context = switch (in.readVarInt()) {
+                case EMPTY_CONTEXT -> EmptyPredictionContext.Instance;
+                case SINGLETON_CONTEXT -> {
+                    final PredictionContext parent = in.readReference(contexts, i);
+                    yield SingletonPredictionContext.create(parent, in.readVarInt());
+                }
+                case ARRAY_CONTEXT -> {
+                    final int size = in.readVarInt();
+                    final PredictionContext[] parents = new PredictionContext[size];
+                    final int[] returnStates = new int[size];
+                    for (int j = 0; j < size; ++j) {
+                        parents[j] = in.readReference(contexts, i);
+                        returnStates[j] = in.readVarInt();
+                    }
+                    yield new ArrayPredictionContext(parents, returnStates);
+                }
+                default -> throw new IOException("Unknown prediction context type.");
+            };
+            contexts[i] = cache.add(context);
+        }
+        return contexts;
+    }
+
+    private static void writeSemanticContexts(final Output out, final Tables tables) throws IOException {
+        out.writeVarInt(tables.orderedSemanticContexts.size());
+        for (final SemanticContext context : tables.orderedSemanticContexts) {
+            if (context instanceof SemanticContext.Predicate predicate) {
+                out.writeVarInt(PREDICATE);
+                out.writeVarInt(predicate.ruleIndex);
+                out.writeVarInt(predicate.predIndex);
+                out.writeVarInt(predicate.isCtxDependent ? 1 : 0);
+            }
+            else if (context instanceof SemanticContext.PrecedencePredicate predicate) {
+                out.writeVarInt(PRECEDENCE_PREDICATE);
+                out.writeVarInt(predicate.precedence);
+            }
+            else if (context instanceof SemanticContext.Operator operator) {
+                out.writeVarInt(operator instanceof SemanticContext.AND ? AND : OR);
+                out.writeVarInt(operator.getOperands().size());
+                for (final SemanticContext operand : operator.getOperands()) {
+                    out.writeReference(tables.semanticContexts, operand);
+                }
+            }
+            else {
+                out.writeVarInt(NO_PREDICATE);
+            }
+        }
+    }
+
+    private static SemanticContext[] readSemanticContexts(final Input in) throws IOException {
+        final SemanticContext[] contexts = new SemanticContext[in.readVarInt()];
+        for (int i = 0; i < contexts.length; ++i) {
+            final int type = in.readVarInt();
+            contexts[i] = switch (type) {
+                case NO_PREDICATE -> SemanticContext.Empty.Instance;
+                case PREDICATE -> new SemanticContext.Predicate(in.readVarInt(), in.readVarInt(), in.readVarInt() != 0);
+                case PRECEDENCE_PREDICATE -> new SemanticContext.PrecedencePredicate(in.readVarInt());
+                case AND, OR -> readOperator(in, type == AND, contexts, i);
+                default -> throw new IOException("Unknown semantic context type.");
+            };
+        }
+        return contexts;
+    }
+
+    private static SemanticContext readOperator(
+        final Input in, final boolean and, final SemanticContext[] contexts, final int current
+    ) throws IOException {
+        final int size = in.readVarInt();
+        SemanticContext operator = null;
+        for (int j = 0; j < size; ++j) {
+            final SemanticContext operand = in.readReference(contexts, current);
+            operator = operator == null ? operand
+                : and ? SemanticContext.and(operator, operand) : SemanticContext.or(operator, operand);
+        }
+        if (operator == null) {
+            throw new IOException("Semantic context operator without operands.");
+        }
+        return operator;
+    }
+
+    private static void writeDfa(final Output out, final DFA dfa, final List<DFAState> states, final Tables tables)
+        throws IOException {
+        final Map<DFAState, Integer> ids = new IdentityHashMap<>();
+        for (final DFAState state : states) {
+            ids.put(state, ids.size());
+        }
+
+        out.writeVarInt(states.size());
+        for (final DFAState state : states) {
+            writeState(out, state, tables);
+        }
+        for (final DFAState state : states) {
+            writeEdges(out, state.edges, ids);
+        }
+
+        if (dfa.isPrecedenceDfa()) {
+            writeEdges(out, dfa.s0 == null ? null : dfa.s0.edges, ids);
+        }
+        else {
+            writeEdge(out, dfa.s0, ids);
+        }
+    }
+
+    private static LoadedDfa readDfa(
+        final Input in, final DFA dfa, final ATN atn, final PredictionContext[] contexts,
+        final SemanticContext[] semanticContexts
+    ) throws IOException {
+        final DFAState[] states = new DFAState[in.readVarInt()];
+        for (int i = 0; i < states.length; ++i) {
+            states[i] = readState(in, atn, contexts, semanticContexts);
+        }
+        for (final DFAState state : states) {
+            state.edges = readEdges(in, states);
+        }
+
+        if (dfa.isPrecedenceDfa()) {
+            return new LoadedDfa(dfa, states, null, readEdges(in, states));
+        }
+        else {
+            return new LoadedDfa(dfa, states, readEdge(in, states), null);
+        }
+    }
+
+    private static void writeState(final Output out, final DFAState state, final Tables tables) throws IOException {
+        out.writeVarInt(state.stateNumber);
+
+        final ATNConfigSet configs = state.configs;
+        out.writeVarInt(configs.fullCtx ? 1 : 0);
+        out.writeVarInt(configs.size());
+        for (final ATNConfig config : configs) {
+            out.writeVarInt(config.state.stateNumber);
+            out.writeVarInt(config.alt);
+            out.writeReference(tables.contexts, config.context);
+            out.writeReference(tables.semanticContexts, config.semanticContext);
+            out.writeVarInt(config.reachesIntoOuterContext);
+        }
+        out.writeVarInt(configs.uniqueAlt);
+
+        out.writeVarInt(state.isAcceptState ? 1 : 0);
+        out.writeVarInt(state.prediction);
+        out.writeVarInt(state.requiresFullContext ? 1 : 0);
+        if (state.predicates == null) {
+            out.writeVarInt(NONE);
+        }
+        else {
+            out.writeVarInt(state.predicates.length + 1);
+            for (final DFAState.PredPrediction predicate : state.predicates) {
+                out.writeReference(tables.semanticContexts, predicate.pred);
+                out.writeVarInt(predicate.alt);
+            }
+        }
+    }
+
+    private static DFAState readState(
+        final Input in, final ATN atn, final PredictionContext[] contexts, final SemanticContext[] semanticContexts
+    ) throws IOException {
+        final int stateNumber = in.readVarInt();
+
+        final boolean fullCtx = in.readVarInt() != 0;
+        final ATNConfig[] configs = new ATNConfig[in.readVarInt()];
+        for (int i = 0; i < configs.length; ++i) {
+            final int atnState = in.readVarInt();
+            if (atnState >= atn.states.size()) {
+                throw new IOException("Invalid ATN state.");
+            }
+            configs[i] = new ATNConfig(
+                atn.states.get(atnState), in.readVarInt(), in.readReference(contexts, contexts.length),
+                in.readReference(semanticContexts, semanticContexts.length)
+            );
+            configs[i].reachesIntoOuterContext = in.readVarInt();
+        }
+        final int uniqueAlt = in.readVarInt();
+
+        final boolean isAcceptState = in.readVarInt() != 0;
+        final int prediction = in.readVarInt();
+        final boolean requiresFullContext = in.readVarInt() != 0;
+
+        final DFAState state = new DFAState(new LoadedConfigSet(fullCtx, configs, uniqueAlt, requiresFullContext));
+        state.stateNumber = stateNumber;
+        state.isAcceptState = isAcceptState;
+        state.prediction = prediction;
+        state.requiresFullContext = requiresFullContext;
+
+        final int predicateCount = in.readVarInt();
+        if (predicateCount != NONE) {
+            state.predicates = new DFAState.PredPrediction[predicateCount - 1];
+            for (int i = 0; i < state.predicates.length; ++i) {
+                state.predicates[i] = new DFAState.PredPrediction(
+                    in.readReference(semanticContexts, semanticContexts.length), in.readVarInt()
+                );
+            }
+        }
+
+        return state;
+    }
+
+    private static void writeEdges(final Output out, final DFAState[] edges, final Map<DFAState, Integer> ids)
+        throws IOException {
+        if (edges == null) {
+            out.writeVarInt(NONE);
+            return;
+        }
+
+        int targets = 0;
+        for (final DFAState target : edges) {
+            if (target != null) {
+                ++targets;
+            }
+        }
+        out.writeVarInt(edges.length + 1);
+        out.writeVarInt(targets);
+        for (int i = 0; i < edges.length; ++i) {
+            if (edges[i] != null) {
+                out.writeVarInt(i);
+                writeEdge(out, edges[i], ids);
+            }
+        }
+    }
+
+    private static DFAState[] readEdges(final Input in, final DFAState[] states) throws IOException {
+        final int length = in.readVarInt();
+        if (length == NONE) {
+            return null;
+        }
+
+        final DFAState[] edges = new DFAState[length - 1];
+        final int targets = in.readVarInt();
+        for (int i = 0; i < targets; ++i) {
+            final int symbol = in.readVarInt();
+            if (symbol >= edges.length) {
+                throw new IOException("Invalid edge symbol.");
+            }
+            edges[symbol] = readEdge(in, states);
+        }
+        return edges;
+    }
+
+    /**
+     * Writes the target of an edge. Targets beyond the maximum lookahead are dropped.
+     */
+    private static void writeEdge(final Output out, final DFAState target, final Map<DFAState, Integer> ids)
+        throws IOException {
+        if (target == ATNSimulator.ERROR) {
+            out.writeVarInt(ERROR_STATE);
+        }
+        else {
+            final Integer id = target == null ? null : ids.get(target);
+            out.writeVarInt(id == null ? NONE : id + FIRST_STATE);
+        }
+    }
+
+    private static DFAState readEdge(final Input in, final DFAState[] states) throws IOException {
+        final int target = in.readVarInt();
+        if (target == NONE) {
+            return null;
+        }
+        else if (target == ERROR_STATE) {
+            return ATNSimulator.ERROR;
+        }
+        else if (target - FIRST_STATE < states.length) {
+            return states[target - FIRST_STATE];
+        }
+        else {
+            throw new IOException("Invalid DFA state reference.");
+        }
+    }
+
+    private static final class Output {
+
+        private final DataOutputStream data;
+
+        private Output(final OutputStream stream) {
+            this.data = new DataOutputStream(stream);
+        }
+
+        private void writeVarInt(final int value) throws IOException {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                data.writeByte((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            data.writeByte(remaining);
+        }
+
+        private <T> void writeReference(final Map<T, Integer> ids, final T element) throws IOException {
+            writeVarInt(element == null ? NONE : ids.get(element) + 1);
+        }
+    }
+
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        private Input(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                final byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed number in DFA cache.");
+        }
+
+        private String readUtf() {
+            final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads a reference to one of the elements before position {@code current}.
+         */
+        private <T> T readReference(final T[] elements, final int current) throws IOException {
+            final int reference = readVarInt();
+            if (reference == NONE) {
+                return null;
+            }
+            if (reference > current) {
+                throw new IOException("Invalid reference in DFA cache.");
+            }
+            return elements[reference - 1];
+        }
+    }
+
+    /**
+     * Numbers the prediction and semantic contexts so that each one is numbered after the contexts it refers to.
+     */
+    private static final class Tables {
+
+        private final Map<PredictionContext, Integer> contexts = new IdentityHashMap<>();
+
+        private final List<PredictionContext> orderedContexts = new ArrayList<>();
+
+        private final Map<SemanticContext, Integer> semanticContexts = new IdentityHashMap<>();
+
+        private final List<SemanticContext> orderedSemanticContexts = new ArrayList<>();
+
+        private void collect(final DFAState state) {
+            for (final ATNConfig config : state.configs) {
+                collect(config.context);
+                collect(config.semanticContext);
+            }
+            if (state.predicates != null) {
+                for (final DFAState.PredPrediction predicate : state.predicates) {
+                    collect(predicate.pred);
+                }
+            }
+        }
+
+        private void collect(final PredictionContext context) {
+            if (context == null || contexts.containsKey(context)) {
+                return;
+            }
+            for (int i = 0; i < context.size(); ++i) {
+                collect(context.getParent(i));
+            }
+            contexts.put(context, contexts.size());
+            orderedContexts.add(context);
+        }
+
+        private void collect(final SemanticContext context) {
+            if (semanticContexts.containsKey(context)) {
+                return;
+            }
+            if (context instanceof SemanticContext.Operator operator) {
+                operator.getOperands().forEach(this::collect);
+            }
+            semanticContexts.put(context, semanticContexts.size());
+            orderedSemanticContexts.add(context);
+        }
+    }
+
+    /**
+     * The configurations of a restored DFA state.
+     * <p>
+     * The configurations of a stored state are unique, so they are added without the lookup the runtime uses to merge
+     * configurations. The conflicting alternatives are only set by the runtime while the state is created, so they
+     * are recomputed for the states that require full context prediction.
+     */
+    private static final class LoadedConfigSet extends ATNConfigSet {
+
+        private LoadedConfigSet(
+            final boolean fullCtx, final ATNConfig[] configs, final int uniqueAlt, final boolean requiresFullContext
+        ) {
+            super(fullCtx);
+            for (final ATNConfig config : configs) {
+                this.configs.add(config);
+                this.hasSemanticContext |= config.semanticContext != SemanticContext.Empty.Instance;
+                this.dipsIntoOuterContext |= config.getOuterContextDepth() > 0;
+            }
+            this.uniqueAlt = uniqueAlt;
+            if (requiresFullContext) {
+                this.conflictingAlts = PredictionMode.getAlts(PredictionMode.getConflictingAltSubsets(this));
+            }
+            setReadonly(true);
+        }
+    }
+
+    /**
+     * The states of a decision that are added to the DFA of the parser once the whole cache was read.
+     */
+    private record LoadedDfa(DFA dfa, DFAState[] states, DFAState start, DFAState[] precedenceStart) {
+
+        private int install() {
+            synchronized (dfa.states) {
+                if (!dfa.states.isEmpty()) {
+                    return 0;
+                }
+
+                for (final DFAState state : states) {
+                    dfa.states.put(state, state);
+                }
+                if (precedenceStart != null) {
+                    for (int precedence = 0; precedence < precedenceStart.length; ++precedence) {
+                        if (precedenceStart[precedence] != null) {
+                            dfa.setPrecedenceStartState(precedence, precedenceStart[precedence]);
+                        }
+                    }
+                }
+                else if (start != null) {
+                    dfa.s0 = start;
+                }
+                return states.length;
+            }
+        }
+    }
+}
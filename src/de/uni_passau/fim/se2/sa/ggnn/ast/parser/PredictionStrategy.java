@@ -0,0 +1,24 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.ast.parser;
+
+/**
+ * How the ANTLR parser predicts which alternative of a rule to take.
+ */
+public enum PredictionStrategy {
+
+    /**
+     * Full-context LL prediction for every input.
+     */
+    LL,
+
+    /**
+     * Parses with the faster SLL prediction first and only falls back to full LL prediction if that fails.
+     * <p>
+     * SLL prediction either yields the same parse tree as LL prediction or reports a syntax error. Therefore, the
+     * results are identical to {@link #LL}, but most inputs are parsed without computing full-context predictions.
+     */
+    SLL_THEN_LL
+}
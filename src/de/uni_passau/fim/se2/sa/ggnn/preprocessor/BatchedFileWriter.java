@@ -0,0 +1,303 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes lines to output files in large batches on a dedicated writer thread.
+ * <p>
+ * The lines are encoded by the calling thread and grouped per output file. Once a batch holds at least
+ * {@code batchBytes}, it is handed to the writer thread, which opens each file of the batch once and writes all of its
+ * lines with a single gathering write. Meanwhile, the calling thread fills the next batch. At most
+ * {@link #QUEUED_BATCHES} batches wait for the writer thread, so a slow disk blocks the caller instead of filling the
+ * memory.
+ * <p>
+ * The first write to a file truncates it, all later ones of the same writer append to it. Failures of the writer thread
+ * are rethrown by the next call of {@link #writeLine(Path, String)} or {@link #close()}.
+ */
+public final class BatchedFileWriter implements AutoCloseable {
+
+    /**
+     * The number of bytes after which a batch is handed to the writer thread if no explicit size is given.
+     */
+    public static final int DEFAULT_BATCH_BYTES = 4 << 20;
+
+    /**
+     * The number of full batches that may wait for the writer thread.
+     */
+    private static final int QUEUED_BATCHES = 2;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private static final LongAdder BATCHES = new LongAdder();
+    private static final LongAdder FILES = new LongAdder();
+    private static final LongAdder BYTES = new LongAdder();
+    private static final LongAdder WRITE_NANOS = new LongAdder();
+
+    private final int batchBytes;
+
+    private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+
+    private final Thread writerThread;
+
+    /**
+     * Files that were already truncated by this writer. Only accessed by the writer thread.
+     */
+    private final Set<Path> writtenFiles = new HashSet<>();
+
+    /**
+     * Directories that are known to exist. Only accessed by the writer thread.
+     */
+    private final Set<Path> createdDirectories = new HashSet<>();
+
+    private volatile IOException failure;
+
+    private Batch batch = new Batch();
+
+    private boolean closed = false;
+
+    public BatchedFileWriter() {
+        this(DEFAULT_BATCH_BYTES);
+    }
+
+    /**
+     * Creates a writer and starts its writer thread.
+     *
+     * @param batchBytes The number of bytes after which a batch is written.
+     */
+    public BatchedFileWriter(final int batchBytes) {
+        Preconditions.checkArgument(batchBytes > 0, "The batch size must be positive.");
+
+        this.batchBytes = batchBytes;
+        this.writerThread = new Thread(this::writeBatches, "batched-file-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Writes the line followed by a line separator to the file.
+     * <p>
+     * Missing parent directories of the file are created. The line only reaches the file once its batch is written, at
+     * the latest when this writer is closed.
+     *
+     * @param file Some output file.
+     * @param line The content that should be written.
+     * @throws IOException Thrown if writing a previous batch failed.
+     */
+    public void writeLine(final Path file, final String line) throws IOException {
+        Preconditions.checkState(!closed, "The writer is already closed.");
+        throwFailure();
+
+        batch.add(file, line.getBytes(StandardCharsets.UTF_8));
+        batch.add(file, LINE_SEPARATOR);
+        submitIfFull();
+    }
+
+    /**
+     * Writes the bytes to the file.
+     * <p>
+     * Like {@link #writeLine(Path, String)}, but without any encoding or line separator. The array must not be modified
+     * afterwards.
+     *
+     * @param file  Some output file.
+     * @param bytes The content that should be written.
+     * @throws IOException Thrown if writing a previous batch failed.
+     */
+    public void write(final Path file, final byte[] bytes) throws IOException {
+        Preconditions.checkState(!closed, "The writer is already closed.");
+        throwFailure();
+
+        batch.add(file, bytes);
+        submitIfFull();
+    }
+
+    private void submitIfFull() throws IOException {
+        if (batch.bytes >= batchBytes) {
+            submit(batch);
+            batch = new Batch();
+        }
+    }
+
+    /**
+     * Writes all remaining lines and waits until the writer thread has finished.
+     *
+     * @throws IOException Thrown if writing to any of the files failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+        submit(Batch.END);
+
+        try {
+            writerThread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the output to be written.");
+        }
+
+        throwFailure();
+    }
+
+    private void submit(final Batch next) throws IOException {
+        try {
+            queue.put(next);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer thread.");
+        }
+    }
+
+    private void throwFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Could not write the output.", failure);
+        }
+    }
+
+    private void writeBatches() {
+        while (true) {
+            final Batch next;
+            try {
+                next = queue.take();
+            }
+            catch (InterruptedException e) {
+                failure = new InterruptedIOException("The writer thread was interrupted.");
+                return;
+            }
+
+            if (next == Batch.END) {
+                return;
+            }
+            // keep taking batches after a failure, so that the caller is never blocked on a full queue
+            if (failure == null) {
+                tryWrite(next);
+            }
+        }
+    }
+
+    private void tryWrite(final Batch next) {
+        final long start = System.nanoTime();
+        try {
+            for (final Map.Entry<Path, List<byte[]>> file : next.files.entrySet()) {
+                writeChunks(file.getKey(), file.getValue());
+            }
+            BATCHES.increment();
+            BYTES.add(next.bytes);
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+        finally {
+            WRITE_NANOS.add(System.nanoTime() - start);
+        }
+    }
+
+    private void writeChunks(final Path file, final List<byte[]> chunks) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        if (directory != null && createdDirectories.add(directory)) {
+            Files.createDirectories(directory);
+        }
+
+        final StandardOpenOption mode;
+        if (writtenFiles.add(file)) {
+            mode = StandardOpenOption.TRUNCATE_EXISTING;
+        }
+        else {
+            mode = StandardOpenOption.APPEND;
+        }
+
+        final ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+        for (int i = 0; i < buffers.length; ++i) {
+            buffers[i] = ByteBuffer.wrap(chunks.get(i));
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        FILES.increment();
+    }
+
+    /**
+     * Gets the counts of all writes since the start of the program.
+     *
+     * @return The counts of all batched writers.
+     */
+    public static Statistics statistics() {
+        return new Statistics(BATCHES.sum(), FILES.sum(), BYTES.sum(), WRITE_NANOS.sum());
+    }
+
+    /**
+     * Counts of the batched writes.
+     *
+     * @param batches    The number of written batches.
+     * @param fileWrites The number of times a file was opened to write the lines of a batch.
+     * @param bytes      The number of written bytes.
+     * @param writeNanos The time the writer threads spent writing.
+     */
+    public record Statistics(long batches, long fileWrites, long bytes, long writeNanos) {
+
+        /**
+         * Computes the write throughput.
+         *
+         * @return The written megabytes per second of writing, zero if nothing was written.
+         */
+        public double megabytesPerSecond() {
+            if (writeNanos == 0) {
+                return 0;
+            }
+            return bytes / 1e6 / (writeNanos / 1e9);
+        }
+    }
+
+    /**
+     * The encoded lines grouped by their output file in the order the files were first written.
+     */
+    private static final class Batch {
+
+        private static final Batch END = new Batch();
+
+        private final Map<Path, List<byte[]>> files = new LinkedHashMap<>();
+
+        private long bytes = 0;
+
+        private void add(final Path file, final byte[] chunk) {
+            files.computeIfAbsent(file, f -> new ArrayList<>()).add(chunk);
+            bytes += chunk.length;
+        }
+
+        private boolean isEmpty() {
+            return files.isEmpty();
+        }
+    }
+}
@@ -4,10 +4,37 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
 
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.PredictionStrategy;
+
 /**
  * Parameters used by preprocessors.
  *
  * @param inputPath     The directory that contains the Java sources files.
  * @param outputPath    The directory to which the results should be written.
+ * @param threads       The number of worker threads that process inputs concurrently.
+ * @param predictionStrategy How the Java sources are parsed.
+ * @param incremental   If inputs that did not change since the last run into the output directory are skipped.
  */
-public record CommonPreprocessorOptions(ProcessingPath inputPath, ProcessingPath outputPath) {}
+public record CommonPreprocessorOptions(
+    ProcessingPath inputPath, ProcessingPath outputPath, int threads, PredictionStrategy predictionStrategy,
+    boolean incremental
+) {
+
+    public CommonPreprocessorOptions(ProcessingPath inputPath, ProcessingPath outputPath) {
+        this(inputPath, outputPath, 1);
+    }
+
+    public CommonPreprocessorOptions(ProcessingPath inputPath, ProcessingPath outputPath, int threads) {
+        this(inputPath, outputPath, threads, PredictionStrategy.LL);
+    }
+
+    public CommonPreprocessorOptions(
+        ProcessingPath inputPath, ProcessingPath outputPath, int threads, PredictionStrategy predictionStrategy
+    ) {
+        this(inputPath, outputPath, threads, predictionStrategy, false);
+    }
+
+    public boolean isParallel() {
+        return threads > 1;
+    }
+}
@@ -0,0 +1,185 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which input files an output directory was generated from, so that unchanged inputs can be skipped.
+ * <p>
+ * The manifest is stored as JSON in the output directory. It maps the path of each input relative to the input
+ * directory to the SHA-256 hash of its content and its output file relative to the output directory. All entries are
+ * discarded if the manifest was written by another tool version or with another configuration, as the outputs might
+ * differ then.
+ * <p>
+ * Thread-safe.
+ */
+final class IncrementalManifest {
+
+    static final String FILE_NAME = ".preprocessing-manifest.json";
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalManifest.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path inputDirectory;
+
+    private final Path outputDirectory;
+
+    private final String version;
+
+    private final Map<String, Entry> previousEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The outputs of the skipped inputs, relative to the output directory.
+     */
+    private final Set<String> skippedOutputs = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder skippedInputs = new LongAdder();
+
+    private IncrementalManifest(
+        final Path inputDirectory, final Path outputDirectory, final String version,
+        final Map<String, Entry> previousEntries
+    ) {
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = outputDirectory;
+        this.version = version;
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * Loads the manifest of the output directory.
+     *
+     * @param inputDirectory  The directory the inputs are read from.
+     * @param outputDirectory The directory the outputs are written to.
+     * @param version         The tool version and configuration the outputs are generated with.
+     * @return The manifest, without any entries if none exists yet or it was written with another version.
+     */
+    static IncrementalManifest load(final Path inputDirectory, final Path outputDirectory, final String version) {
+        final Path file = outputDirectory.resolve(FILE_NAME);
+        Map<String, Entry> previousEntries = Map.of();
+        if (Files.isRegularFile(file)) {
+            try {
+                final Content content = MAPPER.readValue(file.toFile(), Content.class);
+                if (version.equals(content.version()) && content.inputs() != null) {
+                    previousEntries = content.inputs();
+                }
+                else {
+                    log.info("The outputs in {} were generated by another version, processing all inputs.", file);
+                }
+            }
+            catch (IOException e) {
+                log.warn("Could not read the manifest {}, processing all inputs.", file, e);
+            }
+        }
+        return new IncrementalManifest(inputDirectory, outputDirectory, version, previousEntries);
+    }
+
+    /**
+     * Hashes the content of an input.
+     *
+     * @param content The raw content of some input file.
+     * @return The hash as hexadecimal string.
+     */
+    static String hash(final byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+
+    /**
+     * Checks if an input has to be processed and records it in the manifest.
+     * <p>
+     * Has to be called once for every input that still exists, even if it is skipped. All other inputs are considered
+     * to be deleted.
+     *
+     * @param input      Some input file.
+     * @param hash       The {@link #hash(byte[]) hash} of the current content of the input.
+     * @param outputFile The output file of the input, relative to the output directory.
+     * @return True, if the content changed since the last run or its output is missing.
+     */
+    boolean update(final Path input, final String hash, final Path outputFile) {
+        final String key = inputDirectory.relativize(input).toString();
+        final Entry entry = new Entry(hash, outputFile.toString());
+        entries.put(key, entry);
+
+        final boolean unchanged = entry.equals(previousEntries.get(key))
+            && Files.exists(outputDirectory.resolve(entry.output()));
+        if (unchanged) {
+            skippedOutputs.add(entry.output());
+            skippedInputs.increment();
+        }
+        return !unchanged;
+    }
+
+    /**
+     * Gets the number of inputs that were skipped as they did not change.
+     *
+     * @return The number of skipped inputs.
+     */
+    long skippedInputs() {
+        return skippedInputs.sum();
+    }
+
+    /**
+     * Deletes the stale outputs and saves the manifest.
+     * <p>
+     * Outputs are stale if their input no longer exists, or if their input changed and did not yield any output in
+     * this run, e.g. as it cannot be parsed anymore. Has to be called after all outputs were written successfully.
+     *
+     * @param writtenOutputs The output files written in this run.
+     * @return The number of deleted output files.
+     * @throws IOException Thrown if an output cannot be deleted or the manifest cannot be written.
+     */
+    int commit(final Set<Path> writtenOutputs) throws IOException {
+        final Set<Path> currentOutputs = new HashSet<>(writtenOutputs);
+        for (final String output : skippedOutputs) {
+            currentOutputs.add(outputDirectory.resolve(output));
+        }
+
+        int deletedOutputs = 0;
+        for (final Entry previous : previousEntries.values()) {
+            final Path output = outputDirectory.resolve(previous.output());
+            if (currentOutputs.add(output) && Files.deleteIfExists(output)) {
+                ++deletedOutputs;
+            }
+        }
+
+        Files.createDirectories(outputDirectory);
+        final Path file = outputDirectory.resolve(FILE_NAME);
+        final Path temporaryFile = outputDirectory.resolve(FILE_NAME + ".tmp");
+        MAPPER.writeValue(temporaryFile.toFile(), new Content(version, new TreeMap<>(entries)));
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return deletedOutputs;
+    }
+
+    /**
+     * @param hash   The hash of the input content.
+     * @param output The output file relative to the output directory.
+     */
+    private record Entry(String hash, String output) {
+    }
+
+    /**
+     * The content of a manifest file.
+     */
+    private record Content(String version, Map<String, Entry> inputs) {
+    }
+}
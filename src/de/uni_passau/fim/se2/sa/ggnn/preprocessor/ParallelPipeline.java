@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maps the elements of a stream concurrently while preserving their encounter order.
+ * <p>
+ * The source stream is pulled lazily by the thread consuming the result stream (usually the one writing the output).
+ * At most {@code capacity} elements are in flight at any time. Therefore, the reader can never run ahead of the writer
+ * by more than this window, which keeps the memory usage bounded independently of the number of inputs.
+ */
+public final class ParallelPipeline {
+
+    /**
+     * The number of in-flight elements per worker thread if no explicit capacity is given.
+     */
+    private static final int DEFAULT_ELEMENTS_PER_THREAD = 4;
+
+    private ParallelPipeline() {
+        throw new IllegalCallerException("utility class constructor");
+    }
+
+    /**
+     * Applies the mapper to all inputs using a work-stealing pool with the given number of threads.
+     *
+     * @param inputs  The elements to process.
+     * @param mapper  Some function that is safe to be called concurrently.
+     * @param threads The number of worker threads.
+     * @param <I>     The input type.
+     * @param <O>     The output type.
+     * @return The mapped elements in the same order as the inputs.
+     */
+    public static <I, O> Stream<O> mapOrdered(final Stream<I> inputs, final Function<I, O> mapper, final int threads) {
+        return mapOrdered(inputs, mapper, threads, threads * DEFAULT_ELEMENTS_PER_THREAD);
+    }
+
+    /**
+     * Applies the mapper to all inputs using a work-stealing pool with the given number of threads.
+     *
+     * @param inputs   The elements to process.
+     * @param mapper   Some function that is safe to be called concurrently.
+     * @param threads  The number of worker threads.
+     * @param capacity The maximum number of elements that are read but not yet consumed.
+     * @param <I>      The input type.
+     * @param <O>      The output type.
+     * @return The mapped elements in the same order as the inputs.
+     */
+    public static <I, O> Stream<O> mapOrdered(
+        final Stream<I> inputs, final Function<I, O> mapper, final int threads, final int capacity
+    ) {
+        Preconditions.checkArgument(threads > 0, "At least one worker thread is required.");
+        Preconditions.checkArgument(capacity >= threads, "The capacity must not be smaller than the thread count.");
+
+        final ExecutorService executor = Executors.newWorkStealingPool(threads);
+        final OrderedIterator<I, O> iterator = new OrderedIterator<>(inputs.iterator(), mapper, executor, capacity);
+        final Spliterator<O> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+        return StreamSupport.stream(spliterator, false)
+            .onClose(iterator::shutdown)
+            .onClose(inputs::close);
+    }
+
+    private static final class OrderedIterator<I, O> implements Iterator<O> {
+
+        private final Iterator<I> inputs;
+        private final Function<I, O> mapper;
+        private final ExecutorService executor;
+        private final int capacity;
+
+        private final Deque<Future<O>> inFlight;
+
+        OrderedIterator(
+            final Iterator<I> inputs, final Function<I, O> mapper, final ExecutorService executor, final int capacity
+        ) {
+            this.inputs = inputs;
+            this.mapper = mapper;
+            this.executor = executor;
+            this.capacity = capacity;
+            this.inFlight = new ArrayDeque<>(capacity);
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+
+            if (inFlight.isEmpty()) {
+                shutdown();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public O next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return await(inFlight.poll());
+        }
+
+        private void fill() {
+            while (inFlight.size() < capacity && inputs.hasNext()) {
+                final I input = inputs.next();
+                inFlight.add(executor.submit(() -> mapper.apply(input)));
+            }
+        }
+
+        private O await(final Future<O> result) {
+            try {
+                return result.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shutdown();
+                throw new ProcessingException("Interrupted while waiting for a worker.", e);
+            }
+            catch (ExecutionException e) {
+                shutdown();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new ProcessingException("Worker failed to process an input.", e.getCause());
+            }
+        }
+
+        void shutdown() {
+            inFlight.forEach(f -> f.cancel(true));
+            inFlight.clear();
+            executor.shutdownNow();
+        }
+    }
+}
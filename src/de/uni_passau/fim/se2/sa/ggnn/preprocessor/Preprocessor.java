@@ -9,19 +9,22 @@
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.shared.CodeAndLabelsExtractor;
 import de.uni_passau.fim.se2.sa.ggnn.util.FileReadUtil;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,12 +45,36 @@ public abstract class Preprocessor {
 
     protected final CommonPreprocessorOptions commonOptions;
 
+    /**
+     * The manifest of the output directory in incremental mode, loaded when the inputs are read.
+     */
+    private IncrementalManifest manifest;
+
     protected Preprocessor(final CommonPreprocessorOptions commonOptions) {
         this.commonOptions = commonOptions;
     }
 
     public abstract void process() throws ProcessingException;
 
+    /**
+     * Determines the output file of an input file.
+     *
+     * @param input Some input file.
+     * @return The output file, relative to the output directory.
+     */
+    protected abstract Path getOutputFile(Path input);
+
+    /**
+     * Describes all options that change the outputs.
+     * <p>
+     * In incremental mode, all inputs are processed again if the configuration differs from the last run.
+     *
+     * @return The configuration of this preprocessor.
+     */
+    protected String getConfiguration() {
+        return getClass().getName();
+    }
+
     /**
      * Preprocesses the code of a compilation unit (i.e. a Java file).
      *
@@ -64,7 +91,7 @@ protected Preprocessor(final CommonPreprocessorOptions commonOptions) {
      */
     public abstract Optional<String> processSingleMethod(String code);
 
-    protected record Input(Path file, String content) {
+    protected record Input(Path file, CharStream content) {
     }
 
     /**
@@ -72,6 +99,11 @@ protected record Input(Path file, String content) {
      * <p>
      * For an input directory, recursively walks over all files. Otherwise, reads the content from a single file or the
      * console input. For console input, the file path of the element is {@link #CONSOLE_PATH}.
+     * <p>
+     * In {@link CommonPreprocessorOptions#incremental() incremental} mode, files of an input directory whose content
+     * did not change since the last run into the output directory are skipped.
+     * <p>
+     * The returned stream is lazy and has to be closed after use.
      *
      * @return One {@link Input} element for each file in the predefined source.
      * @throws ProcessingException Thrown if reading from a file failed.
@@ -79,7 +111,14 @@ protected record Input(Path file, String content) {
     protected final Stream<Input> readInputs() throws ProcessingException {
         return switch (commonOptions.inputPath().getPathType()) {
             case CONSOLE -> Stream.of(readConsoleInput());
-            case DIRECTORY -> readDirectoryFiles(commonOptions.inputPath().getPath());
+            case DIRECTORY -> {
+                if (isIncremental()) {
+                    manifest = IncrementalManifest.load(
+                        commonOptions.inputPath().getPath(), commonOptions.outputPath().getPath(), getVersion()
+                    );
+                }
+                yield readDirectoryFiles(commonOptions.inputPath().getPath());
+            }
             case FILE -> tryReadFileInput(commonOptions.inputPath().getPath()).stream();
         };
     }
@@ -87,20 +126,28 @@ protected final Stream<Input> readInputs() throws ProcessingException {
     private Input readConsoleInput() throws ProcessingException {
         try (var is = new InputStreamReader(System.in, StandardCharsets.UTF_8); var br = new BufferedReader(is)) {
             final String input = br.lines().collect(Collectors.joining(NEWLINE));
-            return new Input(CONSOLE_PATH, input.trim());
+            return new Input(CONSOLE_PATH, CharStreams.fromString(input.trim(), CONSOLE_PATH.toString()));
         }
         catch (IOException e) {
             throw new ProcessingException("Cannot read from stdin.", e);
         }
     }
 
+    /**
+     * Lazily walks over the directory.
+     * <p>
+     * Files are only read when the resulting stream is consumed. Therefore, at most one input per consumer has to be
+     * held in memory at any time. The returned stream holds open directory handles and has to be closed.
+     *
+     * @param directory Some input directory.
+     * @return The inputs in the order the files are encountered during the walk.
+     * @throws ProcessingException Thrown if the directory cannot be opened.
+     */
     private Stream<Input> readDirectoryFiles(final Path directory) throws ProcessingException {
-        try (var files = Files.walk(directory)) {
-            return files
+        try {
+            return Files.walk(directory)
                 .filter(p -> p.toFile().isFile())
-                .toList()
-                .stream()
-                .map(this::tryReadFileInput)
+                .map(manifest == null ? this::tryReadFileInput : this::tryReadChangedFileInput)
                 .flatMap(Optional::stream);
         }
         catch (IOException e) {
@@ -110,7 +157,7 @@ private Stream<Input> readDirectoryFiles(final Path directory) throws Processing
 
     private Optional<Input> tryReadFileInput(final Path file) {
         try {
-            final String content = FileReadUtil.readFileWithBom(file.toFile());
+            final CharStream content = FileReadUtil.readCharStream(file);
             return Optional.of(new Input(file, content));
         }
         catch (IOException e) {
@@ -119,6 +166,40 @@ private Optional<Input> tryReadFileInput(final Path file) {
         }
     }
 
+    /**
+     * Reads a file only if its content changed since the last run.
+     *
+     * @param file Some input file.
+     * @return The input, or nothing if it is unchanged or cannot be read.
+     */
+    private Optional<Input> tryReadChangedFileInput(final Path file) {
+        try {
+            final byte[] bytes = Files.readAllBytes(file);
+            if (!manifest.update(file, IncrementalManifest.hash(bytes), getOutputFile(file))) {
+                return Optional.empty();
+            }
+            return Optional.of(new Input(file, FileReadUtil.readCharStream(bytes, file.toString())));
+        }
+        catch (IOException e) {
+            log.warn("Could not read from file: {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isIncremental() {
+        return commonOptions.incremental() && commonOptions.outputPath().isDirectory();
+    }
+
+    /**
+     * Gets the version of the outputs written by this preprocessor.
+     *
+     * @return The version of the tool and the {@link #getConfiguration() configuration}.
+     */
+    private String getVersion() {
+        final String toolVersion = Preprocessor.class.getPackage().getImplementationVersion();
+        return (toolVersion == null ? "development" : toolVersion) + " " + getConfiguration();
+    }
+
     /**
      * Writes a single output to the predefined destination.
      *
@@ -177,37 +258,102 @@ protected final void writeResult(final Stream<Pair<Path, String>> outputFiles) t
             case CONSOLE -> writeResultsToConsole(outputFiles.map(Pair::b));
             case FILE -> {
                 final Path outputPath = commonOptions.outputPath().getPath();
-                log.warn(
-                    "Preprocessor requested to write multiple files, but the output is specified as a single file. Writing everything to {}.",
-                    outputPath
-                );
-                writeResultsToFile(outputPath, outputFiles.map(Pair::b));
+                warnSingleOutputFile(outputPath);
+                writeResultsToFile(outputPath, outputFiles.map(Pair::b), BatchedFileWriter::writeLine);
             }
-            case DIRECTORY -> writeResultsToFiles(outputFiles);
+            case DIRECTORY -> writeResultsToFiles(outputFiles, BatchedFileWriter::writeLine);
         }
     }
 
+    /**
+     * Writes binary outputs to separate files.
+     * <p>
+     * The contents are written as they are, i.e. without any line separators in between.
+     *
+     * @param outputFiles To which the outputs should be written. If the output is a single file or the console, all
+     *                    contents are appended into this single target.
+     * @throws ProcessingException Thrown in case writing to a file failed.
+     */
+    protected final void writeBinaryResult(final Stream<Pair<Path, byte[]>> outputFiles) throws ProcessingException {
+        switch (commonOptions.outputPath().getPathType()) {
+            case CONSOLE -> {
+                outputFiles.map(Pair::b).forEach(System.out::writeBytes);
+                System.out.flush();
+            }
+            case FILE -> {
+                final Path outputPath = commonOptions.outputPath().getPath();
+                warnSingleOutputFile(outputPath);
+                writeResultsToFile(outputPath, outputFiles.map(Pair::b), BatchedFileWriter::write);
+            }
+            case DIRECTORY -> writeResultsToFiles(outputFiles, BatchedFileWriter::write);
+        }
+    }
+
+    private void warnSingleOutputFile(final Path outputPath) {
+        log.warn(
+            "Preprocessor requested to write multiple files, but the output is specified as a single file. Writing everything to {}.",
+            outputPath
+        );
+    }
+
     private void writeResultsToConsole(final Stream<String> results) {
         results.forEach(System.out::println);
     }
 
-    private void writeResultsToFiles(final Stream<Pair<Path, String>> results) throws ProcessingException {
-        final Iterator<Pair<Path, String>> resultsIt = results.iterator();
-        while (resultsIt.hasNext()) {
-            final Pair<Path, String> result = resultsIt.next();
-            writeResultsToFile(result.a(), Stream.of(result.b()));
+    private <T> void writeResultsToFiles(final Stream<Pair<Path, T>> results, final WriteOperation<T> operation)
+        throws ProcessingException {
+        final Set<Path> writtenOutputs = new HashSet<>();
+        try (BatchedFileWriter writer = new BatchedFileWriter()) {
+            final Iterator<Pair<Path, T>> resultsIt = results.iterator();
+            while (resultsIt.hasNext()) {
+                final Pair<Path, T> result = resultsIt.next();
+                final Path outputFile = getOutputFilePath(result.a());
+                operation.write(writer, outputFile, result.b());
+                if (manifest != null) {
+                    writtenOutputs.add(outputFile);
+                }
+            }
+        }
+        catch (IOException e) {
+            final Path outputDirectory = commonOptions.outputPath().getPath();
+            throw new ProcessingException("Cannot write to the output directory " + outputDirectory, e);
+        }
+
+        if (manifest != null) {
+            commitManifest(writtenOutputs);
+        }
+    }
+
+    private void commitManifest(final Set<Path> writtenOutputs) throws ProcessingException {
+        try {
+            final int deletedOutputs = manifest.commit(writtenOutputs);
+            log.info(
+                "Skipped {} unchanged inputs, deleted {} outdated outputs.", manifest.skippedInputs(), deletedOutputs
+            );
+        }
+        catch (IOException e) {
+            final Path outputDirectory = commonOptions.outputPath().getPath();
+            throw new ProcessingException("Cannot update the manifest of the output directory " + outputDirectory, e);
+        }
+        finally {
+            manifest = null;
         }
     }
 
     private void writeResultsToFile(final Path filename, final Stream<String> results) throws ProcessingException {
+        writeResultsToFile(filename, results, BatchedFileWriter::writeLine);
+    }
+
+    private <T> void writeResultsToFile(
+        final Path filename, final Stream<T> results, final WriteOperation<T> operation
+    ) throws ProcessingException {
         final Path outputFile = getOutputFilePath(filename);
-        createOutputDirectories(outputFile);
 
-        try (
-            var os = Files.newOutputStream(outputFile);
-            var pw = new PrintWriter(os, true, StandardCharsets.UTF_8)
-        ) {
-            results.forEach(pw::println);
+        try (BatchedFileWriter writer = new BatchedFileWriter()) {
+            final Iterator<T> resultsIt = results.iterator();
+            while (resultsIt.hasNext()) {
+                operation.write(writer, outputFile, resultsIt.next());
+            }
         }
         catch (IOException e) {
             throw new ProcessingException("Cannot write to output file " + outputFile, e);
@@ -223,23 +369,9 @@ private Path getOutputFilePath(final Path filename) {
         }
     }
 
-    private void createOutputDirectories(final Path filename) throws ProcessingException {
-        final Path directory = filename.getParent();
-        if (directory == null) {
-            return;
-        }
-
-        try {
-            Files.createDirectories(directory);
-        }
-        catch (IOException e) {
-            throw new ProcessingException("Cannot write to output file " + filename, e);
-        }
-    }
-
     protected Stream<AstNode> processSingleElement(final String code)
         throws ProcessingException {
-        final AstCodeParser codeParser = new AstCodeParser();
+        final AstCodeParser codeParser = new AstCodeParser(commonOptions.predictionStrategy());
         return codeParser.parseMethodSkipErrors(code).stream().map(AstNode.class::cast);
     }
 
@@ -255,4 +387,15 @@ protected Stream<Pair<List<String>, AstNode>> loadLabelledCode() {
             .filter(pair -> pair.b().isPresent())
             .map(pair -> pair.mapB(Optional::orElseThrow));
     }
+
+    /**
+     * Writes a single result with a {@link BatchedFileWriter}.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface WriteOperation<T> {
+
+        void write(BatchedFileWriter writer, Path file, T content) throws IOException;
+    }
 }
@@ -0,0 +1,267 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reads the graphs of the binary format written by the {@link GGNNBinaryWriter}.
+ * <p>
+ * The graphs are read lazily one block at a time. They are equal to the {@link GGNNContextGraph GGNNContextGraphs}
+ * that are serialised in the JSON format. As an {@link Iterator} cannot throw checked exceptions, failures while
+ * reading are thrown as {@link UncheckedIOException}.
+ */
+public final class GGNNBinaryReader implements Iterator<GGNNContextGraph>, Closeable {
+
+    private final InputStream in;
+
+    private String[] strings = new String[0];
+
+    private ByteBuffer block = ByteBuffer.allocate(0);
+
+    private int remainingGraphs = 0;
+
+    /**
+     * Creates a reader for the given stream.
+     *
+     * @param in Some stream of blocks. Closed together with this reader.
+     */
+    public GGNNBinaryReader(final InputStream in) {
+        this.in = new BufferedInputStream(in);
+    }
+
+    /**
+     * Reads all graphs of a file.
+     *
+     * @param file Some file in the binary format.
+     * @return The graphs in the order they are stored.
+     * @throws IOException Thrown if the file cannot be read or is malformed.
+     */
+    public static List<GGNNContextGraph> readAll(final Path file) throws IOException {
+        final List<GGNNContextGraph> graphs = new ArrayList<>();
+        try (GGNNBinaryReader reader = new GGNNBinaryReader(Files.newInputStream(file))) {
+            while (reader.hasNext()) {
+                graphs.add(reader.next());
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return graphs;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (remainingGraphs == 0) {
+                if (!readBlock()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public GGNNContextGraph next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            --remainingGraphs;
+            final int length = readVarInt();
+            final int end = block.position() + length;
+            final GGNNContextGraph graph = readGraph();
+            if (block.position() != end) {
+                throw new IOException("Malformed graph: length does not match its content.");
+            }
+            return graph;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the next block into memory.
+     *
+     * @return False, if the end of the stream is reached.
+     */
+    private boolean readBlock() throws IOException {
+        final byte[] magic = in.readNBytes(Integer.BYTES);
+        if (magic.length == 0) {
+            return false;
+        }
+        if (magic.length < Integer.BYTES || ByteBuffer.wrap(magic).getInt() != GGNNBinaryWriter.MAGIC) {
+            throw new IOException("Not a binary GGNN graph block.");
+        }
+
+        final int version = readStreamVarInt();
+        if (version != GGNNBinaryWriter.VERSION) {
+            throw new IOException("Unsupported binary GGNN format version " + version + ".");
+        }
+
+        final int length = readStreamVarInt();
+        final byte[] content = in.readNBytes(length);
+        if (content.length < length) {
+            throw new EOFException("Truncated binary GGNN graph block.");
+        }
+        block = ByteBuffer.wrap(content);
+
+        strings = new String[readCount()];
+        for (int i = 0; i < strings.length; ++i) {
+            final int byteCount = readVarInt();
+            if (byteCount > block.remaining()) {
+                throw new IOException("Malformed string in binary GGNN graph block.");
+            }
+            strings[i] = new String(content, block.position(), byteCount, StandardCharsets.UTF_8);
+            block.position(block.position() + byteCount);
+        }
+        remainingGraphs = readCount();
+
+        return true;
+    }
+
+    private GGNNContextGraph readGraph() throws IOException {
+        final String label = readString();
+
+        final int nodeCount = readCount();
+        final Map<Integer, String> nodeTypeMap = new HashMap<>(nodeCount * 2);
+        final Map<Integer, String> nodeLabelMap = new HashMap<>(nodeCount * 2);
+        for (int id = 0; id < nodeCount; ++id) {
+            nodeTypeMap.put(id, readString());
+            nodeLabelMap.put(id, readString());
+        }
+
+        final int labelNodeCount = readCount();
+        final Set<Integer> labelNodes = new HashSet<>();
+        for (int i = 0; i < labelNodeCount; ++i) {
+            labelNodes.add(readVarInt());
+        }
+
+        final int edgeTypeCount = readCount();
+        final Map<GGNNEdgeType, List<List<Integer>>> edges = new EnumMap<>(GGNNEdgeType.class);
+        for (int i = 0; i < edgeTypeCount; ++i) {
+            final GGNNEdgeType type = readEdgeType();
+            final int edgeCount = readCount();
+            final List<List<Integer>> typeEdges = new ArrayList<>(edgeCount);
+            int source = 0;
+            for (int j = 0; j < edgeCount; ++j) {
+                source += readVarInt();
+                final int target = source + unzigzag(readVarInt());
+                typeEdges.add(List.of(source, target));
+            }
+            edges.put(type, typeEdges);
+        }
+
+        return new GGNNContextGraph(
+            label, labelNodes, new GGNNContextGraph.ContextGraph(edges, nodeTypeMap, nodeLabelMap)
+        );
+    }
+
+    private GGNNEdgeType readEdgeType() throws IOException {
+        final String name = readString();
+        try {
+            return GGNNEdgeType.valueOf(name);
+        }
+        catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Unknown edge type " + name + ".", e);
+        }
+    }
+
+    private String readString() throws IOException {
+        final int ref = readVarInt();
+        if (ref == 0) {
+            return null;
+        }
+        else if (ref > strings.length) {
+            throw new IOException("Malformed string reference in binary GGNN graph.");
+        }
+        else {
+            return strings[ref - 1];
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        try {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                final byte b = block.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new EOFException("Truncated binary GGNN graph block.");
+        }
+        throw new IOException("Malformed varint in binary GGNN graph block.");
+    }
+
+    /**
+     * Reads the number of following elements, each of which takes at least one byte.
+     */
+    private int readCount() throws IOException {
+        final int count = readVarInt();
+        if (count > block.remaining()) {
+            throw new IOException("Malformed element count in binary GGNN graph block.");
+        }
+        return count;
+    }
+
+    private int readStreamVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated binary GGNN graph block.");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary GGNN graph block.");
+    }
+
+    private static int unzigzag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
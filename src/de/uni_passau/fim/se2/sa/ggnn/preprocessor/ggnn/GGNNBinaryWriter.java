@@ -0,0 +1,224 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serialises GGNN graphs into a compact binary format.
+ * <p>
+ * The output of each {@link #takeOutput()} is one self-contained block, so blocks can simply be concatenated into a
+ * single file. All strings of a block are stored once in its dictionary and referenced by their index. All numbers
+ * are unsigned LEB128 varints, signed ones are zigzag encoded first:
+ * <pre>
+ * block     := magic:"GGNB" version:varint length:varint body
+ * body      := stringCount:varint string* graphCount:varint graph*
+ * string    := byteCount:varint utf8Bytes
+ * graph     := length:varint label:ref nodeCount:varint (type:ref label:ref)*
+ *              labelNodeCount:varint labelNode:varint* edgeTypeCount:varint edges*
+ * edges     := type:ref edgeCount:varint (sourceDelta:varint zigzag(target - source):varint)*
+ * </pre>
+ * A {@code ref} is the index of the string in the dictionary plus one, zero stands for {@code null}. Edge types are
+ * referenced by their name. The edges of a type are ordered by source node, whose ids are stored as the difference to
+ * the previous source. The label nodes are distinct and in ascending order. Graphs are prefixed with their length, so
+ * that readers can skip them.
+ * <p>
+ * Not thread-safe.
+ */
+public final class GGNNBinaryWriter implements GGNNGraphWriter<byte[]> {
+
+    /**
+     * The first bytes of each block, {@code GGNB} in ASCII.
+     */
+    static final int MAGIC = 0x47474E42;
+
+    static final int VERSION = 1;
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    private final Buffer strings = new Buffer(1 << 10);
+
+    private final Buffer graphs = new Buffer(1 << 12);
+
+    private final Buffer graph = new Buffer(1 << 10);
+
+    private final GGNNCompactGraph.EdgeConsumer edgeWriter = this::writeEdge;
+
+    private int graphCount = 0;
+
+    private int previousSource;
+
+    @Override
+    public void write(final GGNNCompactGraph compactGraph, final String label) {
+        graph.clear();
+        graph.writeVarInt(stringRef(label));
+
+        graph.writeVarInt(compactGraph.nodeCount());
+        for (int id = 0; id < compactGraph.nodeCount(); ++id) {
+            graph.writeVarInt(stringRef(compactGraph.nodeType(id)));
+            graph.writeVarInt(stringRef(compactGraph.nodeLabel(id)));
+        }
+
+        writeLabelNodes(compactGraph);
+
+        graph.writeVarInt(compactGraph.edgeTypes().size());
+        for (final GGNNEdgeType type : compactGraph.edgeTypes()) {
+            final GGNNCompactGraph.Edges edges = compactGraph.edges(type);
+            graph.writeVarInt(stringRef(type.name()));
+            graph.writeVarInt(edges.size());
+            previousSource = 0;
+            edges.forEach(edgeWriter);
+        }
+
+        graphs.writeVarInt(graph.size());
+        graphs.write(graph);
+        ++graphCount;
+    }
+
+    /**
+     * Takes the block of all graphs written since the last call.
+     *
+     * @return The block, or no bytes at all if no graph was written.
+     */
+    @Override
+    public byte[] takeOutput() {
+        if (graphCount == 0) {
+            return new byte[0];
+        }
+
+        final int length = Buffer.varIntSize(stringIds.size()) + strings.size()
+            + Buffer.varIntSize(graphCount) + graphs.size();
+        final Buffer block = new Buffer(
+            Integer.BYTES + Buffer.varIntSize(VERSION) + Buffer.varIntSize(length) + length
+        );
+        block.writeInt(MAGIC);
+        block.writeVarInt(VERSION);
+        block.writeVarInt(length);
+        block.writeVarInt(stringIds.size());
+        block.write(strings);
+        block.writeVarInt(graphCount);
+        block.write(graphs);
+
+        stringIds.clear();
+        strings.clear();
+        graphs.clear();
+        graphCount = 0;
+
+        return block.toByteArray();
+    }
+
+    private void writeLabelNodes(final GGNNCompactGraph compactGraph) {
+        final int[] labelNodes = new int[compactGraph.labelNodeCount()];
+        for (int i = 0; i < labelNodes.length; ++i) {
+            labelNodes[i] = compactGraph.labelNode(i);
+        }
+        Arrays.sort(labelNodes);
+
+        int distinct = 0;
+        for (int i = 0; i < labelNodes.length; ++i) {
+            if (i == 0 || labelNodes[i] != labelNodes[i - 1]) {
+                labelNodes[distinct++] = labelNodes[i];
+            }
+        }
+
+        graph.writeVarInt(distinct);
+        for (int i = 0; i < distinct; ++i) {
+            graph.writeVarInt(labelNodes[i]);
+        }
+    }
+
+    private void writeEdge(final int source, final int target) {
+        graph.writeVarInt(source - previousSource);
+        graph.writeVarInt(Buffer.zigzag(target - source));
+        previousSource = source;
+    }
+
+    private int stringRef(final String string) {
+        if (string == null) {
+            return 0;
+        }
+
+        final Integer known = stringIds.get(string);
+        if (known != null) {
+            return known + 1;
+        }
+
+        final int id = stringIds.size();
+        stringIds.put(string, id);
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        strings.writeVarInt(bytes.length);
+        strings.write(bytes, bytes.length);
+        return id + 1;
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static final class Buffer {
+
+        private byte[] bytes;
+        private int size = 0;
+
+        private Buffer(final int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private static int zigzag(final int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+
+        private static int varIntSize(final int value) {
+            return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void writeInt(final int value) {
+            ensureCapacity(Integer.BYTES);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void write(final Buffer other) {
+            write(other.bytes, other.size);
+        }
+
+        private void write(final byte[] other, final int length) {
+            ensureCapacity(length);
+            System.arraycopy(other, 0, bytes, size, length);
+            size += length;
+        }
+
+        private byte[] toByteArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+
+        private void ensureCapacity(final int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + additional, bytes.length * 2));
+            }
+        }
+    }
+}
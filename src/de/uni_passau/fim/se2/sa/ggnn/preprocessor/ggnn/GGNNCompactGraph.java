@@ -0,0 +1,275 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import com.google.common.base.Preconditions;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.AstNodeLabelGenerator;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.DotGraph;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.DotGraphEdge;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.DotGraphable;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact representation of the GGNN graph of a method.
+ * <p>
+ * The nodes are identified by the dense ids of a {@link NodeIndex}. The edges of each type are stored in compressed
+ * sparse row format, i.e. sorted by source and then target node without duplicates.
+ * <p>
+ * The labels of the nodes are determined once on first access, as graphs are usually written several times, e.g. once
+ * per new label.
+ */
+public final class GGNNCompactGraph implements DotGraphable<AstNode> {
+
+    private final String graphName;
+    private final AstNode[] nodes;
+    private final int[] labelNodes;
+    private final Map<GGNNEdgeType, Edges> edges;
+    private String[] nodeLabels;
+
+    private GGNNCompactGraph(
+        final String graphName, final AstNode[] nodes, final int[] labelNodes, final Map<GGNNEdgeType, Edges> edges
+    ) {
+        this.graphName = graphName;
+        this.nodes = nodes;
+        this.labelNodes = labelNodes;
+        this.edges = edges;
+    }
+
+    public String name() {
+        return graphName;
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    public AstNode node(final int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Gets the type name of a node.
+     *
+     * @param id Some node id.
+     * @return The simple class name of the node.
+     */
+    public String nodeType(final int id) {
+        return AstNodeLabelGenerator.getTypeName(nodes[id]);
+    }
+
+    /**
+     * Gets the label of a node as determined by the {@link AstNodeLabelGenerator}.
+     *
+     * @param id Some node id.
+     * @return The label of the node.
+     */
+    public String nodeLabel(final int id) {
+        if (nodeLabels == null) {
+            nodeLabels = new String[nodes.length];
+        }
+        String label = nodeLabels[id];
+        if (label == null) {
+            label = AstNodeLabelGenerator.getLabel(nodes[id]);
+            nodeLabels[id] = label;
+        }
+        return label;
+    }
+
+    public int labelNodeCount() {
+        return labelNodes.length;
+    }
+
+    public int labelNode(final int i) {
+        return labelNodes[i];
+    }
+
+    /**
+     * Gets the edge types this graph was built for.
+     *
+     * @return The edge types in declaration order. Types without any edges are included.
+     */
+    public Set<GGNNEdgeType> edgeTypes() {
+        return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    /**
+     * Gets the edges of one type.
+     *
+     * @param type Some edge type.
+     * @return The edges of the type. Empty if the graph was not built for this type.
+     */
+    public Edges edges(final GGNNEdgeType type) {
+        return edges.getOrDefault(type, Edges.EMPTY);
+    }
+
+    @Override
+    public DotGraph<AstNode> asDotGraph() {
+        final List<DotGraphEdge<AstNode>> dotEdges = new ArrayList<>();
+
+        for (final var entry : edges.entrySet()) {
+            final String edgeColour = entry.getKey().dotColour();
+            entry.getValue().forEach(
+                (source, target) -> dotEdges.add(new DotGraphEdge<>(Pair.of(nodes[source], nodes[target]), edgeColour))
+            );
+        }
+
+        return new DotGraph<>(graphName, dotEdges, Collections.emptyList(), AstNodeLabelGenerator::getLabel);
+    }
+
+    @FunctionalInterface
+    public interface EdgeConsumer {
+
+        void accept(int source, int target);
+    }
+
+    /**
+     * The edges of a single type.
+     * <p>
+     * The targets of node {@code i} are stored in {@code targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]}.
+     */
+    public static final class Edges {
+
+        private static final Edges EMPTY = new Edges(new int[1], new int[0]);
+
+        private final int[] offsets;
+        private final int[] targets;
+
+        private Edges(final int[] offsets, final int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        public int size() {
+            return targets.length;
+        }
+
+        /**
+         * Passes all edges ordered by source and target node to the consumer.
+         *
+         * @param consumer Some edge consumer.
+         */
+        public void forEach(final EdgeConsumer consumer) {
+            for (int source = 0; source < offsets.length - 1; ++source) {
+                for (int i = offsets[source]; i < offsets[source + 1]; ++i) {
+                    consumer.accept(source, targets[i]);
+                }
+            }
+        }
+
+        /**
+         * Compresses a set of edges.
+         *
+         * @param nodeCount The number of nodes in the graph.
+         * @param packed    The edges packed as {@code source << 32 | target}. Reordered in place.
+         * @param length    The number of valid entries in {@code packed}.
+         * @return The compressed edges.
+         */
+        private static Edges compress(final int nodeCount, final long[] packed, final int length) {
+            Arrays.sort(packed, 0, length);
+
+            final int[] offsets = new int[nodeCount + 1];
+            final int[] targets = new int[length];
+            int size = 0;
+            for (int i = 0; i < length; ++i) {
+                if (i > 0 && packed[i] == packed[i - 1]) {
+                    continue;
+                }
+                offsets[(int) (packed[i] >>> 32) + 1]++;
+                targets[size++] = (int) packed[i];
+            }
+            for (int i = 0; i < nodeCount; ++i) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            return new Edges(offsets, size == length ? targets : Arrays.copyOf(targets, size));
+        }
+    }
+
+    /**
+     * Collects the edges of a method before compressing them into a {@link GGNNCompactGraph}.
+     */
+    public static final class EdgeCollector {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final NodeIndex index;
+        private final Map<GGNNEdgeType, long[]> edges = new EnumMap<>(GGNNEdgeType.class);
+        private final Map<GGNNEdgeType, Integer> sizes = new EnumMap<>(GGNNEdgeType.class);
+
+        /**
+         * Creates a new collector.
+         *
+         * @param index     The ids of the AST nodes.
+         * @param edgeTypes The edge types the graph is built for, even if no edges are found for them.
+         */
+        public EdgeCollector(final NodeIndex index, final Collection<GGNNEdgeType> edgeTypes) {
+            this.index = index;
+            for (final GGNNEdgeType type : edgeTypes) {
+                edges.put(type, new long[INITIAL_CAPACITY]);
+                sizes.put(type, 0);
+            }
+        }
+
+        public NodeIndex index() {
+            return index;
+        }
+
+        /**
+         * Adds an edge between two AST nodes.
+         * <p>
+         * Edges with nodes that are not part of the index are dropped.
+         *
+         * @param type   The edge type.
+         * @param source The source node.
+         * @param target The target node.
+         */
+        public void addEdge(final GGNNEdgeType type, final AstNode source, final AstNode target) {
+            final int sourceId = index.id(source);
+            final int targetId = index.id(target);
+            if (sourceId != NodeIndex.NO_ID && targetId != NodeIndex.NO_ID) {
+                addEdge(type, sourceId, targetId);
+            }
+        }
+
+        public void addEdge(final GGNNEdgeType type, final int source, final int target) {
+            Preconditions.checkArgument(source >= 0 && target >= 0, "Edge node is not part of the method.");
+            Preconditions.checkArgument(edges.containsKey(type), "Edge type %s was not requested.", type);
+
+            long[] packed = edges.get(type);
+            final int size = sizes.get(type);
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+                edges.put(type, packed);
+            }
+            packed[size] = ((long) source << 32) | target;
+            sizes.put(type, size + 1);
+        }
+
+        /**
+         * Compresses the collected edges.
+         *
+         * @param graphName  The name of the graph.
+         * @param labelNodes The nodes of interest.
+         * @return The graph containing all nodes of the index.
+         */
+        public GGNNCompactGraph build(final String graphName, final int... labelNodes) {
+            final int nodeCount = index.size();
+            final Map<GGNNEdgeType, Edges> compressed = new EnumMap<>(GGNNEdgeType.class);
+            edges.forEach((type, packed) -> compressed.put(type, Edges.compress(nodeCount, packed, sizes.get(type))));
+
+            return new GGNNCompactGraph(graphName, index.toArray(), labelNodes.clone(), compressed);
+        }
+    }
+}
@@ -4,11 +4,6 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
 
-import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
-import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.AstNodeLabelGenerator;
-import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
-import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
-
 import java.util.*;
 
 public final class GGNNContextGraphBuilder {
@@ -17,43 +12,38 @@ private GGNNContextGraphBuilder() {
         throw new IllegalCallerException("utility class constructor");
     }
 
-    public static GGNNContextGraph build(final GGNNGraph graph) {
-        final var contextGraph = buildContextGraph(graph);
-        return new GGNNContextGraph(graph.name(), contextGraph.b(), contextGraph.a());
-    }
+    /**
+     * Converts the graph into its model input representation.
+     * <p>
+     * The node ids of the context graph are the ids of the compact graph.
+     *
+     * @param graph Some GGNN graph.
+     * @return The context graph.
+     */
+    public static GGNNContextGraph build(final GGNNCompactGraph graph) {
+        final int nodeCount = graph.nodeCount();
+        final Map<Integer, String> nodeLabelMap = new HashMap<>(nodeCount * 2);
+        final Map<Integer, String> nodeTypeMap = new HashMap<>(nodeCount * 2);
+        for (int id = 0; id < nodeCount; ++id) {
+            nodeLabelMap.put(id, graph.nodeLabel(id));
+            nodeTypeMap.put(id, graph.nodeType(id));
+        }
 
-    private static Pair<GGNNContextGraph.ContextGraph, Set<Integer>> buildContextGraph(final GGNNGraph ggnnGraph) {
-        final Map<Integer, String> nodeLabelMap = new HashMap<>();
-        final Map<Integer, String> nodeTypeMap = new HashMap<>();
-        final Map<IdentityWrapper<AstNode>, Integer> vertexToIdMap = new HashMap<>();
         final Set<Integer> labelNodes = new HashSet<>();
-
-        int idCounter = 0;
-        for (final var vertex : ggnnGraph.graph().vertexSet()) {
-            nodeLabelMap.put(idCounter, AstNodeLabelGenerator.getLabel(vertex.elem()));
-            nodeTypeMap.put(idCounter, vertex.elem().getClass().getSimpleName());
-            vertexToIdMap.put(vertex, idCounter);
-
-            if (ggnnGraph.labelNodes().contains(vertex)) {
-                labelNodes.add(idCounter);
-            }
-
-            idCounter++;
+        for (int i = 0; i < graph.labelNodeCount(); ++i) {
+            labelNodes.add(graph.labelNode(i));
         }
 
         final Map<GGNNEdgeType, List<List<Integer>>> idEdgeTypeSetMap = new EnumMap<>(GGNNEdgeType.class);
-        for (final var entry : ggnnGraph.getEdgesByType().entrySet()) {
-            final var type = entry.getKey();
-            final var idEdges = entry.getValue().stream()
-                .map(p -> p.map2(vertexToIdMap::get, vertexToIdMap::get))
-                .map(p -> List.of(p.a(), p.b()))
-                .toList();
+        for (final GGNNEdgeType type : graph.edgeTypes()) {
+            final GGNNCompactGraph.Edges edges = graph.edges(type);
+            final List<List<Integer>> idEdges = new ArrayList<>(edges.size());
+            edges.forEach((source, target) -> idEdges.add(List.of(source, target)));
             idEdgeTypeSetMap.put(type, idEdges);
         }
 
-        return Pair.of(
-            new GGNNContextGraph.ContextGraph(idEdgeTypeSetMap, nodeTypeMap, nodeLabelMap),
-            labelNodes
+        return new GGNNContextGraph(
+            graph.name(), labelNodes, new GGNNContextGraph.ContextGraph(idEdgeTypeSetMap, nodeTypeMap, nodeLabelMap)
         );
     }
 }
@@ -9,11 +9,26 @@
  * presented because currently our implementation only focus on intra procedural analysis.
  */
 public enum GGNNEdgeType {
-    CHILD,
-    NEXT_TOKEN,
-    LAST_WRITE,
-    LAST_READ,
-    COMPUTED_FROM,
-    GUARDED_BY,
-    RETURNS_TO
+    CHILD("black"),
+    NEXT_TOKEN("gray50"),
+    LAST_WRITE("crimson"),
+    LAST_READ("dodgerblue"),
+    COMPUTED_FROM("orange"),
+    GUARDED_BY("purple"),
+    RETURNS_TO("springgreen4");
+
+    private final String dotColour;
+
+    GGNNEdgeType(final String dotColour) {
+        this.dotColour = dotColour;
+    }
+
+    /**
+     * Gets the colour of edges of this type in DOT graphs.
+     *
+     * @return A colour name in the X11 scheme.
+     */
+    public String dotColour() {
+        return dotColour;
+    }
 }
@@ -45,7 +45,7 @@ public DotGraph<IdentityWrapper<AstNode>> asDotGraph() {
         final List<DotGraphEdge<IdentityWrapper<AstNode>>> edges = new ArrayList<>();
 
         for (final var entry : edgeTypeSetMap.entrySet()) {
-            final String edgeColour = getEdgeColour(entry.getKey());
+            final String edgeColour = entry.getKey().dotColour();
 
             entry.getValue()
                 .stream()
@@ -55,16 +55,4 @@ public DotGraph<IdentityWrapper<AstNode>> asDotGraph() {
 
         return new DotGraph<>(graphName, edges, Collections.emptyList(), this.labelGenerator);
     }
-
-    private String getEdgeColour(final GGNNEdgeType edgeType) {
-        return switch (edgeType) {
-            case CHILD -> "black";
-            case NEXT_TOKEN -> "gray50";
-            case LAST_WRITE -> "crimson";
-            case LAST_READ -> "dodgerblue";
-            case COMPUTED_FROM -> "orange";
-            case GUARDED_BY -> "purple";
-            case RETURNS_TO -> "springgreen4";
-        };
-    }
 }
@@ -4,65 +4,55 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
 
-import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import com.google.common.base.Preconditions;
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors.GGNNEdgesVisitor;
 import de.uni_passau.fim.se2.sa.ggnn.program_graphs.Builder;
-import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
-import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import org.jgrapht.graph.DefaultEdge;
 
-import java.util.Map;
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
  * Builder of the GGNN Graph.
  */
-public class GGNNGraphBuilder implements Builder<MethodDeclaration, GGNNGraph> {
+public class GGNNGraphBuilder implements Builder<MethodDeclaration, GGNNCompactGraph> {
+
+    private final Set<GGNNEdgeType> edgeTypes;
+
+    /**
+     * Creates a builder that infers all edge types.
+     */
+    public GGNNGraphBuilder() {
+        this(EnumSet.allOf(GGNNEdgeType.class));
+    }
+
+    /**
+     * Creates a builder that only infers some edge types.
+     *
+     * @param edgeTypes The edge types the graphs should contain.
+     */
+    public GGNNGraphBuilder(final Set<GGNNEdgeType> edgeTypes) {
+        Preconditions.checkArgument(!edgeTypes.isEmpty(), "At least one edge type is required.");
+        this.edgeTypes = EnumSet.copyOf(edgeTypes);
+    }
 
     /**
      * Builds the GGNN graph by first defining all GGNN-Edges using the {@link GGNNEdgesVisitor}.
-     * Given the GGNN-Edges the GGNN graph is built by adding all required nodes and linking them accordingly.
+     * Given the GGNN-Edges the GGNN graph is built by numbering all AST nodes of the method in pre-order and storing
+     * the edges of each type as arrays of node ids.
      *
      * @param method based on which the GGNN will be built.
      * @return the GGNN graph.
      */
     @Override
-    public GGNNGraph build(final MethodDeclaration method) {
-        // Instantiate the GGNNEdgesVisitor
-        GGNNEdgesVisitor edgesVisitor = new GGNNEdgesVisitor(method);
-        // Get the edges from the visitor
-        Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> edgeTypeSetMap = edgesVisitor.getEdges();
-
-        // Create the directed graph
-        Graph<IdentityWrapper<AstNode>, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
-
-        // Add all vertices (nodes) to the graph
-        edgeTypeSetMap.values().forEach(pairs -> {
-            pairs.forEach(pair -> {
-                graph.addVertex(pair.a());
-                graph.addVertex(pair.b());
-            });
-        });
-
-        // Add all edges to the graph
-        edgeTypeSetMap.values().forEach(pairs -> {
-            pairs.forEach(pair -> {
-                graph.addEdge(pair.a(), pair.b());
-            });
-        });
-
-        // Get the label nodes (in this case, it's just the method name)
-        Set<IdentityWrapper<AstNode>> labelNodes = getLabelNodes(method);
-
-        // Create and return the GGNNGraph
-        return new GGNNGraph(method.name().toString(), labelNodes, graph, edgeTypeSetMap);
-    }
+    public GGNNCompactGraph build(final MethodDeclaration method) {
+        final GGNNEdgesVisitor edgesVisitor = new GGNNEdgesVisitor(method, edgeTypes);
 
+        final NodeIndex index = NodeIndex.preOrder(method);
+        final var collector = new GGNNCompactGraph.EdgeCollector(index, edgesVisitor.edgeTypes());
+        edgesVisitor.collectEdges(collector::addEdge);
 
-    private Set<IdentityWrapper<AstNode>> getLabelNodes(final MethodDeclaration method) {
-        return Set.of(IdentityWrapper.of(method.name()));
+        // The label node is the method name
+        return collector.build(method.name().toString(), index.id(method.name()));
     }
 }
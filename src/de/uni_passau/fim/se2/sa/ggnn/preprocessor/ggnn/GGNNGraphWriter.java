@@ -0,0 +1,28 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+/**
+ * Serialises the GGNN graphs of one output file after another into a reused buffer.
+ *
+ * @param <T> The type of the serialised output.
+ */
+interface GGNNGraphWriter<T> {
+
+    /**
+     * Appends the graph to the current output.
+     *
+     * @param graph Some GGNN graph.
+     * @param label The label the graph is written with.
+     */
+    void write(GGNNCompactGraph graph, String label);
+
+    /**
+     * Takes the output of all graphs written since the last call.
+     *
+     * @return The serialised graphs.
+     */
+    T takeOutput();
+}
@@ -0,0 +1,203 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.commons.io.output.StringBuilderWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Serialises GGNN graphs as JSON Lines straight from their compact representation.
+ * <p>
+ * Yields exactly the JSON that Jackson's {@code ObjectMapper} produces for the {@link GGNNContextGraph} built by
+ * {@link GGNNContextGraphBuilder}, but without creating the maps and lists of boxed node ids in between. All graphs
+ * are written through one generator into one buffer, which are reused for all following lines.
+ * <p>
+ * If a {@link GGNNVocabulary} is given, the node type and node label maps contain the ids of the strings in the
+ * vocabulary instead of the strings themselves.
+ * <p>
+ * Not thread-safe.
+ */
+public final class GGNNJsonWriter implements GGNNGraphWriter<String> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilderWriter buffer = new StringBuilderWriter();
+
+    private final JsonGenerator generator;
+
+    private final GGNNCompactGraph.EdgeConsumer edgeWriter = this::writeEdge;
+
+    private final GGNNVocabulary vocabulary;
+
+    /**
+     * The decimal representations of the node ids, used as keys of the node maps.
+     */
+    private String[] nodeIds = new String[0];
+
+    private boolean firstLine = true;
+
+    public GGNNJsonWriter() {
+        this(null);
+    }
+
+    /**
+     * Creates a writer that references the node types and labels by their ids.
+     *
+     * @param vocabulary The vocabulary of the ids, or {@code null} to write the strings themselves.
+     */
+    public GGNNJsonWriter(final GGNNVocabulary vocabulary) {
+        this.vocabulary = vocabulary;
+        try {
+            generator = JSON_FACTORY.createGenerator(buffer);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // the lines are separated explicitly
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Appends the graph as a new line.
+     *
+     * @param graph Some GGNN graph.
+     * @param label The label the graph is written with.
+     */
+    @Override
+    public void write(final GGNNCompactGraph graph, final String label) {
+        try {
+            if (!firstLine) {
+                generator.writeRaw(LINE_SEPARATOR);
+            }
+            firstLine = false;
+
+            generator.writeStartObject();
+            generator.writeStringField("label", label);
+            writeLabelNodes(graph);
+
+            generator.writeObjectFieldStart("contextGraph");
+            writeEdges(graph);
+            writeNodeTypes(graph);
+            writeNodeLabels(graph);
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Takes all lines written since the last call.
+     *
+     * @return The lines separated by the system line separator, without a trailing one.
+     */
+    @Override
+    public String takeOutput() {
+        try {
+            generator.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final StringBuilder builder = buffer.getBuilder();
+        final String lines = builder.toString();
+        builder.setLength(0);
+        firstLine = true;
+        return lines;
+    }
+
+    /**
+     * Writes the label nodes in the iteration order of the hash set of the context graph.
+     */
+    private void writeLabelNodes(final GGNNCompactGraph graph) throws IOException {
+        generator.writeArrayFieldStart("labelNodes");
+        if (graph.labelNodeCount() == 1) {
+            generator.writeNumber(graph.labelNode(0));
+        }
+        else if (graph.labelNodeCount() > 1) {
+            final Set<Integer> labelNodes = new HashSet<>();
+            for (int i = 0; i < graph.labelNodeCount(); ++i) {
+                labelNodes.add(graph.labelNode(i));
+            }
+            for (final int labelNode : labelNodes) {
+                generator.writeNumber(labelNode);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeEdges(final GGNNCompactGraph graph) throws IOException {
+        generator.writeObjectFieldStart("edges");
+        for (final GGNNEdgeType type : graph.edgeTypes()) {
+            generator.writeArrayFieldStart(type.name());
+            graph.edges(type).forEach(edgeWriter);
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeEdge(final int source, final int target) {
+        try {
+            generator.writeStartArray();
+            generator.writeNumber(source);
+            generator.writeNumber(target);
+            generator.writeEndArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNodeTypes(final GGNNCompactGraph graph) throws IOException {
+        generator.writeObjectFieldStart("nodeTypeMap");
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            final String nodeType = graph.nodeType(id);
+            if (vocabulary == null) {
+                generator.writeStringField(nodeId(id), nodeType);
+            }
+            else {
+                generator.writeNumberField(nodeId(id), vocabulary.nodeTypeId(nodeType));
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeNodeLabels(final GGNNCompactGraph graph) throws IOException {
+        generator.writeObjectFieldStart("nodeLabelMap");
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            final String label = graph.nodeLabel(id);
+            if (vocabulary == null || label == null) {
+                generator.writeStringField(nodeId(id), label);
+            }
+            else {
+                generator.writeNumberField(nodeId(id), vocabulary.nodeLabelId(label));
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private String nodeId(final int id) {
+        if (id >= nodeIds.length) {
+            final int known = nodeIds.length;
+            nodeIds = Arrays.copyOf(nodeIds, Math.max(id + 1, known * 2));
+            for (int i = known; i < nodeIds.length; ++i) {
+                nodeIds[i] = Integer.toString(i);
+            }
+        }
+        return nodeIds[id];
+    }
+}
@@ -0,0 +1,41 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+/**
+ * The formats the GGNN graphs can be written in.
+ */
+public enum GGNNOutputFormat {
+
+    /**
+     * One JSON object per graph and line.
+     */
+    JSONL("jsonl"),
+
+    /**
+     * A DOT graph per compilation unit that can be rendered by the Graphviz tools.
+     */
+    DOT("dot"),
+
+    /**
+     * The compact binary format written by the {@link GGNNBinaryWriter} and read by the {@link GGNNBinaryReader}.
+     */
+    BINARY("ggnn");
+
+    private final String fileExtension;
+
+    GGNNOutputFormat(final String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Gets the extension of the output files.
+     *
+     * @return The file extension without the leading dot.
+     */
+    public String fileExtension() {
+        return fileExtension;
+    }
+}
@@ -4,23 +4,38 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.CommonPreprocessorOptions;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ParallelPipeline;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingException;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.misc.GraphPreprocessor;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.shared.AstWithLabels;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.shared.MethodsExtractor;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
+import de.uni_passau.fim.se2.sa.ggnn.util.StagedContentHashSet;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.AstNodeLabelGenerator;
 import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.DotGraph;
 import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.DotGraphBuildingVisitor;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+import org.antlr.v4.runtime.CharStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -30,29 +45,300 @@ public class GGNNPreprocessor extends GraphPreprocessor {
 
     private static final Logger log = LoggerFactory.getLogger(GGNNPreprocessor.class);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * One JSON writer per thread, as the inputs may be processed concurrently.
+     */
+    private final ThreadLocal<GGNNJsonWriter> jsonWriters;
+
+    private final ThreadLocal<GGNNBinaryWriter> binaryWriters = ThreadLocal.withInitial(GGNNBinaryWriter::new);
+
+    private final GGNNOutputFormat format;
+
+    private final GGNNGraphBuilder graphBuilder;
+
+    private final String configuration;
+
+    /**
+     * The hashes of all methods whose graphs were written, or {@code null} if duplicate methods are written, too.
+     */
+    private final StagedContentHashSet emittedMethods;
 
-    private final boolean dotgraph;
+    private final LongAdder duplicateMethods = new LongAdder();
 
     public GGNNPreprocessor(CommonPreprocessorOptions commonOptions, boolean singleMethod, boolean dotgraph) {
-        super(commonOptions, singleMethod, dotgraph ? "dot" : "jsonl");
-        this.dotgraph = dotgraph;
+        this(commonOptions, singleMethod, dotgraph, EnumSet.allOf(GGNNEdgeType.class));
+    }
+
+    /**
+     * Creates a preprocessor whose graphs only contain the given edge types.
+     *
+     * @param commonOptions The input and output options.
+     * @param singleMethod  If the input consists of a single method.
+     * @param dotgraph      If the graphs should be written in the DOT format instead of JSON.
+     * @param edgeTypes     The edge types that should be inferred.
+     */
+    public GGNNPreprocessor(
+        CommonPreprocessorOptions commonOptions, boolean singleMethod, boolean dotgraph, Set<GGNNEdgeType> edgeTypes
+    ) {
+        this(commonOptions, singleMethod, dotgraph ? GGNNOutputFormat.DOT : GGNNOutputFormat.JSONL, edgeTypes);
+    }
+
+    /**
+     * Creates a preprocessor that writes its graphs in the given format.
+     *
+     * @param commonOptions The input and output options.
+     * @param singleMethod  If the input consists of a single method.
+     * @param format        The format of the output files.
+     * @param edgeTypes     The edge types that should be inferred.
+     */
+    public GGNNPreprocessor(
+        CommonPreprocessorOptions commonOptions, boolean singleMethod, GGNNOutputFormat format,
+        Set<GGNNEdgeType> edgeTypes
+    ) {
+        this(commonOptions, singleMethod, format, edgeTypes, null);
+    }
+
+    /**
+     * Creates a preprocessor that references node types and labels by their ids in a corpus-wide vocabulary.
+     *
+     * @param commonOptions The input and output options.
+     * @param singleMethod  If the input consists of a single method.
+     * @param format        The format of the output files.
+     * @param edgeTypes     The edge types that should be inferred.
+     * @param vocabulary    The vocabulary new strings are added to, or {@code null} to write the strings. Only
+     *                      supported for the {@link GGNNOutputFormat#JSONL JSONL} format and not in the incremental
+     *                      mode.
+     */
+    public GGNNPreprocessor(
+        CommonPreprocessorOptions commonOptions, boolean singleMethod, GGNNOutputFormat format,
+        Set<GGNNEdgeType> edgeTypes, GGNNVocabulary vocabulary
+    ) {
+        this(commonOptions, singleMethod, format, edgeTypes, vocabulary, null);
+    }
+
+    /**
+     * Creates a preprocessor that writes the graph of each distinct method only once.
+     * <p>
+     * Methods are identified by a hash of their AST, i.e. independently of formatting and comments, together with
+     * the configuration of this preprocessor. The duplicates of a method are skipped before its graph is built. When
+     * processing inputs, the first occurrence of a method in the order of the inputs is written, independently of the
+     * number of threads. The hashes of the written methods are added to the given set only after all outputs were
+     * written successfully.
+     *
+     * @param commonOptions  The input and output options.
+     * @param singleMethod   If the input consists of a single method.
+     * @param format         The format of the output files.
+     * @param edgeTypes      The edge types that should be inferred.
+     * @param vocabulary     The vocabulary new strings are added to, or {@code null} to write the strings. Only
+     *                       supported for the {@link GGNNOutputFormat#JSONL JSONL} format and not in the incremental
+     *                       mode.
+     * @param emittedMethods The hashes of the methods written so far, to which the written methods are added once
+     *                       their graphs were written, or {@code null} to write all methods. Not supported for the
+     *                       {@link GGNNOutputFormat#DOT DOT} format.
+     */
+    public GGNNPreprocessor(
+        CommonPreprocessorOptions commonOptions, boolean singleMethod, GGNNOutputFormat format,
+        Set<GGNNEdgeType> edgeTypes, GGNNVocabulary vocabulary, ContentHashSet emittedMethods
+    ) {
+        super(commonOptions, singleMethod, format.fileExtension());
+        Preconditions.checkArgument(
+            vocabulary == null || format == GGNNOutputFormat.JSONL,
+            "A vocabulary is only supported for the JSONL format."
+        );
+        // unchanged outputs would keep ids of a vocabulary that was replaced or deleted in the meantime
+        Preconditions.checkArgument(
+            vocabulary == null || !commonOptions.incremental(),
+            "A vocabulary is not supported in the incremental mode."
+        );
+        Preconditions.checkArgument(
+            emittedMethods == null || format != GGNNOutputFormat.DOT,
+            "Skipping duplicate methods is not supported for the DOT format."
+        );
+        this.format = format;
+        this.graphBuilder = new GGNNGraphBuilder(edgeTypes);
+        this.jsonWriters = ThreadLocal.withInitial(() -> new GGNNJsonWriter(vocabulary));
+        this.configuration = String.join(
+            " ", super.getConfiguration(), format.name(), edgeTypes.stream().sorted().toList().toString(),
+            vocabulary == null ? "strings" : "vocabulary"
+        );
+        this.emittedMethods = emittedMethods == null ? null : new StagedContentHashSet(emittedMethods);
     }
 
     @Override
     public void process() throws ProcessingException {
-        writeResult(
-            readInputs().flatMap(input -> processInput(input).stream())
-                .flatMap(this::flatten)
-                .map(p -> p.mapB(this::process))
-                .filter(p -> p.b().isPresent())
-                .map(p -> p.mapB(Optional::get))
-        );
+        if (emittedMethods != null) {
+            processSkippingEmittedMethods();
+        }
+        else if (format == GGNNOutputFormat.BINARY) {
+            try (Stream<Pair<Path, byte[]>> results = mapInputs(this::processFileToBinary)) {
+                writeBinaryResult(results);
+            }
+        }
+        else {
+            try (Stream<Pair<Path, String>> results = mapInputs(this::processFile)) {
+                writeResult(results);
+            }
+        }
+    }
+
+    private void processSkippingEmittedMethods() throws ProcessingException {
+        if (format == GGNNOutputFormat.BINARY) {
+            try (Stream<Pair<Path, byte[]>> results = mapInputsSkippingEmittedMethods(binaryWriters)) {
+                writeBinaryResult(results);
+            }
+        }
+        else {
+            try (Stream<Pair<Path, String>> results = mapInputsSkippingEmittedMethods(jsonWriters)) {
+                writeResult(results);
+            }
+        }
+
+        commitEmittedMethods();
+        log.info("Skipped {} duplicate methods.", duplicateMethods.sum());
+    }
+
+    /**
+     * Adds the methods whose graphs were returned by {@link #processCompilationUnit(String)} to the persistent set of
+     * emitted methods.
+     * <p>
+     * Has to be called once after all these graphs were written. {@link #process()} does so itself.
+     */
+    public void commitEmittedMethods() {
+        if (emittedMethods != null) {
+            emittedMethods.commit();
+        }
+    }
+
+    /**
+     * Gets the number of methods that were skipped as their graph was already written.
+     *
+     * @return The number of skipped methods.
+     */
+    public long getDuplicateMethods() {
+        return duplicateMethods.sum();
+    }
+
+    @Override
+    protected String getConfiguration() {
+        return configuration;
+    }
+
+    private <T> Stream<Pair<Path, T>> mapInputs(final Function<Input, List<Pair<Path, T>>> processor) {
+        if (commonOptions.isParallel()) {
+            return ParallelPipeline.mapOrdered(readInputs(), processor, commonOptions.threads())
+                .flatMap(List::stream);
+        }
+        else {
+            return readInputs().flatMap(input -> processor.apply(input).stream());
+        }
+    }
+
+    /**
+     * Maps the inputs to the graphs of their methods that were not emitted before.
+     * <p>
+     * The inputs are parsed and their methods are hashed concurrently. Which methods were emitted before is decided
+     * by the thread consuming the results in the order of the inputs, so that the same occurrence of a duplicated
+     * method is written independently of the number of threads. Afterwards, the graphs of the remaining methods are
+     * built concurrently again.
+     *
+     * @param writers The writers serialising the graphs.
+     * @param <T>     The type of the serialised graphs.
+     * @return The results for the output files in the order of the inputs.
+     */
+    private <T> Stream<Pair<Path, T>> mapInputsSkippingEmittedMethods(
+        final ThreadLocal<? extends GGNNGraphWriter<T>> writers
+    ) {
+        final Function<List<Pair<Path, HashedMethods>>, List<Pair<Path, T>>> buildGraphs = methods -> methods.stream()
+            .map(p -> p.mapB(m -> writeGraphs(writers, m)))
+            .toList();
+
+        if (commonOptions.isParallel()) {
+            final Stream<List<Pair<Path, HashedMethods>>> newMethods = ParallelPipeline
+                .mapOrdered(readInputs(), this::hashMethods, commonOptions.threads())
+                .map(this::skipEmittedMethods);
+            return ParallelPipeline.mapOrdered(newMethods, buildGraphs, commonOptions.threads())
+                .flatMap(List::stream);
+        }
+        else {
+            return readInputs()
+                .map(this::hashMethods)
+                .map(this::skipEmittedMethods)
+                .map(buildGraphs)
+                .flatMap(List::stream);
+        }
     }
 
+    /**
+     * Parses a single input file and hashes all contained methods.
+     * <p>
+     * Safe to be called concurrently for different inputs.
+     *
+     * @param input Some input file.
+     * @return The methods for the output files in the order they appear in the input.
+     */
+    private List<Pair<Path, HashedMethods>> hashMethods(final Input input) {
+        return processInput(input).stream()
+            .flatMap(this::flatten)
+            .map(p -> p.mapB(this::hashMethods))
+            .toList();
+    }
+
+    private List<Pair<Path, HashedMethods>> skipEmittedMethods(final List<Pair<Path, HashedMethods>> methods) {
+        return methods.stream().map(p -> p.mapB(this::skipEmittedMethods)).toList();
+    }
+
+    /**
+     * Parses a single input file and transforms all contained methods.
+     * <p>
+     * Safe to be called concurrently for different inputs.
+     *
+     * @param input Some input file.
+     * @return The results for the output files in the order the methods appear in the input.
+     */
+    private List<Pair<Path, String>> processFile(final Input input) {
+        return processInput(input).stream()
+            .flatMap(this::flatten)
+            .map(p -> p.mapB(this::process))
+            .filter(p -> p.b().isPresent())
+            .map(p -> p.mapB(Optional::get))
+            .toList();
+    }
+
+    /**
+     * Parses a single input file and transforms all contained methods into blocks of the binary format.
+     * <p>
+     * Safe to be called concurrently for different inputs.
+     *
+     * @param input Some input file.
+     * @return The blocks for the output files in the order the methods appear in the input.
+     */
+    private List<Pair<Path, byte[]>> processFileToBinary(final Input input) {
+        return processInput(input).stream()
+            .flatMap(this::flatten)
+            .map(p -> p.mapB(root -> writeGraphs(binaryWriters, root)))
+            .toList();
+    }
+
+    /**
+     * Transforms all methods of a compilation unit.
+     * <p>
+     * Yields the same output as {@link #process()} writes for a file with this content. Safe to be called
+     * concurrently.
+     *
+     * @param code The code of some Java file.
+     * @return The graphs of all contained methods as a single result, nothing if the code cannot be parsed.
+     */
     @Override
     public Stream<String> processCompilationUnit(final String code) {
-        return processCode(code);
+        final AstNode ast;
+        try {
+            ast = getAst(CharStreams.fromString(code));
+        }
+        catch (ParseException e) {
+            log.warn("Could not parse compilation unit.", e);
+            return Stream.empty();
+        }
+        return process(new AstWithLabels(Collections.emptyList(), ast)).stream();
     }
 
     @Override
@@ -69,45 +355,133 @@ private Stream<String> processCode(final String code) {
 
     /**
      * Preprocess given content to a string either representing a DotGraph or a JSON format.
+     * <p>
+     * The binary format is written by {@link #process()} only, textual results of it are JSON.
      *
      * @param root Root of the AST.
      * @return Returns either JSON or DotGraph format of the GGNN Graph.
      */
     private Optional<String> process(final AstWithLabels root) {
-        if (dotgraph) {
-            final var v = new DotGraphBuildingVisitor<>(new GGNNGraphBuilder());
+        if (format == GGNNOutputFormat.DOT) {
+            final var v = new DotGraphBuildingVisitor<>(graphBuilder);
             return root.astNode().accept(v, null).findFirst().map(DotGraph::build);
         }
         else {
-            final var methodDecls = new MethodsExtractor(false).process(root.astNode());
-            final var jsonGraphs = methodDecls.stream()
-                .map(methodDeclaration -> new GGNNGraphBuilder().build(methodDeclaration))
-                .map(GGNNContextGraphBuilder::build)
-                .flatMap(x -> graphAsJsonStream(x, root.newLabels()))
-                .collect(Collectors.joining(System.lineSeparator()));
-            return Optional.of(jsonGraphs);
+            return Optional.of(writeGraphs(jsonWriters, root));
         }
     }
 
-    private Stream<String> graphAsJsonStream(final GGNNContextGraph contextGraph, List<String> newLabels) {
-        if (newLabels.isEmpty()) {
-            return Stream.of(graphAsJson(contextGraph)).filter(Objects::nonNull);
+    /**
+     * Serialises the graphs of all methods of the AST.
+     * <p>
+     * Duplicate methods are skipped as they are encountered by the calling threads, i.e. in no particular order if
+     * the ASTs are processed concurrently.
+     */
+    private <T> T writeGraphs(final ThreadLocal<? extends GGNNGraphWriter<T>> writers, final AstWithLabels root) {
+        if (emittedMethods == null) {
+            return writeGraphs(writers, new MethodsExtractor(false).process(root.astNode()), root.newLabels());
         }
-        return newLabels.stream()
-            .map(label -> new GGNNContextGraph(label, contextGraph.labelNodes(), contextGraph.contextGraph()))
-            .map(this::graphAsJson)
-            .filter(Objects::nonNull);
+        else {
+            return writeGraphs(writers, skipEmittedMethods(hashMethods(root)));
+        }
+    }
+
+    private <T> T writeGraphs(final ThreadLocal<? extends GGNNGraphWriter<T>> writers, final HashedMethods methods) {
+        return writeGraphs(writers, methods.methods().stream().map(HashedMethod::method).toList(), methods.newLabels());
     }
 
-    private String graphAsJson(final GGNNContextGraph contextGraph) {
+    private <T> T writeGraphs(
+        final ThreadLocal<? extends GGNNGraphWriter<T>> writers, final List<MethodDeclaration> methods,
+        final List<String> newLabels
+    ) {
+        final GGNNGraphWriter<T> writer = writers.get();
         try {
-            return objectMapper.writeValueAsString(contextGraph);
+            for (final MethodDeclaration method : methods) {
+                writeGraph(writer, graphBuilder.build(method), newLabels);
+            }
+            return writer.takeOutput();
+        }
+        catch (RuntimeException e) {
+            // the writer might have stopped in the middle of a graph
+            writers.remove();
+            throw e;
+        }
+    }
+
+    private HashedMethods hashMethods(final AstWithLabels root) {
+        final List<HashedMethod> methods = new MethodsExtractor(false).process(root.astNode()).stream()
+            .map(method -> new HashedMethod(method, methodHash(method, root.newLabels())))
+            .toList();
+        return new HashedMethods(root.newLabels(), methods);
+    }
+
+    /**
+     * Removes the methods that were emitted before and marks the remaining ones as emitted.
+     */
+    private HashedMethods skipEmittedMethods(final HashedMethods methods) {
+        final List<HashedMethod> newMethods = new ArrayList<>(methods.methods().size());
+        for (final HashedMethod method : methods.methods()) {
+            if (emittedMethods.add(method.hash())) {
+                newMethods.add(method);
+            }
+            else {
+                duplicateMethods.increment();
+            }
+        }
+        return new HashedMethods(methods.newLabels(), newMethods);
+    }
+
+    /**
+     * Hashes a method by its AST, i.e. the type, label, and number of children of each node in pre-order.
+     */
+    private long methodHash(final MethodDeclaration method, final List<String> newLabels) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher()
+            .putString(configuration, StandardCharsets.UTF_8)
+            .putInt(newLabels.size());
+        for (final String label : newLabels) {
+            hasher.putString(label, StandardCharsets.UTF_8).putChar('\0');
         }
-        catch (JsonProcessingException ex) {
-            // as long as the classes are accessible to Jackson this should never happen
-            log.error("Could not transform statement tree sequence to JSON.", ex);
-            return null;
+        putNode(hasher, method);
+        return hasher.hash().asLong();
+    }
+
+    private static void putNode(final Hasher hasher, final AstNode node) {
+        final String label = AstNodeLabelGenerator.getLabel(node);
+        final List<AstNode> children = node.children();
+        hasher.putString(AstNodeLabelGenerator.getTypeName(node), StandardCharsets.UTF_8).putChar('\0')
+            .putString(label == null ? "" : label, StandardCharsets.UTF_8).putChar('\0')
+            .putInt(children.size());
+        for (final AstNode child : children) {
+            putNode(hasher, child);
+        }
+    }
+
+    private void writeGraph(
+        final GGNNGraphWriter<?> writer, final GGNNCompactGraph graph, final List<String> newLabels
+    ) {
+        if (newLabels.isEmpty()) {
+            writer.write(graph, graph.name());
+        }
+        else {
+            for (final String label : newLabels) {
+                writer.write(graph, label);
+            }
         }
     }
 
+    /**
+     * @param method Some method.
+     * @param hash   The {@link #methodHash(MethodDeclaration, List) hash} of the method.
+     */
+    private record HashedMethod(MethodDeclaration method, long hash) {
+    }
+
+    /**
+     * The methods of an AST, whose graphs are written to the same output.
+     *
+     * @param newLabels The labels the graphs are written with, or none to use the method names.
+     * @param methods   The methods in the order they appear in the AST.
+     */
+    private record HashedMethods(List<String> newLabels, List<HashedMethod> methods) {
+    }
 }
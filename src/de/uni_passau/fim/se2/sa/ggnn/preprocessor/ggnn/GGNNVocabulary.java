@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns corpus-wide integer ids to the node types and node labels of GGNN graphs.
+ * <p>
+ * Graphs written with a vocabulary reference these ids instead of repeating the strings in every graph. The ids of
+ * both tables are dense and start at zero, so that they can directly be used as embedding indices. The vocabulary is
+ * stored as a sidecar JSON file {@code {"nodeTypes": […], "nodeLabels": […]}}, in which the id of a string is its
+ * index. Loading and extending an existing vocabulary keeps all its ids, so that several datasets can share one.
+ * <p>
+ * Thread-safe. When graphs are processed concurrently, the order in which new strings get their ids depends on the
+ * scheduling, but the written graphs always match the written vocabulary.
+ */
+public final class GGNNVocabulary {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Table nodeTypes;
+
+    private final Table nodeLabels;
+
+    public GGNNVocabulary() {
+        this(List.of(), List.of());
+    }
+
+    private GGNNVocabulary(final List<String> nodeTypes, final List<String> nodeLabels) {
+        this.nodeTypes = new Table(nodeTypes);
+        this.nodeLabels = new Table(nodeLabels);
+    }
+
+    /**
+     * Loads a vocabulary that was written by {@link #write(Path)}.
+     *
+     * @param file Some vocabulary file.
+     * @return The vocabulary, which assigns new ids after the loaded ones.
+     * @throws IOException Thrown if the file cannot be read or is no vocabulary.
+     */
+    public static GGNNVocabulary read(final Path file) throws IOException {
+        final Tables tables = MAPPER.readValue(file.toFile(), Tables.class);
+        if (tables.nodeTypes() == null || tables.nodeLabels() == null) {
+            throw new IOException("Not a GGNN vocabulary: " + file);
+        }
+        return new GGNNVocabulary(tables.nodeTypes(), tables.nodeLabels());
+    }
+
+    /**
+     * Writes all ids assigned so far.
+     *
+     * @param file The vocabulary file. Its directory is created if necessary.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public void write(final Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        MAPPER.writeValue(file.toFile(), new Tables(nodeTypes(), nodeLabels()));
+    }
+
+    /**
+     * Gets the id of a node type, assigning the next free id on its first occurrence.
+     *
+     * @param nodeType Some node type.
+     * @return The id of the node type.
+     */
+    public int nodeTypeId(final String nodeType) {
+        return nodeTypes.id(nodeType);
+    }
+
+    /**
+     * Gets the id of a node label, assigning the next free id on its first occurrence.
+     *
+     * @param nodeLabel Some node label.
+     * @return The id of the node label.
+     */
+    public int nodeLabelId(final String nodeLabel) {
+        return nodeLabels.id(nodeLabel);
+    }
+
+    /**
+     * Gets the node types ordered by their ids.
+     *
+     * @return A snapshot of the node types.
+     */
+    public List<String> nodeTypes() {
+        return nodeTypes.strings();
+    }
+
+    /**
+     * Gets the node labels ordered by their ids.
+     *
+     * @return A snapshot of the node labels.
+     */
+    public List<String> nodeLabels() {
+        return nodeLabels.strings();
+    }
+
+    /**
+     * The content of a vocabulary file.
+     */
+    private record Tables(List<String> nodeTypes, List<String> nodeLabels) {
+    }
+
+    /**
+     * Maps strings to dense ids.
+     * <p>
+     * Known strings are looked up without locking, only new strings are added under the lock of the table so that ids
+     * are never skipped or assigned twice.
+     */
+    private static final class Table {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        private final List<String> strings;
+
+        private Table(final List<String> strings) {
+            this.strings = new ArrayList<>(strings);
+            for (int id = 0; id < strings.size(); ++id) {
+                ids.putIfAbsent(strings.get(id), id);
+            }
+        }
+
+        private int id(final String string) {
+            final Integer known = ids.get(string);
+            if (known != null) {
+                return known;
+            }
+
+            synchronized (this) {
+                return ids.computeIfAbsent(string, s -> {
+                    strings.add(s);
+                    return strings.size() - 1;
+                });
+            }
+        }
+
+        private synchronized List<String> strings() {
+            return List.copyOf(strings);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Dense integer ids for the nodes of an AST.
+ * <p>
+ * The ids are assigned in a single pre-order pass starting with zero at the root. Nodes that occur multiple times in
+ * the tree, e.g. the operator enum constants, receive the id of their first occurrence.
+ */
+public final class NodeIndex {
+
+    /**
+     * Returned by {@link #id(AstNode)} for nodes that are not part of the indexed tree.
+     */
+    public static final int NO_ID = -1;
+
+    private final IdentityHashMap<AstNode, Integer> ids = new IdentityHashMap<>();
+
+    private final List<AstNode> nodes = new ArrayList<>();
+
+    private NodeIndex() {
+    }
+
+    /**
+     * Numbers all nodes of the tree in pre-order.
+     *
+     * @param root The root of the tree.
+     * @return The index of the tree.
+     */
+    public static NodeIndex preOrder(final AstNode root) {
+        final NodeIndex index = new NodeIndex();
+        index.add(root);
+        return index;
+    }
+
+    private void add(final AstNode node) {
+        if (ids.putIfAbsent(node, nodes.size()) == null) {
+            nodes.add(node);
+        }
+        node.children().forEach(this::add);
+    }
+
+    /**
+     * Gets the id of a node.
+     *
+     * @param node Some AST node.
+     * @return The id of the node, or {@link #NO_ID} if the node is not part of the indexed tree.
+     */
+    public int id(final AstNode node) {
+        final Integer id = ids.get(node);
+        return id == null ? NO_ID : id;
+    }
+
+    public AstNode node(final int id) {
+        return nodes.get(id);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    AstNode[] toArray() {
+        return nodes.toArray(AstNode[]::new);
+    }
+}
@@ -0,0 +1,22 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+
+/**
+ * Infers CHILD edges from each node to its direct children.
+ */
+public class ChildEdgeExtractor implements EdgeExtractor {
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        for (final AstNode child : node.children()) {
+            sink.addEdge(GGNNEdgeType.CHILD, node, child);
+        }
+        return true;
+    }
+}
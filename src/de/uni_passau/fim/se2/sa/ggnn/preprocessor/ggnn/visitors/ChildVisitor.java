@@ -6,10 +6,13 @@
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
 
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Visitor for inferring CHILD edges.
+ *
+ * @see ChildEdgeExtractor
  */
 public class ChildVisitor implements AstVisitorWithDefaults<Void, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> {
 
@@ -17,18 +20,11 @@ public class ChildVisitor implements AstVisitorWithDefaults<Void, Set<Pair<Ident
 
     public ChildVisitor(IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap) {
         this.astNodeMap = astNodeMap;
-
     }
 
-
     @Override
     public Void defaultAction(AstNode node, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> childEdges) {
-        IdentityWrapper<AstNode> parentWrapper = astNodeMap.get(node);
-        for (AstNode child : node.children()) {
-            IdentityWrapper<AstNode> childWrapper = astNodeMap.get(child);
-            childEdges.add(Pair.of(parentWrapper, childWrapper));
-            defaultAction(child, childEdges);
-        }
+        EdgeExtractionWalker.walk(node, List.of(new ChildEdgeExtractor()), EdgeSink.into(childEdges, astNodeMap));
         return null;
     }
 }
@@ -0,0 +1,41 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.expression.Expression;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.expression.binary.AssignmentExpr;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.expression.binary.BinaryExpr;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+
+/**
+ * Infers COMPUTED_FROM edges from the operands on the right-hand side of an assignment to its left-hand side.
+ */
+public class ComputedFromEdgeExtractor implements EdgeExtractor {
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        if (node instanceof AssignmentExpr assignment) {
+            collectComputedFromEdges(assignment.right(), assignment.left(), sink);
+        }
+        return true;
+    }
+
+    private void collectComputedFromEdges(final Expression expr, final AstNode target, final EdgeSink sink) {
+        // If the expression is binary, link its left and right children
+        if (expr instanceof BinaryExpr binaryExpr) {
+            sink.addEdge(GGNNEdgeType.COMPUTED_FROM, binaryExpr.left(), target);
+            sink.addEdge(GGNNEdgeType.COMPUTED_FROM, binaryExpr.right(), target);
+
+            // Recursively collect computed from edges for nested binary expressions
+            collectComputedFromEdges(binaryExpr.left(), target, sink);
+            collectComputedFromEdges(binaryExpr.right(), target, sink);
+        }
+        else {
+            // For non-binary expressions, simply add the direct relationship
+            sink.addEdge(GGNNEdgeType.COMPUTED_FROM, expr, target);
+        }
+    }
+}
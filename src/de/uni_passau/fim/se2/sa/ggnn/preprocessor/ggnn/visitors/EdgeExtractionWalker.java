@@ -0,0 +1,82 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs several {@link EdgeExtractor}s in a single walk over an AST.
+ */
+public final class EdgeExtractionWalker {
+
+    private static final int ACTIVE = -1;
+
+    private final EdgeExtractor[] extractors;
+
+    private final EdgeSink sink;
+
+    /**
+     * The depth of the node at which an extractor stopped listening, or {@link #ACTIVE}.
+     */
+    private final int[] mutedAt;
+
+    private int activeCount;
+
+    private int depth = 0;
+
+    private EdgeExtractionWalker(final List<EdgeExtractor> extractors, final EdgeSink sink) {
+        this.extractors = extractors.toArray(EdgeExtractor[]::new);
+        this.sink = sink;
+        this.mutedAt = new int[this.extractors.length];
+        Arrays.fill(mutedAt, ACTIVE);
+        this.activeCount = this.extractors.length;
+    }
+
+    /**
+     * Walks the tree once and notifies all extractors.
+     *
+     * @param root       The root of the tree.
+     * @param extractors The extractors. They are notified in list order when entering a node and in reverse order when
+     *                   leaving it.
+     * @param sink       Receives the inferred edges.
+     */
+    public static void walk(final AstNode root, final List<EdgeExtractor> extractors, final EdgeSink sink) {
+        final EdgeExtractionWalker walker = new EdgeExtractionWalker(extractors, sink);
+        for (final EdgeExtractor extractor : walker.extractors) {
+            extractor.start(root, sink);
+        }
+        walker.visit(root);
+    }
+
+    private void visit(final AstNode node) {
+        for (int i = 0; i < extractors.length; ++i) {
+            if (mutedAt[i] == ACTIVE && !extractors[i].enter(node, sink)) {
+                mutedAt[i] = depth;
+                activeCount--;
+            }
+        }
+
+        if (activeCount > 0) {
+            depth++;
+            for (final AstNode child : node.children()) {
+                visit(child);
+            }
+            depth--;
+        }
+
+        for (int i = extractors.length - 1; i >= 0; --i) {
+            if (mutedAt[i] == ACTIVE) {
+                extractors[i].exit(node, sink);
+            }
+            else if (mutedAt[i] == depth) {
+                mutedAt[i] = ACTIVE;
+                activeCount++;
+            }
+        }
+    }
+}
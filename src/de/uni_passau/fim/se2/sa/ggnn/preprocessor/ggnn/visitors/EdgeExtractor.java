@@ -0,0 +1,48 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+
+/**
+ * Listener that infers the edges of one GGNN edge type during a shared walk over the AST.
+ * <p>
+ * The {@link EdgeExtractionWalker} calls {@link #start(AstNode, EdgeSink)} once for the root and then
+ * {@link #enter(AstNode, EdgeSink)} and {@link #exit(AstNode, EdgeSink)} for each node in pre-order and post-order
+ * respectively. Extractors may keep state between the calls, so each instance must only be used for one walk at a
+ * time.
+ */
+public interface EdgeExtractor {
+
+    /**
+     * Called before the walk starts.
+     *
+     * @param root The root of the walk.
+     * @param sink Receives the inferred edges.
+     */
+    default void start(final AstNode root, final EdgeSink sink) {
+    }
+
+    /**
+     * Called before the children of the node are walked.
+     *
+     * @param node The current node.
+     * @param sink Receives the inferred edges.
+     * @return False, if the extractor is not interested in the subtree of the node. The extractor then is neither
+     *     notified about the descendants of the node nor about leaving the node.
+     */
+    default boolean enter(final AstNode node, final EdgeSink sink) {
+        return true;
+    }
+
+    /**
+     * Called after the children of the node have been walked.
+     *
+     * @param node The current node.
+     * @param sink Receives the inferred edges.
+     */
+    default void exit(final AstNode node, final EdgeSink sink) {
+    }
+}
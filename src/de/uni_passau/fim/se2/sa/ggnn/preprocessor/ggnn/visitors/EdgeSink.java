@@ -0,0 +1,43 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Receives the edges found by {@link EdgeExtractor}s.
+ */
+@FunctionalInterface
+public interface EdgeSink {
+
+    void addEdge(GGNNEdgeType type, AstNode source, AstNode target);
+
+    /**
+     * Creates a sink that adds the edges of all types to a single set.
+     *
+     * @param edges      The set the edges are added to.
+     * @param astNodeMap Maps the AST nodes to their wrapped representation. Edges with nodes that are not part of the
+     *                   map are dropped.
+     * @return The sink.
+     */
+    static EdgeSink into(
+        final Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges,
+        final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap
+    ) {
+        return (type, source, target) -> {
+            final IdentityWrapper<AstNode> sourceNode = astNodeMap.get(source);
+            final IdentityWrapper<AstNode> targetNode = astNodeMap.get(target);
+            if (sourceNode != null && targetNode != null) {
+                edges.add(Pair.of(sourceNode, targetNode));
+            }
+        };
+    }
+}
@@ -4,6 +4,7 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
 
+import com.google.common.base.Suppliers;
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
@@ -12,167 +13,116 @@
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Visitor for building the GGNN-Edges.
+ * <p>
+ * The extractors of all requested edge types listen on a single shared walk over the method.
  */
 public class GGNNEdgesVisitor {
 
-    /**
-     * Maps AstNodes to their IdentityWrapper wrapped representation.
-     */
-    private final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap = new IdentityHashMap<>();
-
     /**
      * DataFlowFacts hosting information about the definition and uses of variables.
+     * <p>
+     * Only computed if edges of a type that depends on them are requested.
      */
-    private final DataFlowFacts dataFlowFacts;
+    private final Supplier<DataFlowFacts> dataFlowFacts;
 
     private final MethodDeclaration method;
 
-    public GGNNEdgesVisitor(final MethodDeclaration method) {
-        this.method = method;
-        buildIdentityMap(method);
-
-        dataFlowFacts = new DataFlowFacts(method);
-    }
-
-    /**
-     * Maps each AstNode to its respective IdentityWrapper representation.
-     *
-     * @param node the AstNode to be mapped to its IdentityWrapper representation.
-     */
-    private void buildIdentityMap(AstNode node) {
-        astNodeMap.putIfAbsent(node, IdentityWrapper.of(node));
-        node.children().forEach(this::buildIdentityMap);
-    }
+    private final Set<GGNNEdgeType> edgeTypes;
 
-    /**
-     * Derives the GGNN edge types from the instantiated method.
-     *
-     * @return mapping of edge types to the respective set of edges (represented as node pairs).
-     */
-    public Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> getEdges() {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> edges = new HashMap<>();
-        edges.put(GGNNEdgeType.CHILD, getChildEdges(method));
-        edges.put(GGNNEdgeType.NEXT_TOKEN, getNextTokenEdges(method));
-        edges.put(GGNNEdgeType.RETURNS_TO, getReturnsToEdges(method));
-        edges.put(GGNNEdgeType.LAST_WRITE, getLastWriteEdges(method));
-        edges.put(GGNNEdgeType.LAST_READ, getLastReadEdges(method));
-        edges.put(GGNNEdgeType.COMPUTED_FROM, getComputedFromEdges(method));
-        edges.put(GGNNEdgeType.GUARDED_BY, getGuardedByEdges(method));
-        return edges;
+    public GGNNEdgesVisitor(final MethodDeclaration method) {
+        this(method, EnumSet.allOf(GGNNEdgeType.class));
     }
 
     /**
-     * Registers the {@link ChildVisitor} to obtain the set of child edges.
+     * Creates a visitor that only infers some of the edge types.
+     * <p>
+     * Analyses that are only needed for other edge types are skipped.
      *
-     * @param node based on which the listener will be registered.
-     * @return The set of CHILD edges represented as node pairs.
+     * @param method    The method the edges are inferred for.
+     * @param edgeTypes The edge types that should be inferred.
      */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getChildEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> childEdges = new HashSet<>();
-        ChildVisitor childVisitor = new ChildVisitor(astNodeMap);
-        node.accept(childVisitor, childEdges);
-        return childEdges;
+    public GGNNEdgesVisitor(final MethodDeclaration method, final Set<GGNNEdgeType> edgeTypes) {
+        this(method, edgeTypes, () -> new DataFlowFacts(method));
     }
 
     /**
-     * Registers the {@link NextTokenVisitor} to obtain the set of child edges.
+     * Creates a visitor that obtains the data-flow facts of the method from the given supplier.
      *
-     * @param node based on which the listener will be registered.
-     * @return The set of NEXT_TOKEN edges represented as node pairs.
+     * @param method        The method the edges are inferred for.
+     * @param edgeTypes     The edge types that should be inferred.
+     * @param dataFlowFacts Computes the data-flow facts of the method. Invoked at most once, and only if some requested
+     *                      edge type depends on the facts.
      */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getNextTokenEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        NextTokenVisitor visitor = new NextTokenVisitor(astNodeMap);
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
-        node.accept(visitor, edges);
-        return edges;
+    GGNNEdgesVisitor(
+        final MethodDeclaration method, final Set<GGNNEdgeType> edgeTypes, final Supplier<DataFlowFacts> dataFlowFacts
+    ) {
+        this.method = method;
+        this.edgeTypes = Collections.unmodifiableSet(EnumSet.copyOf(edgeTypes));
+        this.dataFlowFacts = Suppliers.memoize(dataFlowFacts::get);
     }
 
-    /**
-     * Registers the {@link LastWriteVisitor} to obtain the set of child edges.
-     *
-     * @param node based on which the listener will be registered.
-     * @return The set of LAST_WRITE edges represented as node pairs.
-     */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getLastWriteEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        LastWriteVisitor visitor = new LastWriteVisitor(astNodeMap, dataFlowFacts);
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
-        node.accept(visitor, edges);
-        return edges;
+    public Set<GGNNEdgeType> edgeTypes() {
+        return edgeTypes;
     }
 
     /**
-     * Registers the {@link LastReadVisitor} to obtain the set of child edges.
+     * Derives the GGNN edge types from the instantiated method.
      *
-     * @param node based on which the listener will be registered.
-     * @return The set of LAST_READ edges represented as node pairs.
+     * @return mapping of edge types to the respective set of edges (represented as node pairs).
      */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getLastReadEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        LastReadVisitor visitor = new LastReadVisitor(astNodeMap, dataFlowFacts);
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
-        node.accept(visitor, edges);
+    public Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> getEdges() {
+        final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap = new IdentityHashMap<>();
+        buildIdentityMap(method, astNodeMap);
+
+        final Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> edges =
+            new EnumMap<>(GGNNEdgeType.class);
+        final Map<GGNNEdgeType, EdgeSink> sinks = new EnumMap<>(GGNNEdgeType.class);
+        for (final GGNNEdgeType type : edgeTypes) {
+            final Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> typeEdges = new HashSet<>();
+            edges.put(type, typeEdges);
+            sinks.put(type, EdgeSink.into(typeEdges, astNodeMap));
+        }
+
+        collectEdges((type, source, target) -> sinks.get(type).addEdge(type, source, target));
         return edges;
     }
 
     /**
-     * Registers the {@link ReturnsToVisitor} to obtain the set of child edges.
+     * Infers the edges of all requested types in one walk over the method.
      *
-     * @param node based on which the listener will be registered.
-     * @return The set of RETURNS_TO edges represented as node pairs.
+     * @param sink Receives the edges. The same edge may be reported multiple times.
      */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getReturnsToEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        ReturnsToVisitor visitor = new ReturnsToVisitor(astNodeMap);
-        node.accept(visitor, null);
-        return visitor.returnEdges();
+    public void collectEdges(final EdgeSink sink) {
+        final List<EdgeExtractor> extractors = edgeTypes.stream().map(this::createExtractor).toList();
+        EdgeExtractionWalker.walk(method, extractors, sink);
     }
 
-    /**
-     * Registers the {@link ComputedFromVisitor} to obtain the set of child edges.
-     *
-     * @param node based on which the listener will be registered.
-     * @return The set of COMPUTED_FROM edges represented as node pairs.
-     */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getComputedFromEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-        ComputedFromVisitor visitor = new ComputedFromVisitor(astNodeMap);
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
-        node.accept(visitor, edges);
-        return edges;
+    private EdgeExtractor createExtractor(final GGNNEdgeType type) {
+        return switch (type) {
+            case CHILD -> new ChildEdgeExtractor();
+            case NEXT_TOKEN -> new NextTokenEdgeExtractor();
+            case LAST_WRITE -> new LastWriteEdgeExtractor(dataFlowFacts);
+            case LAST_READ -> new LastReadEdgeExtractor(dataFlowFacts);
+            case COMPUTED_FROM -> new ComputedFromEdgeExtractor();
+            case GUARDED_BY -> new GuardedByEdgeExtractor();
+            case RETURNS_TO -> new ReturnsToEdgeExtractor();
+        };
     }
 
     /**
-     * Registers the {@link GuardedByVisitor} to obtain the set of child edges.
+     * Maps each AstNode to its respective IdentityWrapper representation.
      *
-     * @param node based on which the listener will be registered.
-     * @return The set of GUARDED_BY edges represented as node pairs.
+     * @param node       the AstNode to be mapped to its IdentityWrapper representation.
+     * @param astNodeMap the map the representations are added to.
      */
-    private Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> getGuardedByEdges(AstNode node) {
-        // TODO Implement me
-//        throw new UnsupportedOperationException("Implement me");
-
-        GuardedByVisitor visitor = new GuardedByVisitor(astNodeMap);
-        Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
-        node.accept(visitor, edges);
-        return edges;
-
+    private static void buildIdentityMap(
+        final AstNode node, final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap
+    ) {
+        astNodeMap.putIfAbsent(node, IdentityWrapper.of(node));
+        node.children().forEach(child -> buildIdentityMap(child, astNodeMap));
     }
-
-
-
-
 }
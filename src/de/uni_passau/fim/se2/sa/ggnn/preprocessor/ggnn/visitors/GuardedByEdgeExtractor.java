@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.expression.TernaryExpr;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.DoWhileStmt;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.ForStmt;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.IfStmt;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.WhileStmt;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.try_statement.CatchClause;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.switch_node.Switch;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Infers GUARDED_BY edges from guarded nodes to the expressions guarding them.
+ * <p>
+ * The conditions of if statements are not searched for further guards.
+ */
+public class GuardedByEdgeExtractor implements EdgeExtractor {
+
+    private final Set<AstNode> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @Override
+    public void start(final AstNode root, final EdgeSink sink) {
+        skipped.clear();
+    }
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        if (skipped.remove(node)) {
+            return false;
+        }
+
+        if (node instanceof ForStmt forStmt) {
+            if (forStmt.forControl() instanceof ForStmt.RegularFor regularFor) {
+                regularFor.condition().ifPresent(guard -> addGuardedByEdge(node, guard, sink));
+            }
+            else if (forStmt.forControl() instanceof ForStmt.EnhancedFor enhancedFor) {
+                addGuardedByEdge(node, enhancedFor.expression(), sink);
+            }
+        }
+        else if (node instanceof IfStmt ifStmt) {
+            // The condition guards the else block
+            ifStmt.elseStmt().ifPresent(elseStmt -> addGuardedByEdge(elseStmt, ifStmt.condition(), sink));
+            skipped.add(ifStmt.condition());
+        }
+        else if (node instanceof WhileStmt whileStmt) {
+            addGuardedByEdge(node, whileStmt.condition(), sink);
+        }
+        else if (node instanceof DoWhileStmt doWhileStmt) {
+            addGuardedByEdge(node, doWhileStmt.condition(), sink);
+        }
+        else if (node instanceof Switch.SwitchStmt switchStmt) {
+            addGuardedByEdge(node, switchStmt.check(), sink);
+        }
+        else if (node instanceof CatchClause catchClause) {
+            // The catch type can be considered as the guard
+            addGuardedByEdge(node, catchClause.catchType(), sink);
+        }
+        else if (node instanceof TernaryExpr ternaryExpr) {
+            addGuardedByEdge(node, ternaryExpr.testExpr(), sink);
+            addGuardedByEdge(ternaryExpr.thenExpr(), ternaryExpr.elseExpr(), sink);
+        }
+        return true;
+    }
+
+    private void addGuardedByEdge(final AstNode node, final AstNode guard, final EdgeSink sink) {
+        if (guard != null && guard != node) {
+            sink.addEdge(GGNNEdgeType.GUARDED_BY, node, guard);
+        }
+    }
+}
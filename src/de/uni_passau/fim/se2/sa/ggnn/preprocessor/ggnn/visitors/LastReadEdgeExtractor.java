@@ -0,0 +1,43 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFacts;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.Use;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+
+import java.util.function.Supplier;
+
+/**
+ * Infers LAST_READ edges of a method declaration from its data flow facts.
+ * <p>
+ * The edges are derived from the facts of the whole method, so the extractor does not need to walk the tree. The facts
+ * are only requested once the extractor is started on a method declaration.
+ */
+public class LastReadEdgeExtractor implements EdgeExtractor {
+
+    private final Supplier<DataFlowFacts> dataFlowFacts;
+
+    public LastReadEdgeExtractor(final Supplier<DataFlowFacts> dataFlowFacts) {
+        this.dataFlowFacts = dataFlowFacts;
+    }
+
+    @Override
+    public void start(final AstNode root, final EdgeSink sink) {
+        if (root instanceof MethodDeclaration) {
+            for (final Pair<Use, Use> pair : dataFlowFacts.get().getUseUsePairs()) {
+                sink.addEdge(GGNNEdgeType.LAST_READ, pair.a().use(), pair.b().use());
+            }
+        }
+    }
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        return false;
+    }
+}
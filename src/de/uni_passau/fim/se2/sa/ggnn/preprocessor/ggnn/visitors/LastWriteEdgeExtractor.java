@@ -0,0 +1,44 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFacts;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.Definition;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.Use;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+
+import java.util.function.Supplier;
+
+/**
+ * Infers LAST_WRITE edges of a method declaration from its data flow facts.
+ * <p>
+ * The edges are derived from the facts of the whole method, so the extractor does not need to walk the tree. The facts
+ * are only requested once the extractor is started on a method declaration.
+ */
+public class LastWriteEdgeExtractor implements EdgeExtractor {
+
+    private final Supplier<DataFlowFacts> dataFlowFacts;
+
+    public LastWriteEdgeExtractor(final Supplier<DataFlowFacts> dataFlowFacts) {
+        this.dataFlowFacts = dataFlowFacts;
+    }
+
+    @Override
+    public void start(final AstNode root, final EdgeSink sink) {
+        if (root instanceof MethodDeclaration) {
+            for (final Pair<Definition, Use> pair : dataFlowFacts.get().getDefUsePairs()) {
+                sink.addEdge(GGNNEdgeType.LAST_WRITE, pair.a().def(), pair.b().use());
+            }
+        }
+    }
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+
+import java.util.List;
+
+/**
+ * Infers NEXT_TOKEN edges between consecutive siblings.
+ */
+public class NextTokenEdgeExtractor implements EdgeExtractor {
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        final List<AstNode> children = node.children();
+        for (int i = 0; i < children.size() - 1; i++) {
+            sink.addEdge(GGNNEdgeType.NEXT_TOKEN, children.get(i), children.get(i + 1));
+        }
+        return true;
+    }
+}
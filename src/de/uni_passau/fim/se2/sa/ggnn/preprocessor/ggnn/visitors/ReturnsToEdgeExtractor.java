@@ -0,0 +1,45 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.ReturnStmt;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+
+/**
+ * Infers RETURNS_TO edges from return statements to the method declaration they leave.
+ */
+public class ReturnsToEdgeExtractor implements EdgeExtractor {
+
+    private AstNode methodDecl;
+
+    @Override
+    public void start(final AstNode root, final EdgeSink sink) {
+        methodDecl = null;
+    }
+
+    @Override
+    public boolean enter(final AstNode node, final EdgeSink sink) {
+        if (node instanceof MethodDeclaration) {
+            methodDecl = node;
+        }
+        else if (node instanceof ReturnStmt) {
+            if (methodDecl != null) {
+                sink.addEdge(GGNNEdgeType.RETURNS_TO, node, methodDecl);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void exit(final AstNode node, final EdgeSink sink) {
+        if (node instanceof MethodDeclaration) {
+            // Reset after visiting the method
+            methodDecl = null;
+        }
+    }
+}
@@ -14,6 +14,7 @@
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.shared.CodeAndLabels;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.shared.CodeAndLabelsExtractor;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+import org.antlr.v4.runtime.CharStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,7 +27,7 @@ public abstract class GraphPreprocessor extends Preprocessor {
 
     private static final Logger log = LoggerFactory.getLogger(GraphPreprocessor.class);
 
-    private final AstCodeParser parser = new AstCodeParser();
+    private final AstCodeParser parser;
     private final boolean singleMethod;
     private final String outputFileExtension;
 
@@ -35,10 +36,12 @@ protected GraphPreprocessor(
     ) {
         super(commonOptions);
 
+        this.parser = new AstCodeParser(commonOptions.predictionStrategy());
         this.singleMethod = singleMethod;
         this.outputFileExtension = outputFileExtension;
     }
 
+    @Override
     protected Path getOutputFile(final Path input) {
         final String withoutExt = Files.getNameWithoutExtension(input.toString());
         final Path outputFileName = Path.of(withoutExt + "." + outputFileExtension);
@@ -65,7 +68,7 @@ private Path getOutputFileInDirectory(final Path input, final Path outputFileNam
         }
     }
 
-    protected AstNode getAst(final String code) throws ParseException {
+    protected AstNode getAst(final CharStream code) throws ParseException {
         if (singleMethod) {
             return parser.parseMethod(code);
         }
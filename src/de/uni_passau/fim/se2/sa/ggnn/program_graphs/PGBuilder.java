@@ -4,29 +4,41 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.program_graphs;
 
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
 public abstract class PGBuilder<O extends ProgramGraph<O>> implements Builder<MethodDeclaration, O> {
 
     protected final Set<Pair<PGNode, PGNode>> edges = new HashSet<>();
 
+    /**
+     * The nodes of the collected edges by the AST node they wrap.
+     */
+    private final Map<AstNode, PGNode> nodes = new IdentityHashMap<>();
+
     protected final PGNode entry = PGNode.entry();
 
     protected final PGNode exit = PGNode.exit();
 
     public void addEdge(final PGNode start, final PGNode end) {
-        edges.add(Pair.of(start, end));
+        if (edges.add(Pair.of(start, end))) {
+            nodes.putIfAbsent(start.node(), start);
+            nodes.putIfAbsent(end.node(), end);
+        }
     }
 
     public void addEdgeToExit(final PGNode node) {
-        edges.add(Pair.of(node, exit));
+        addEdge(node, exit);
     }
 
     public PGNode getNode(final PGNode node) throws NoSuchElementException {
@@ -34,9 +46,15 @@ public PGNode getNode(final PGNode node) throws NoSuchElementException {
     }
 
     public Optional<PGNode> findNode(final PGNode node) {
-        return edges.stream()
-            .flatMap(edge -> Stream.of(edge.a(), edge.b()))
-            .filter(n -> n.equals(node))
-            .findFirst();
+        return Optional.ofNullable(nodes.get(node.node()));
+    }
+
+    /**
+     * Gets all nodes that are part of at least one collected edge.
+     *
+     * @return The nodes in no particular order.
+     */
+    protected Collection<PGNode> nodes() {
+        return Collections.unmodifiableCollection(nodes.values());
     }
 }
@@ -4,7 +4,7 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.program_graphs;
 
-import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import com.google.common.base.Preconditions;
 import de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg.CfgBuilder;
 import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.AstNodeLabelGenerator;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.AbstractGraph;
@@ -12,7 +12,6 @@
 import org.jgrapht.graph.DefaultEdge;
 
 import java.util.Collections;
-import java.util.Optional;
 
 /**
  * The control flow graph of a method. Can be constructed using the {@link CfgBuilder}.
@@ -22,18 +21,24 @@
     private final PGNode entryNode;
     private final PGNode exitNode;
 
+    /**
+     * Creates a graph whose entry and exit nodes are labelled with {@link PGNode#ENTRY_NODE_LABEL} and
+     * {@link PGNode#EXIT_NODE_LABEL}.
+     *
+     * @param graphName The name of the graph.
+     * @param graph     The nodes and edges.
+     */
     protected ProgramGraph(String graphName, Graph<PGNode, DefaultEdge> graph) {
-        super(graphName, Collections.emptySet(), graph, ProgramGraph::labelGenerator);
-
-        entryNode = findNode(PGNode.ENTRY_NODE_LABEL).orElseThrow();
-        exitNode = findNode(PGNode.EXIT_NODE_LABEL).orElseThrow();
+        this(graphName, graph, PGNode.entry(), PGNode.exit());
     }
 
-    protected Optional<PGNode> findNode(final AstNode astNode) {
-        return graph.vertexSet()
-            .stream()
-            .filter(node -> astNode.equals(node.node()))
-            .findFirst();
+    protected ProgramGraph(String graphName, Graph<PGNode, DefaultEdge> graph, PGNode entryNode, PGNode exitNode) {
+        super(graphName, Collections.emptySet(), graph, ProgramGraph::labelGenerator);
+
+        Preconditions.checkArgument(graph.containsVertex(entryNode), "The entry node is not part of the graph.");
+        Preconditions.checkArgument(graph.containsVertex(exitNode), "The exit node is not part of the graph.");
+        this.entryNode = entryNode;
+        this.exitNode = exitNode;
     }
 
     public PGNode entryNode() {
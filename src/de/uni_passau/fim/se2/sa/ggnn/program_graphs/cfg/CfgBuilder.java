@@ -12,7 +12,6 @@
 import org.jgrapht.graph.DefaultEdge;
 
 import java.util.List;
-import java.util.stream.Stream;
 
 public class CfgBuilder extends PGBuilder<ControlFlowGraph> {
 
@@ -25,14 +24,12 @@ private ControlFlowGraph buildGraph(final MethodDeclaration method) {
         collectEdges(method);
 
         final Graph<PGNode, DefaultEdge> graph = ProgramGraph.emptyBaseGraph();
-        edges.stream()
-            .flatMap(edge -> Stream.of(edge.a(), edge.b()))
-            .forEach(graph::addVertex);
+        nodes().forEach(graph::addVertex);
         edges.forEach(edge -> graph.addEdge(edge.a(), edge.b()));
 
         final String graphName = method.name().name();
 
-        return new ControlFlowGraph(graphName, graph);
+        return new ControlFlowGraph(graphName, graph, entry, exit);
     }
 
     private void collectEdges(final MethodDeclaration method) {
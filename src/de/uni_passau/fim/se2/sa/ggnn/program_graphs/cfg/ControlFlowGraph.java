@@ -16,9 +16,13 @@ public ControlFlowGraph(String graphName, Graph<PGNode, DefaultEdge> graph) {
         super(graphName, graph);
     }
 
+    public ControlFlowGraph(String graphName, Graph<PGNode, DefaultEdge> graph, PGNode entryNode, PGNode exitNode) {
+        super(graphName, graph, entryNode, exitNode);
+    }
+
     @Override
     public ControlFlowGraph reversedEntryExitNotSwapped() {
-        return new ControlFlowGraph(graphName, new EdgeReversedGraph<>(graph));
+        return new ControlFlowGraph(graphName, new EdgeReversedGraph<>(graph), entryNode(), exitNode());
     }
 
     @Override
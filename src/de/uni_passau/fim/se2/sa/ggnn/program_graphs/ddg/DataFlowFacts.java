@@ -16,11 +16,19 @@
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * The data flow context of a method, i.e. its control flow graph and the definitions and uses of variables per node.
+ * <p>
+ * The context is built once per method and shared by all analyses on it. The graph and fact tables are not modified
+ * after construction.
+ */
 public class DataFlowFacts {
 
-    private final MethodDeclaration methodDeclaration;
     private final ControlFlowGraph cfg;
 
+    private final Set<Use> allUses;
+    private final Set<Definition> allDefinitions;
+
     private final Map<PGNode, List<Use>> uses;
     private final Map<PGNode, List<Definition>> definitions;
 
@@ -29,41 +37,51 @@ public class DataFlowFacts {
     private Optional<List<Pair<Use, Use>>> lastReads = Optional.empty();
 
     public DataFlowFacts(final MethodDeclaration method) {
-        methodDeclaration = method;
-        cfg = new CfgBuilder().build(method);
-
-        uses = collectUses(method);
-        definitions = collectDefinitions(method);
+        this(method, new CfgBuilder().build(method));
     }
 
-    private Map<PGNode, List<Use>> collectUses(final MethodDeclaration method) {
-        final var useVisitor = new UseVisitor(cfg);
-        final List<Use> uses = method.accept(useVisitor, DefUseVisitorState.emptyState());
-        return uses.stream().collect(Collectors.groupingBy(DataFlowFacts::getCfgNode));
+    /**
+     * Creates the data flow context of a method.
+     *
+     * @param method The method.
+     * @param cfg    The control flow graph of the method.
+     */
+    public DataFlowFacts(final MethodDeclaration method, final ControlFlowGraph cfg) {
+        this.cfg = cfg;
+
+        final List<Use> useList = method.accept(new UseVisitor(cfg), DefUseVisitorState.emptyState());
+        final List<Definition> definitionList = method.accept(
+            new DefinitionVisitor(cfg), DefUseVisitorState.emptyState()
+        );
+
+        allUses = Collections.unmodifiableSet(new LinkedHashSet<>(useList));
+        allDefinitions = Collections.unmodifiableSet(new LinkedHashSet<>(definitionList));
+
+        uses = groupByCfgNode(useList);
+        definitions = groupByCfgNode(definitionList);
     }
 
-    private Map<PGNode, List<Definition>> collectDefinitions(final MethodDeclaration method) {
-        final var defVisitor = new DefinitionVisitor(cfg);
-        final List<Definition> defs = method.accept(defVisitor, DefUseVisitorState.emptyState());
-        return defs.stream().collect(Collectors.groupingBy(DataFlowFacts::getCfgNode));
+    private static <T extends DataFlowFact> Map<PGNode, List<T>> groupByCfgNode(final List<T> facts) {
+        final Map<PGNode, List<T>> grouped = facts.stream().collect(Collectors.groupingBy(DataFlowFacts::getCfgNode));
+        grouped.replaceAll((node, nodeFacts) -> Collections.unmodifiableList(nodeFacts));
+        return Collections.unmodifiableMap(grouped);
     }
 
     /**
      * Gets all data flow facts of the given type.
      *
      * @param factType The type of facts.
-     * @return A set of all known data flow facts of the requested type.
+     * @return An unmodifiable set of all known data flow facts of the requested type in the order they occur in the
+     *     method.
      * @param <T> The type of facts.
      */
     @SuppressWarnings("unchecked")
     public <T extends DataFlowFact> Set<T> getFacts(final Class<T> factType) {
         if (Definition.class.equals(factType)) {
-            final var defs = definitions.values().stream().flatMap(List::stream).collect(Collectors.toSet());
-            return (Set<T>) new HashSet<>(defs);
+            return (Set<T>) allDefinitions;
         }
         else if (Use.class.equals(factType)) {
-            final var use = uses.values().stream().flatMap(List::stream).collect(Collectors.toSet());
-            return (Set<T>) new HashSet<>(use);
+            return (Set<T>) allUses;
         }
         else {
             throw new IllegalStateException("Only definitions and uses are known data flow facts.");
@@ -71,11 +89,11 @@ else if (Use.class.equals(factType)) {
     }
 
     public Map<PGNode, List<Definition>> getDefinitions() {
-        return Map.copyOf(definitions);
+        return definitions;
     }
 
     public Map<PGNode, List<Use>> getUses() {
-        return Map.copyOf(uses);
+        return uses;
     }
 
     public ControlFlowGraph getCfg() {
@@ -124,7 +142,7 @@ private Map<PGNode, Set<Definition>> getReachingDefinitions() {
             .withJoin(new JoinFunction.MayFunction<>())
             .withTransfer(new ReachingDefTransferFunction(definitions))
             .build();
-        return dataFlowAnalysis.applyAnalysis(methodDeclaration).outFacts();
+        return dataFlowAnalysis.applyAnalysis(this).outFacts();
     }
 
     private Map<PGNode, Set<Use>> getReachingUses() {
@@ -133,7 +151,7 @@ private Map<PGNode, Set<Use>> getReachingUses() {
             .withJoin(new JoinFunction.MayFunction<>())
             .withTransfer(new ReachingUseTransferFunction(uses))
             .build();
-        return dataFlowAnalysis.applyAnalysis(methodDeclaration).inFacts();
+        return dataFlowAnalysis.applyAnalysis(this).inFacts();
     }
 
     private <A extends DataFlowFact, B extends DataFlowFact> List<Pair<A, B>> computeSourceTargetPairs(
@@ -159,37 +177,34 @@ private <A extends DataFlowFact, B extends DataFlowFact> List<Pair<A, B>> comput
     }
 
     private record ReachingDefTransferFunction(Map<PGNode, List<Definition>> defs)
-        implements TransferFunction<Definition> {
+        implements GenKillTransferFunction<Definition> {
 
         @Override
-        public Set<Definition> apply(final PGNode node, final Set<Definition> inFacts) {
-            final Set<Definition> result = new HashSet<>(inFacts);
-
-            final List<Definition> nodeDefs = defs.getOrDefault(node, Collections.emptyList());
-            nodeDefs.forEach(def -> result.removeIf(r -> isSame(def, r)));
-            result.addAll(nodeDefs);
+        public List<Definition> gen(final PGNode node) {
+            return defs.getOrDefault(node, Collections.emptyList());
+        }
 
-            // inFacts without killed definitions, with new definitions
-            return result;
+        @Override
+        public boolean kills(final Definition generated, final Definition fact) {
+            return isSame(generated, fact);
         }
     }
 
-    private record ReachingUseTransferFunction(Map<PGNode, List<Use>> uses) implements TransferFunction<Use> {
+    private record ReachingUseTransferFunction(Map<PGNode, List<Use>> uses) implements GenKillTransferFunction<Use> {
 
         @Override
-        public Set<Use> apply(final PGNode node, final Set<Use> inFacts) {
-            final Set<Use> result = new HashSet<>(inFacts);
-
-            final List<Use> nodeUses = uses.getOrDefault(node, Collections.emptyList());
-            nodeUses.forEach(use -> result.removeIf(r -> r.name().equals(use.name())));
-            result.addAll(nodeUses);
+        public List<Use> gen(final PGNode node) {
+            return uses.getOrDefault(node, Collections.emptyList());
+        }
 
-            return result;
+        @Override
+        public boolean kills(final Use generated, final Use fact) {
+            return fact.name().equals(generated.name());
         }
     }
 
     private static boolean isSame(final DataFlowFact fact1, final DataFlowFact fact2) {
-        return isIdenticalScope(fact1, fact2) && fact1.name().equals(fact2.name());
+        return fact1.name().equals(fact2.name()) && isIdenticalScope(fact1, fact2);
     }
 
     private static boolean isIdenticalScope(final DataFlowFact flowFact1, final DataFlowFact flowFact2) {
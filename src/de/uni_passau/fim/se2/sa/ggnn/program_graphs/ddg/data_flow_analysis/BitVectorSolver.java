@@ -0,0 +1,255 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.data_flow_analysis;
+
+import com.google.common.base.Preconditions;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.PGNode;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg.ControlFlowGraph;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFact;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Solves data flow analyses with {@link GenKillTransferFunction}s on bit vectors.
+ * <p>
+ * Each known fact is assigned a dense index. The in and out sets of the nodes, and the gen and kill masks, are stored
+ * as {@code long} words in flat arrays. The nodes are processed in the same {@link WorkList} order as by the set-based
+ * solver, so both compute the same facts.
+ *
+ * @param <T> The type of the data flow facts.
+ */
+final class BitVectorSolver<T extends DataFlowFact> {
+
+    private final List<T> facts;
+
+    private final Map<T, Integer> factIndices;
+
+    private final int words;
+
+    /**
+     * Creates a new solver.
+     *
+     * @param facts All facts that may occur in the analysis. Equal facts are represented by their first occurrence.
+     */
+    BitVectorSolver(final Collection<T> facts) {
+        this.facts = new ArrayList<>(facts.size());
+        this.factIndices = new HashMap<>(facts.size() * 2);
+        for (final T fact : facts) {
+            if (factIndices.putIfAbsent(fact, this.facts.size()) == null) {
+                this.facts.add(fact);
+            }
+        }
+        this.words = Math.max(1, (this.facts.size() + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Runs the analysis.
+     *
+     * @param cfg           The control flow graph of the method.
+     * @param flowDirection The direction the facts flow in.
+     * @param transfer      The transfer function.
+     * @param may           True for a may analysis (union join, starting from all facts), false for a must analysis
+     *                      (intersection join, starting from no facts).
+     * @return The in and out facts of all nodes of the graph.
+     */
+    DataFlowAnalysis.Facts<T> solve(
+        final ControlFlowGraph cfg, final FlowDirection<ControlFlowGraph> flowDirection,
+        final GenKillTransferFunction<T> transfer, final boolean may
+    ) {
+        final List<PGNode> nodes = new ArrayList<>(cfg.getVertices());
+        final Map<PGNode, Integer> nodeIndices = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); ++i) {
+            nodeIndices.put(nodes.get(i), i);
+        }
+
+        final int[][] inNodes = new int[nodes.size()][];
+        final int[][] outNodes = new int[nodes.size()][];
+        final long[] gen = new long[nodes.size() * words];
+        final long[] kill = new long[nodes.size() * words];
+        for (int i = 0; i < nodes.size(); ++i) {
+            final PGNode node = nodes.get(i);
+            inNodes[i] = toIndices(flowDirection.getInNodes(cfg, node), nodeIndices);
+            outNodes[i] = toIndices(flowDirection.getOutNodes(cfg, node), nodeIndices);
+            initGenKill(transfer, node, i * words, gen, kill);
+        }
+
+        final long[] in = new long[nodes.size() * words];
+        if (may) {
+            for (int i = 0; i < nodes.size(); ++i) {
+                setAll(in, i * words);
+            }
+        }
+        final long[] out = in.clone();
+
+        final long[] newOut = new long[words];
+        final int[] initialNodes = toIndices(flowDirection.getInitialNodes(cfg), nodeIndices);
+        final WorkList workList = new WorkList(outNodes, initialNodes);
+        for (final int node : initialNodes) {
+            workList.add(node);
+        }
+
+        int transfers = 0;
+        while (!workList.isEmpty()) {
+            final int node = workList.poll();
+            final int offset = node * words;
+            ++transfers;
+
+            join(out, inNodes[node], may, in, offset);
+            for (int w = 0; w < words; ++w) {
+                newOut[w] = (in[offset + w] & ~kill[offset + w]) | gen[offset + w];
+            }
+
+            if (!Arrays.equals(out, offset, offset + words, newOut, 0, words)) {
+                System.arraycopy(newOut, 0, out, offset, words);
+                for (final int next : outNodes[node]) {
+                    workList.add(next);
+                }
+            }
+        }
+
+        final Map<PGNode, Set<T>> inFacts = new HashMap<>(nodes.size() * 2);
+        final Map<PGNode, Set<T>> outFacts = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); ++i) {
+            inFacts.put(nodes.get(i), new FactSet(in, i * words));
+            outFacts.put(nodes.get(i), new FactSet(out, i * words));
+        }
+        return new DataFlowAnalysis.Facts<>(inFacts, outFacts, transfers);
+    }
+
+    private static int[] toIndices(final Set<PGNode> nodes, final Map<PGNode, Integer> nodeIndices) {
+        return nodes.stream().mapToInt(nodeIndices::get).toArray();
+    }
+
+    private void initGenKill(
+        final GenKillTransferFunction<T> transfer, final PGNode node, final int offset, final long[] gen,
+        final long[] kill
+    ) {
+        for (final T generated : transfer.gen(node)) {
+            final Integer index = factIndices.get(generated);
+            Preconditions.checkState(index != null, "Generated fact %s is not a known fact.", generated);
+            set(gen, offset, index);
+
+            for (int i = 0; i < facts.size(); ++i) {
+                if (transfer.kills(generated, facts.get(i))) {
+                    set(kill, offset, i);
+                }
+            }
+        }
+    }
+
+    private void join(final long[] out, final int[] inNodes, final boolean may, final long[] in, final int offset) {
+        if (inNodes.length == 0) {
+            Arrays.fill(in, offset, offset + words, 0L);
+            return;
+        }
+
+        System.arraycopy(out, inNodes[0] * words, in, offset, words);
+        for (int n = 1; n < inNodes.length; ++n) {
+            final int inOffset = inNodes[n] * words;
+            for (int w = 0; w < words; ++w) {
+                if (may) {
+                    in[offset + w] |= out[inOffset + w];
+                }
+                else {
+                    in[offset + w] &= out[inOffset + w];
+                }
+            }
+        }
+    }
+
+    private void setAll(final long[] bits, final int offset) {
+        Arrays.fill(bits, offset, offset + words, -1L);
+        final int remainder = facts.size() % Long.SIZE;
+        if (remainder != 0) {
+            bits[offset + words - 1] = (1L << remainder) - 1;
+        }
+        else if (facts.isEmpty()) {
+            bits[offset] = 0L;
+        }
+    }
+
+    private static void set(final long[] bits, final int offset, final int index) {
+        bits[offset + index / Long.SIZE] |= 1L << index;
+    }
+
+    private static boolean get(final long[] bits, final int offset, final int index) {
+        return (bits[offset + index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Read-only view on the facts of one node.
+     */
+    private final class FactSet extends AbstractSet<T> {
+
+        private final long[] bits;
+
+        private final int offset;
+
+        private FactSet(final long[] bits, final int offset) {
+            this.bits = bits;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            final Integer index = factIndices.get(o);
+            return index != null && get(bits, offset, index);
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int w = 0; w < words; ++w) {
+                size += Long.bitCount(bits[offset + w]);
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int next = nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public T next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    final T fact = facts.get(next);
+                    next = nextSetBit(next + 1);
+                    return fact;
+                }
+            };
+        }
+
+        private int nextSetBit(final int from) {
+            int i = from;
+            while (i < facts.size()) {
+                final int word = i / Long.SIZE;
+                final long bitsFrom = bits[offset + word] & (-1L << i);
+                if (bitsFrom != 0) {
+                    final int index = word * Long.SIZE + Long.numberOfTrailingZeros(bitsFrom);
+                    return index < facts.size() ? index : -1;
+                }
+                i = (word + 1) * Long.SIZE;
+            }
+            return -1;
+        }
+    }
+}
@@ -31,34 +31,97 @@ public DataFlowAnalysis(
         this.factType = factType;
     }
 
+    /**
+     * Runs the analysis on a method.
+     * <p>
+     * Builds the control flow graph and fact tables of the method. Use {@link #applyAnalysis(DataFlowFacts)} if they are
+     * already available.
+     *
+     * @param methodDeclaration Some method.
+     * @return The in and out facts of all nodes of the control flow graph of the method.
+     */
     public Facts<T> applyAnalysis(final MethodDeclaration methodDeclaration) {
         final DataFlowFacts dataFlowFacts = new DataFlowFacts(methodDeclaration);
         return applyAnalysis(dataFlowFacts);
     }
 
-    public record Facts<T>(Map<PGNode, Set<T>> inFacts, Map<PGNode, Set<T>> outFacts) {
+    /**
+     * Runs the analysis on the prebuilt data flow context of a method.
+     *
+     * @param facts The control flow graph and fact tables of the method.
+     * @return The in and out facts of all nodes of the control flow graph.
+     */
+    public Facts<T> applyAnalysis(final DataFlowFacts facts) {
+        return applyAnalysis(facts.getCfg(), facts.getFacts(factType));
     }
 
-    private Facts<T> applyAnalysis(final DataFlowFacts facts) {
-        final Map<PGNode, Set<T>> dataFlowFacts = initFacts(facts);
+    /**
+     * The result of an analysis.
+     *
+     * @param inFacts   The facts flowing into each node.
+     * @param outFacts  The facts flowing out of each node.
+     * @param transfers The number of times the transfer function was applied until the facts stabilised.
+     * @param <T>       The type of the data flow facts.
+     */
+    public record Facts<T>(Map<PGNode, Set<T>> inFacts, Map<PGNode, Set<T>> outFacts, int transfers) {
+    }
+
+    /**
+     * Runs the analysis on a control flow graph.
+     *
+     * @param cfg      Some control flow graph.
+     * @param allFacts All facts that may occur in the graph, in a stable order.
+     * @return The in and out facts of all nodes of the graph.
+     */
+    public Facts<T> applyAnalysis(final ControlFlowGraph cfg, final Set<T> allFacts) {
+        if (transferFunction instanceof GenKillTransferFunction<T> genKillTransfer && isBitVectorJoin()) {
+            return new BitVectorSolver<>(allFacts).solve(
+                cfg, flowDirection, genKillTransfer, joinFunction instanceof JoinFunction.MayFunction<T>
+            );
+        }
+
+        final List<PGNode> nodes = new ArrayList<>(cfg.getVertices());
+        final Map<PGNode, Integer> nodeIndices = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); ++i) {
+            nodeIndices.put(nodes.get(i), i);
+        }
+        final int[][] outNodes = new int[nodes.size()][];
+        for (int i = 0; i < nodes.size(); ++i) {
+            outNodes[i] = flowDirection.getOutNodes(cfg, nodes.get(i)).stream().mapToInt(nodeIndices::get).toArray();
+        }
+
+        final Map<PGNode, Set<T>> dataFlowFacts = initFacts(cfg, allFacts);
         final Map<PGNode, Set<T>> outFacts = new HashMap<>(dataFlowFacts);
-        final Deque<PGNode> workList = new ArrayDeque<>(flowDirection.getInitialNodes(facts.getCfg()));
+        final int[] initialNodes = flowDirection.getInitialNodes(cfg).stream().mapToInt(nodeIndices::get).toArray();
+        final WorkList workList = new WorkList(outNodes, initialNodes);
+        for (final int node : initialNodes) {
+            workList.add(node);
+        }
 
+        int transfers = 0;
         while (!workList.isEmpty()) {
-            final PGNode node = workList.poll();
+            final int nodeIndex = workList.poll();
+            final PGNode node = nodes.get(nodeIndex);
 
             final Set<T> lastOut = outFacts.get(node);
-            final Set<T> inFacts = inFacts(outFacts, facts.getCfg(), node);
+            final Set<T> inFacts = inFacts(outFacts, cfg, node);
             dataFlowFacts.put(node, inFacts);
             final Set<T> newOut = transferFunction.apply(node, inFacts);
+            ++transfers;
 
             if (!lastOut.equals(newOut)) {
                 outFacts.put(node, newOut);
-                workList.addAll(flowDirection.getOutNodes(facts.getCfg(), node));
+                for (final int next : outNodes[nodeIndex]) {
+                    workList.add(next);
+                }
             }
         }
 
-        return new Facts<>(dataFlowFacts, outFacts);
+        return new Facts<>(dataFlowFacts, outFacts, transfers);
+    }
+
+    private boolean isBitVectorJoin() {
+        return joinFunction instanceof JoinFunction.MayFunction<T> || joinFunction instanceof JoinFunction.MustFunction<T>;
     }
 
     private Set<T> inFacts(final Map<PGNode, Set<T>> outFacts, final ControlFlowGraph cfg, final PGNode node) {
@@ -67,14 +130,11 @@ private Set<T> inFacts(final Map<PGNode, Set<T>> outFacts, final ControlFlowGrap
         return joinFunction.apply(facts);
     }
 
-    private Map<PGNode, Set<T>> initFacts(final DataFlowFacts dataFlowFacts) {
-        final ControlFlowGraph cfg = dataFlowFacts.getCfg();
-
+    private Map<PGNode, Set<T>> initFacts(final ControlFlowGraph cfg, final Set<T> allFacts) {
         final Map<PGNode, Set<T>> facts = new HashMap<>();
 
         if (joinFunction instanceof JoinFunction.MayFunction<T>) {
-            final Set<T> getAll = dataFlowFacts.getFacts(factType);
-            cfg.getVertices().forEach(node -> facts.put(node, new HashSet<>(getAll)));
+            cfg.getVertices().forEach(node -> facts.put(node, new HashSet<>(allFacts)));
         }
         else {
             assert joinFunction instanceof JoinFunction.MustFunction;
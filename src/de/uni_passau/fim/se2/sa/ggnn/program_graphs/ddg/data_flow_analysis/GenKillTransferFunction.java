@@ -0,0 +1,51 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.data_flow_analysis;
+
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.PGNode;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFact;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A transfer function of the form {@code out = gen(node) ∪ (in \ kill(node))}.
+ * <p>
+ * The killed facts of a node are all facts that are killed by at least one of the facts generated at the node. As
+ * neither part depends on the incoming facts, analyses with such transfer functions are solved on bit vectors.
+ *
+ * @param <T> The type of the data flow facts.
+ */
+public interface GenKillTransferFunction<T extends DataFlowFact> extends TransferFunction<T> {
+
+    /**
+     * Gets the facts generated at a node.
+     *
+     * @param node Some node of the control flow graph.
+     * @return The generated facts.
+     */
+    List<T> gen(PGNode node);
+
+    /**
+     * Checks if a generated fact kills another fact.
+     *
+     * @param generated A fact generated at some node.
+     * @param fact      Some incoming fact of the node.
+     * @return True, if {@code fact} does not pass the node generating {@code generated}.
+     */
+    boolean kills(T generated, T fact);
+
+    @Override
+    default Set<T> apply(final PGNode node, final Set<T> inFacts) {
+        final Set<T> result = new HashSet<>(inFacts);
+
+        final List<T> generated = gen(node);
+        generated.forEach(g -> result.removeIf(r -> kills(g, r)));
+        result.addAll(generated);
+
+        return result;
+    }
+}
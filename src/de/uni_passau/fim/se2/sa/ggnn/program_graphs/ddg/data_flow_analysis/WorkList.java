@@ -0,0 +1,131 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.data_flow_analysis;
+
+/**
+ * Worklist of the data flow solvers that always yields the queued node that comes first in reverse postorder.
+ * <p>
+ * The order is computed by a depth-first search along the flow direction starting at the initial nodes, i.e. it is
+ * the reverse postorder of the control flow graph for forward and the reverse postorder of the reversed graph for
+ * backward analyses. Processing the nodes in this order visits all in-nodes of a node before the node itself, except
+ * for back edges. The queued nodes are kept as a bitmap over their position in this order, so each node is queued at
+ * most once.
+ */
+final class WorkList {
+
+    private final int[] rank;
+
+    private final int[] nodeAtRank;
+
+    private final long[] queued;
+
+    /**
+     * Position of the word in {@link #queued} below which no node is queued.
+     */
+    private int lowestWord;
+
+    /**
+     * Creates a new empty worklist.
+     *
+     * @param outNodes     The indices of the out-nodes of each node along the flow direction.
+     * @param initialNodes The indices of the nodes the analysis starts at.
+     */
+    WorkList(final int[][] outNodes, final int[] initialNodes) {
+        final int nodeCount = outNodes.length;
+        this.rank = new int[nodeCount];
+        this.nodeAtRank = new int[nodeCount];
+        this.queued = new long[(nodeCount + Long.SIZE - 1) / Long.SIZE];
+        this.lowestWord = queued.length;
+
+        computeReversePostorder(outNodes, initialNodes);
+    }
+
+    /**
+     * Numbers the nodes in reverse postorder using an iterative depth-first search.
+     * <p>
+     * Nodes that cannot be reached from the initial nodes are placed after all reachable ones.
+     */
+    private void computeReversePostorder(final int[][] outNodes, final int[] initialNodes) {
+        final int nodeCount = outNodes.length;
+        final boolean[] visited = new boolean[nodeCount];
+        final int[] stack = new int[nodeCount];
+        final int[] nextChild = new int[nodeCount];
+        final int[] postorder = new int[nodeCount];
+        int finished = 0;
+
+        for (final int start : initialNodes) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            int depth = 0;
+            stack[0] = start;
+
+            while (depth >= 0) {
+                final int node = stack[depth];
+                if (nextChild[node] < outNodes[node].length) {
+                    final int child = outNodes[node][nextChild[node]++];
+                    if (!visited[child]) {
+                        visited[child] = true;
+                        stack[++depth] = child;
+                    }
+                }
+                else {
+                    postorder[finished++] = node;
+                    --depth;
+                }
+            }
+        }
+
+        final int reachable = finished;
+        for (int i = 0; i < reachable; ++i) {
+            final int node = postorder[reachable - 1 - i];
+            rank[node] = i;
+            nodeAtRank[i] = node;
+        }
+        int next = reachable;
+        for (int node = 0; node < nodeCount; ++node) {
+            if (!visited[node]) {
+                rank[node] = next;
+                nodeAtRank[next++] = node;
+            }
+        }
+    }
+
+    /**
+     * Queues a node unless it is already queued.
+     *
+     * @param node The index of the node.
+     */
+    void add(final int node) {
+        final int position = rank[node];
+        final int word = position / Long.SIZE;
+        queued[word] |= 1L << position;
+        lowestWord = Math.min(lowestWord, word);
+    }
+
+    boolean isEmpty() {
+        while (lowestWord < queued.length && queued[lowestWord] == 0) {
+            ++lowestWord;
+        }
+        return lowestWord == queued.length;
+    }
+
+    /**
+     * Removes the queued node that comes first in reverse postorder.
+     *
+     * @return The index of the node.
+     * @throws IllegalStateException if no node is queued.
+     */
+    int poll() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The worklist is empty.");
+        }
+        final long bits = queued[lowestWord];
+        final int position = lowestWord * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        queued[lowestWord] = bits & (bits - 1);
+        return nodeAtRank[position];
+    }
+}
@@ -0,0 +1,159 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import com.google.common.hash.Hashing;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps bare clones of remote repositories in a directory, so that they are cloned only once across mining runs.
+ * <p>
+ * A cached clone is only fetched again if it lacks the commits that should be mined. If it is unknown which of the
+ * commits belong to the repository, a clone is only fetched if it contains none of them. Clones are created in a
+ * temporary directory first, so that an interrupted clone never ends up in the cache.
+ * <p>
+ * Thread-safe.
+ */
+public class CloneCache {
+
+    private static final RefSpec ALL_BRANCHES = new RefSpec("+refs/heads/*:refs/heads/*");
+
+    private final Path directory;
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public CloneCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets an up-to-date local clone of the repository.
+     *
+     * @param url     The URL of some remote repository.
+     * @param commits The commits the clone has to contain.
+     * @return The directory of the bare clone.
+     * @throws IOException     Thrown if the cache directory cannot be accessed.
+     * @throws GitAPIException Thrown if cloning or fetching the repository fails.
+     */
+    public Path get(String url, Collection<String> commits) throws IOException, GitAPIException {
+        return get(url, commits, true);
+    }
+
+    /**
+     * Gets a local clone of the repository that contains at least one of the commits.
+     * <p>
+     * Used if the commits are spread across several repositories, so that a clone never contains all of them. A cached
+     * clone that contains some of the commits is therefore not fetched again, even if commits that were pushed to the
+     * repository since the clone was fetched are requested as well. These commits are missing until the clone is
+     * removed from the cache or they are mined in a run of their repository alone.
+     *
+     * @param url     The URL of some remote repository.
+     * @param commits The commits of this and other repositories.
+     * @return The directory of the bare clone.
+     * @throws IOException     Thrown if the cache directory cannot be accessed.
+     * @throws GitAPIException Thrown if cloning or fetching the repository fails.
+     */
+    public Path getContainingAny(String url, Collection<String> commits) throws IOException, GitAPIException {
+        return get(url, commits, false);
+    }
+
+    private Path get(String url, Collection<String> commits, boolean containsAll)
+            throws IOException, GitAPIException {
+        Path clone = directory.resolve(cloneName(url));
+        synchronized (locks.computeIfAbsent(url, u -> new Object())) {
+            if (Files.isDirectory(clone)) {
+                update(clone, commits, containsAll);
+            } else {
+                create(url, clone);
+            }
+        }
+        return clone;
+    }
+
+    /**
+     * Determines the directory name of the clone of a repository.
+     *
+     * @param url The URL of some remote repository.
+     * @return The directory name.
+     */
+    static String cloneName(String url) {
+        return repositoryName(url) + ".git";
+    }
+
+    /**
+     * Determines a unique name of a repository.
+     * <p>
+     * Consists of the repository name for readability and a hash of the full location to tell apart forks.
+     *
+     * @param location The URL or the directory of some repository.
+     * @return The name of the repository.
+     */
+    static String repositoryName(String location) {
+        String name = location;
+        while (name.endsWith("/")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        name = name.substring(name.lastIndexOf('/') + 1).replaceAll("(\\.git)?$", "").replaceAll("[^\\w.-]", "_");
+        String hash = Hashing.sha256().hashString(location, StandardCharsets.UTF_8).toString().substring(0, 16);
+        return name + "-" + hash;
+    }
+
+    private void update(Path clone, Collection<String> commits, boolean containsAll)
+            throws IOException, GitAPIException {
+        try (Git git = Git.open(clone.toFile())) {
+            Repository repository = git.getRepository();
+            boolean upToDate = containsAll
+                    ? commits.stream().allMatch(c -> contains(repository, c))
+                    : commits.stream().anyMatch(c -> contains(repository, c));
+            if (!upToDate) {
+                git.fetch().setRefSpecs(ALL_BRANCHES).setTagOpt(TagOpt.FETCH_TAGS).call();
+            }
+        }
+    }
+
+    private static boolean contains(Repository repository, String commit) {
+        return ObjectId.isId(commit) && repository.hasObject(ObjectId.fromString(commit));
+    }
+
+    private void create(String url, Path clone) throws IOException, GitAPIException {
+        Files.createDirectories(directory);
+        Path temporaryClone = Files.createTempDirectory(directory, clone.getFileName() + ".tmp");
+        try {
+            Git.cloneRepository()
+                    .setURI(url)
+                    .setDirectory(temporaryClone.toFile())
+                    .setBare(true)
+                    .setCloneAllBranches(true)
+                    .call()
+                    .close();
+            Files.move(temporaryClone, clone, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteRecursively(temporaryClone);
+        }
+    }
+
+    static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
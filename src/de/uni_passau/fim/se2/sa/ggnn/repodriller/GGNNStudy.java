@@ -3,38 +3,215 @@
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.repodriller.RepositoryMining;
 import org.repodriller.Study;
-import org.repodriller.domain.Developer;
 import org.repodriller.filter.range.Commits;
-import org.repodriller.persistence.csv.CSVFile;
-import org.repodriller.scm.CommitVisitor;
+import org.repodriller.persistence.PersistenceMechanism;
 import org.repodriller.scm.GitRemoteRepository;
+import org.repodriller.scm.GitRepository;
+import org.repodriller.scm.SCMRepository;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Mines the Java files of the given commits from several repositories.
+ * <p>
+ * Repositories are either local clones, which may be bare, or remote URLs. Remote repositories are cloned into the
+ * clone cache if one is given, otherwise into a fresh temporary directory. With several threads, repositories are
+ * mined in parallel and the remaining threads are used to process the commits of each repository concurrently.
+ * <p>
+ * The Java files are either extracted from the RepoDriller modifications or, with the {@link MiningEngine#JGIT}
+ * engine, directly from the commit trees without computing any diffs. The writer stores them at
+ * {@code <repository>-<hash>/<commit>/<path>} in its output directory, where the hash tells apart repositories of the
+ * same name. With a {@link GGNNWriter}, only the GGNN graphs of the files are stored.
+ */
 public class GGNNStudy implements Study {
 
     private final List<String> repos;
     private final List<String> commits;
-    private final Path outputDirectory;
+    private final JavaWriter writer;
+    private final CloneCache cloneCache;
+    private final int threads;
+    private final MiningEngine engine;
 
     public GGNNStudy(List<String> repos, List<String> commits, Path outputDirectory) {
-        this.repos = repos;
-        this.commits = commits;
-        this.outputDirectory = outputDirectory;
+        this(repos, commits, new JavaWriter(outputDirectory), null, 1, MiningEngine.REPODRILLER);
+    }
+
+    /**
+     * Creates a study that reuses clones and mines in parallel.
+     *
+     * @param repos           Local repository directories or remote repository URLs.
+     * @param commits         The commits that should be mined.
+     * @param writer          The writer the Java files are passed to. Closed once all repositories are mined, or
+     *                        once mining failed.
+     * @param cloneCache      The directory the clones of remote repositories are kept in, or {@code null} to clone
+     *                        them into a temporary directory on every run.
+     * @param threads         The number of threads used for mining.
+     * @param engine          The way the Java files are extracted from the commits.
+     */
+    public GGNNStudy(List<String> repos, List<String> commits, JavaWriter writer, Path cloneCache, int threads,
+                     MiningEngine engine) {
+        this.repos = repos.stream().distinct().toList();
+        this.commits = commits.stream().distinct().toList();
+        this.writer = writer;
+        this.cloneCache = cloneCache == null ? null : new CloneCache(cloneCache);
+        this.threads = threads;
+        this.engine = engine;
     }
 
     @Override
     public void execute() {
+        int repositoryThreads = Math.max(1, Math.min(threads, repos.size()));
+        int commitThreads = Math.max(1, threads / repositoryThreads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(repositoryThreads);
+        RuntimeException failure = null;
+        try {
+            mineRepositories(executor, commitThreads);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            stop(executor);
+            closeWriter(failure);
+        }
+    }
+
+    private void mineRepositories(ExecutorService executor, int commitThreads) {
+        try {
+            List<Future<?>> minings = new ArrayList<>();
+            for (String repo : repos) {
+                minings.add(executor.submit(() -> {
+                    mine(repo, writer.forRepository(getRepositoryName(repo)), commitThreads);
+                    return null;
+                }));
+            }
+            for (Future<?> mining : minings) {
+                mining.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error during repository mining: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Repository mining was interrupted.", e);
+        }
+    }
+
+    /**
+     * Stops the mining of the remaining repositories and waits until no mining thread passes files to the writer.
+     */
+    private static void stop(ExecutorService executor) {
+        executor.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes the writer, so that the files passed to it so far are written even if mining failed.
+     *
+     * @param failure The exception mining failed with, to which a failure to close is added, or {@code null}.
+     */
+    private void closeWriter(RuntimeException failure) {
+        try {
+            writer.close();
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void mine(String repo, PersistenceMechanism writer, int commitThreads) throws GitAPIException, IOException {
+        if (engine == MiningEngine.JGIT) {
+            extract(repo, writer, commitThreads);
+            return;
+        }
+
+        RepositoryMining mining = new RepositoryMining()
+                .in(getRepository(repo))
+                .through(Commits.list(commits))
+                .process(new JavaVisitor(), writer);
+        if (commitThreads > 1) {
+            mining.withThreads(commitThreads).visitorsAreThreadSafe(true);
+        }
+        mining.mine();
+    }
+
+    private void extract(String repo, PersistenceMechanism writer, int commitThreads)
+            throws GitAPIException, IOException {
+        JavaBlobExtractor extractor = new JavaBlobExtractor(commits, commitThreads);
+        if (isLocalDirectory(repo)) {
+            extractor.extract(Path.of(repo), writer);
+        } else if (cloneCache != null) {
+            extractor.extract(getCachedClone(cloneCache, repo), writer);
+        } else {
+            Path temporaryCache = Files.createTempDirectory("ggnn-mining");
+            try {
+                extractor.extract(getCachedClone(new CloneCache(temporaryCache), repo), writer);
+            } finally {
+                CloneCache.deleteRecursively(temporaryCache);
+            }
+        }
+    }
+
+    private SCMRepository getRepository(String repo) throws GitAPIException, IOException {
+        if (isLocalDirectory(repo)) {
+            return GitRepository.singleProject(repo);
+        } else if (cloneCache != null) {
+            return GitRepository.singleProject(getCachedClone(cloneCache, repo).toString());
+        } else {
+            return GitRemoteRepository.singleProject(repo);
+        }
+    }
+
+    /**
+     * Gets the clone of a remote repository.
+     * <p>
+     * The commits are not assigned to repositories. Therefore, a clone is only required to contain all commits if a
+     * single repository is mined.
+     */
+    private Path getCachedClone(CloneCache cache, String repo) throws GitAPIException, IOException {
+        if (repos.size() == 1) {
+            return cache.get(repo, commits);
+        } else {
+            return cache.getContainingAny(repo, commits);
+        }
+    }
+
+    private static String getRepositoryName(String repo) {
+        if (isLocalDirectory(repo)) {
+            return CloneCache.repositoryName(Path.of(repo).toAbsolutePath().normalize().toString());
+        } else {
+            return CloneCache.repositoryName(repo);
+        }
+    }
+
+    private static boolean isLocalDirectory(String repo) {
         try {
-            new RepositoryMining()
-                    .in(GitRemoteRepository.allProjectsIn(repos))
-                    .through(Commits.list(commits))
-                    .process(new JavaVisitor(), new JavaWriter(outputDirectory))
-                    .mine();
-        } catch (GitAPIException | IOException e) {
-            throw new RuntimeException("Error during repository mining: " + e.getMessage(), e);
+            return Files.isDirectory(Path.of(repo));
+        } catch (InvalidPathException e) {
+            return false;
         }
     }
-}
\ No newline at end of file
+}
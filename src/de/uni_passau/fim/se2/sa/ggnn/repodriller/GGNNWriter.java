@@ -0,0 +1,94 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import com.google.common.io.Files;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.BatchedFileWriter;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.CommonPreprocessorOptions;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingPath;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNOutputFormat;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNPreprocessor;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Iterator;
+
+/**
+ * Builds the GGNN graphs of the mined Java files instead of writing the files themselves.
+ * <p>
+ * Each mined file is handed to a {@link GGNNPreprocessor} by one of the worker threads, and only the resulting JSONL
+ * is written. The output directory looks exactly like running the {@code ggnn} preprocessor on the output of a plain
+ * mining run: the graphs of a file are stored at its path with the extension {@code .jsonl}. The mining threads only
+ * block if all workers are busy and their bounded queue is full, the graphs are written by a
+ * {@link BatchedFileWriter}.
+ * <p>
+ * Like for the files, it depends on the scheduling of the worker threads which of several files with the same method
+ * contains its graph if duplicate methods are skipped. The method hashes are added to the persistent set only once
+ * all graphs were written.
+ * <p>
+ * Thread-safe.
+ */
+public class GGNNWriter extends JavaWriter {
+
+    private static final String EXTENSION = "." + GGNNOutputFormat.JSONL.fileExtension();
+
+    private final GGNNPreprocessor preprocessor;
+    private final BatchedFileWriter output = new BatchedFileWriter();
+
+    public GGNNWriter(Path directory, int threads) {
+        this(directory, threads, ContentHashSet.inMemory(), null);
+    }
+
+    /**
+     * Creates a writer that skips the files and methods that were already processed.
+     *
+     * @param directory       The output directory of the graphs.
+     * @param threads         The number of worker threads that build graphs.
+     * @param writtenContents The hashes of the file contents processed so far, to which new contents are added when
+     *                        the writer is closed.
+     * @param emittedMethods  The hashes of the methods whose graphs were written so far, to which new methods are
+     *                        added when the writer is closed, or {@code null} to write the graphs of all methods of
+     *                        new file contents.
+     */
+    public GGNNWriter(
+            Path directory, int threads, ContentHashSet writtenContents, ContentHashSet emittedMethods
+    ) {
+        super(directory, threads, writtenContents);
+        this.preprocessor = new GGNNPreprocessor(
+                new CommonPreprocessorOptions(ProcessingPath.console(), ProcessingPath.directory(directory)),
+                false, GGNNOutputFormat.JSONL, EnumSet.allOf(GGNNEdgeType.class), null, emittedMethods
+        );
+    }
+
+    @Override
+    protected void store(Path filePath, String content) throws IOException {
+        Path outputFile = getOutputFile(filePath);
+        Iterator<String> graphs = preprocessor.processCompilationUnit(content).iterator();
+        while (graphs.hasNext()) {
+            String graph = graphs.next();
+            synchronized (output) {
+                output.writeLine(outputFile, graph);
+            }
+        }
+    }
+
+    private static Path getOutputFile(Path filePath) {
+        return filePath.resolveSibling(Files.getNameWithoutExtension(filePath.toString()) + EXTENSION);
+    }
+
+    @Override
+    protected void onClose() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void commit() {
+        super.commit();
+        preprocessor.commitEmittedMethods();
+    }
+}
@@ -0,0 +1,150 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.OrTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.repodriller.domain.ModificationType;
+import org.repodriller.persistence.PersistenceMechanism;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts the Java files that were added or modified by commits directly from the commit trees.
+ * <p>
+ * In contrast to the RepoDriller modifications, no diffs are computed: the tree of each commit is walked together with
+ * the tree of its first parent, and only entries with a Java file extension whose blob differs are read. Deleted files
+ * are skipped, as they have no source code after the commit. The files are passed to the writer in the same format as
+ * by the {@link JavaVisitor}. Commits that are not contained in the repository are skipped.
+ */
+public class JavaBlobExtractor {
+
+    private static final TreeFilter JAVA_FILES = AndTreeFilter.create(
+            OrTreeFilter.create(PathSuffixFilter.create(".java"), PathSuffixFilter.create(".javax")),
+            TreeFilter.ANY_DIFF
+    );
+
+    private final List<String> commits;
+    private final int threads;
+
+    /**
+     * Creates an extractor.
+     *
+     * @param commits The commits whose Java files should be extracted.
+     * @param threads The number of commits that are processed concurrently.
+     */
+    public JavaBlobExtractor(List<String> commits, int threads) {
+        this.commits = commits;
+        this.threads = threads;
+    }
+
+    /**
+     * Extracts the Java files of all commits from a local repository.
+     *
+     * @param repository The directory of a bare or non-bare clone.
+     * @param writer     The writer the Java files are passed to. Has to be thread-safe if several threads are used.
+     * @throws IOException Thrown if the repository cannot be read.
+     */
+    public void extract(Path repository, PersistenceMechanism writer) throws IOException {
+        try (Git git = Git.open(repository.toFile())) {
+            Repository repo = git.getRepository();
+            if (threads <= 1) {
+                for (String commit : commits) {
+                    extract(repo, commit, writer);
+                }
+            } else {
+                extractConcurrently(repo, writer);
+            }
+        }
+    }
+
+    private void extractConcurrently(Repository repo, PersistenceMechanism writer) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, commits.size())));
+        try {
+            List<Future<?>> extractions = new ArrayList<>();
+            for (String commit : commits) {
+                extractions.add(executor.submit(() -> {
+                    extract(repo, commit, writer);
+                    return null;
+                }));
+            }
+            for (Future<?> extraction : extractions) {
+                extraction.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Extraction was interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void extract(Repository repo, String commit, PersistenceMechanism writer) throws IOException {
+        try (ObjectReader reader = repo.newObjectReader();
+             RevWalk revWalk = new RevWalk(reader);
+             TreeWalk treeWalk = new TreeWalk(reader)) {
+            ObjectId id = repo.resolve(commit);
+            if (id == null) {
+                return;
+            }
+            RevCommit revCommit;
+            try {
+                revCommit = revWalk.parseCommit(id);
+            } catch (MissingObjectException e) {
+                return;
+            }
+
+            if (revCommit.getParentCount() > 0) {
+                treeWalk.addTree(revWalk.parseCommit(revCommit.getParent(0)).getTree());
+            } else {
+                treeWalk.addTree(new EmptyTreeIterator());
+            }
+            treeWalk.addTree(revCommit.getTree());
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(JAVA_FILES);
+
+            while (treeWalk.next()) {
+                ObjectId blob = treeWalk.getObjectId(1);
+                if (ObjectId.zeroId().equals(blob)) {
+                    continue;
+                }
+                ModificationType type = ObjectId.zeroId().equals(treeWalk.getObjectId(0))
+                        ? ModificationType.ADD
+                        : ModificationType.MODIFY;
+                byte[] content = reader.open(blob, Constants.OBJ_BLOB).getCachedBytes(Integer.MAX_VALUE);
+
+                writer.write(
+                        revCommit.getName(),
+                        treeWalk.getPathString(),
+                        new String(content, StandardCharsets.UTF_8),
+                        type,
+                        revCommit.getAuthorIdent().getName(),
+                        revCommit.getCommitterIdent().getName()
+                );
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@
 
 import org.repodriller.domain.Commit;
 import org.repodriller.domain.Modification;
+import org.repodriller.domain.ModificationType;
 import org.repodriller.persistence.PersistenceMechanism;
 import org.repodriller.scm.CommitVisitor;
 import org.repodriller.scm.RepositoryFile;
@@ -12,11 +13,14 @@ public class JavaVisitor implements CommitVisitor {
     @Override
     public void process(SCMRepository scmRepository, Commit commit, PersistenceMechanism writer) {
         for (Modification modification : commit.getModifications()) {
+            if (modification.getType() == ModificationType.DELETE) {
+                continue;
+            }
             if (modification.fileNameEndsWith(".java") || modification.fileNameEndsWith(".javax")) {
 
                 writer.write(
                         commit.getHash(),
-                        modification.getFileName(),
+                        modification.getNewPath(),
                         modification.getSourceCode(),
                         modification.getType(),
                         commit.getAuthor().getName(),
@@ -1,63 +1,302 @@
 package de.uni_passau.fim.se2.sa.ggnn.repodriller;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
+import de.uni_passau.fim.se2.sa.ggnn.util.StagedContentHashSet;
 import org.repodriller.persistence.PersistenceMechanism;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Writes the mined Java files to the output directory.
+ * <p>
+ * Each file is stored at its path in the repository below a directory of its commit, i.e. at
+ * {@code <directory>/<commit>/<path>}. With {@link #forRepository(String)}, the commits of each repository are
+ * additionally placed in a directory of the repository, so that files of different commits or repositories never
+ * overwrite each other. A file whose content was already written before is skipped, so with several mining threads
+ * it depends on the scheduling which of the files with equal content is written. Contents are compared by a hash that
+ * ignores byte-order marks, line terminators and trailing whitespace. The hashes can be kept in a persistent
+ * {@link ContentHashSet}, so that files written by previous runs are skipped as well. New hashes are only added to it
+ * once the writer was closed without any failure.
+ * <p>
+ * The calling threads only hash the content; the files are written asynchronously by a few writer threads.
+ * As RepoDriller closes its persistence mechanism after every repository, only closing this root writer waits for all
+ * files to be written, closing a repository writer does nothing.
+ * <p>
+ * Thread-safe.
+ */
 public class JavaWriter implements PersistenceMechanism {
 
+    private static final int WRITER_THREADS = 4;
+
+    /**
+     * The number of files that may wait for the writer threads before the calling thread writes a file itself.
+     */
+    private static final int QUEUED_FILES = 1024;
+
     private final Path directory;
     private String fileName;
-    private FileWriter writer;
+
+    private final Map<Path, Path> createdDirectories = new ConcurrentHashMap<>();
+    private final ContentHashSet previousContents;
+    private final ContentHashSet claimedContents = ContentHashSet.inMemory();
+    private final StagedContentHashSet writtenContents;
+    private final LongAdder duplicateFiles = new LongAdder();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ExecutorService writers;
 
     public JavaWriter(Path directory) {
+        this(directory, ContentHashSet.inMemory());
+    }
+
+    /**
+     * Creates a writer that skips all contents of the given set.
+     *
+     * @param directory       The output directory.
+     * @param writtenContents The hashes of the contents written so far, to which new contents are added when the
+     *                        writer is closed. Has to be closed by the caller.
+     */
+    public JavaWriter(Path directory, ContentHashSet writtenContents) {
+        this(directory, WRITER_THREADS, writtenContents);
+    }
+
+    /**
+     * Creates a writer whose files are stored by the given number of threads.
+     *
+     * @param directory       The output directory.
+     * @param threads         The number of threads that {@link #store(Path, String) store} the files.
+     * @param writtenContents The hashes of the contents written so far, to which new contents are added when the
+     *                        writer is closed.
+     */
+    protected JavaWriter(Path directory, int threads, ContentHashSet writtenContents) {
         this.directory = directory;
+        this.previousContents = writtenContents;
+        this.writtenContents = new StagedContentHashSet(writtenContents);
+        this.writers = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUED_FILES),
+                JavaWriter::newWriterThread, JavaWriter::storeInCaller
+        );
+    }
+
+    /**
+     * Lets the calling thread store the file if the queue is full. Unlike {@link ThreadPoolExecutor.CallerRunsPolicy},
+     * a file that is written concurrently to {@link #close()} is not dropped silently.
+     */
+    private static void storeInCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The writer is already closed.");
+        }
+        task.run();
+    }
+
+    private static Thread newWriterThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "java-writer");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Gets a writer that places the commits in a directory of the given repository.
+     * <p>
+     * It shares the writer threads and the already written contents with this writer.
+     *
+     * @param repository The name of the repository directory.
+     * @return The writer of the repository.
+     */
+    public PersistenceMechanism forRepository(String repository) {
+        Path repositoryDirectory = directory.resolve(repository);
+        return new PersistenceMechanism() {
+            @Override
+            public void write(Object... objects) {
+                JavaWriter.this.write(repositoryDirectory, objects);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
     }
 
+    /**
+     * Writes a mined Java file.
+     *
+     * @param objects Either the commit hash, the path of the file in the repository and its content as written by the
+     *                {@link JavaVisitor}, or only the content of the file set by {@link #setFileName(String)}.
+     */
     @Override
-    public synchronized void write(Object... objects) {
-        try {
-            if (!Files.exists(directory)) {
-                Files.createDirectories(directory);
+    public void write(Object... objects) {
+        if (objects.length > 1) {
+            write(directory, objects);
+        } else {
+            writeFile(directory.resolve(fileName), (String) objects[0]);
+        }
+    }
+
+    private void write(Path root, Object... objects) {
+        Path commitDirectory = root.resolve((String) objects[0]);
+        Path filePath = commitDirectory.resolve((String) objects[1]).normalize();
+        if (!filePath.startsWith(commitDirectory)) {
+            throw new IllegalArgumentException("File path outside of the commit directory: " + objects[1]);
+        }
+        writeFile(filePath, (String) objects[2]);
+    }
+
+    private void writeFile(Path filePath, String content) {
+        throwFailure();
+        if (closed.get()) {
+            throw new IllegalStateException("The writer is already closed.");
+        }
+
+        long hash = contentHash(content);
+        if (previousContents.contains(hash) || !claimedContents.add(hash)) {
+            duplicateFiles.increment();
+            return;
+        }
+
+        // staged only once stored, so that a file rejected by the closed writer is not marked as written
+        writers.execute(() -> {
+            try {
+                store(filePath, content);
+                writtenContents.add(hash);
+            } catch (IOException | RuntimeException e) {
+                failure.compareAndSet(null, e);
             }
+        });
+    }
 
-            String content;
+    /**
+     * Hashes the content of a Java file.
+     * <p>
+     * A leading byte-order mark, the kind of line terminators, trailing whitespace of lines and trailing empty lines do
+     * not change the hash, as they do not change the parsed code.
+     *
+     * @param content The content of some Java file.
+     * @return The hash of the normalised content.
+     */
+    static long contentHash(String content) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        int emptyLines = 0;
+        Iterator<String> lines = content.lines().iterator();
+        boolean first = true;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (first && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            first = false;
 
-            if (objects.length > 1) {
-                content = (String) objects[2];
-                setFileName(((String) objects[1]));
-            } else {
-                content = (String) objects[0];
+            line = line.stripTrailing();
+            if (line.isEmpty()) {
+                ++emptyLines;
+                continue;
+            }
+            for (; emptyLines > 0; --emptyLines) {
+                hasher.putChar('\n');
             }
+            hasher.putString(line, StandardCharsets.UTF_8).putChar('\n');
+        }
+        return hasher.hash().asLong();
+    }
 
-            Path filePath = directory.resolve(fileName.replace("/", "_"));
-            Files.createDirectories(filePath.getParent());
+    /**
+     * Stores a mined file. Called concurrently by the writer threads, at most once for each content.
+     *
+     * @param filePath The path of the file in the output directory.
+     * @param content  The content of the file.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    protected void store(Path filePath, String content) throws IOException {
+        createDirectories(filePath.toAbsolutePath().getParent());
+        Files.writeString(filePath, content + System.lineSeparator());
+    }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath.toFile()))) {
-                writer.write(content);
-                writer.newLine();
+    /**
+     * Creates a directory and its parents unless this was already done before.
+     *
+     * @param directory Some directory.
+     */
+    protected void createDirectories(Path directory) {
+        createdDirectories.computeIfAbsent(directory, d -> {
+            try {
+                return Files.createDirectories(d);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
 
-//            writer.flush();
-//            writer.close();
-        } catch (IOException e) {
+    private void throwFailure() {
+        Throwable e = failure.get();
+        if (e != null) {
             throw new RuntimeException("Error writing file: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Gets the number of files that were skipped as their content was already written.
+     *
+     * @return The number of skipped files.
+     */
+    public long getDuplicateFiles() {
+        return duplicateFiles.sum();
+    }
+
+    /**
+     * Waits until all files are written. Closing the writer again does nothing.
+     * <p>
+     * Only if all files were written, the hashes of their contents are added to the persistent set of written contents.
+     */
     @Override
-    public synchronized void close() {
-        if (writer != null) {
-            try {
-                writer.close();
-            } catch (IOException e) {
-                throw new RuntimeException("Error closing file writer: " + e.getMessage(), e);
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        writers.shutdown();
+        try {
+            while (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for slow disks
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the files to be written.", e);
         }
+        try {
+            onClose();
+        } finally {
+            throwFailure();
+        }
+        commit();
+    }
+
+    /**
+     * Called by {@link #close()} after all files were stored, even if storing some of them failed.
+     */
+    protected void onClose() {
+    }
+
+    /**
+     * Called by {@link #close()} after all files were written successfully, to persist what was written.
+     */
+    protected void commit() {
+        writtenContents.commit();
+        claimedContents.close();
     }
 
     public void setFileName(String fileName) {
@@ -0,0 +1,17 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+/**
+ * The ways in which the Java files of commits can be extracted from a repository.
+ */
+public enum MiningEngine {
+
+    /**
+     * Uses the modifications of RepoDriller, which computes the full diff of every modified file.
+     */
+    REPODRILLER,
+
+    /**
+     * Uses {@link JavaBlobExtractor}, which reads the changed Java files directly from the commit trees.
+     */
+    JGIT
+}
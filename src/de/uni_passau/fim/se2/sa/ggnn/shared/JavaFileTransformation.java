@@ -5,26 +5,31 @@
 package de.uni_passau.fim.se2.sa.ggnn.shared;
 
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.CompilationUnit;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.InternalParseException;
 import de.uni_passau.fim.se2.sa.ggnn.ast.parser.TransformationException;
 import de.uni_passau.fim.se2.sa.ggnn.util.FileReadUtil;
+import org.antlr.v4.runtime.CharStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-
-import static java.nio.file.FileVisitResult.CONTINUE;
-import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
+import java.util.stream.StreamSupport;
 
 public class JavaFileTransformation<T> {
 
@@ -32,22 +37,29 @@
 
     private static final Pattern JAVA_FILE_PATTERN = Pattern.compile("([a-zA-Z_]\\w*|(module|package)-info)\\.java");
 
-    private final List<Path> files;
+    private final Path sourceDirectory;
 
     private final boolean printProgress;
     private final DecimalFormat progressFormat;
-    private final int total;
+    private final long total;
     private int counter = 0;
 
-    private final TransformationFunction<String, T> transformationFunction;
+    private final TransformationFunction<CharStream, T> transformationFunction;
 
     public JavaFileTransformation(
-        Path sourceDirectory, boolean printProgress, TransformationFunction<String, T> transformationFunction
+        Path sourceDirectory, boolean printProgress, TransformationFunction<CharStream, T> transformationFunction
     )
         throws IOException {
-        files = new ArrayList<>();
-        Files.walkFileTree(sourceDirectory, new JavaFileVisitor(files));
-        total = files.size();
+        this.sourceDirectory = sourceDirectory;
+        // only the progress output requires knowing the number of files up front
+        if (printProgress) {
+            try (Stream<Path> files = walkJavaFiles()) {
+                total = files.count();
+            }
+        }
+        else {
+            total = 0;
+        }
         this.printProgress = printProgress;
         this.transformationFunction = transformationFunction;
 
@@ -64,20 +76,15 @@ public JavaFileTransformation(
      * The listed files are filtered for Java files. I.e., it is assumed that the directory structure follows the usual
      * Java package structure. Any hidden directories or ones that cannot be part of a valid Java package are ignored.
      * <p>
-     * If exceptions occur during parsing, the parsing process stops immediately and the corresponding exception is
-     * thrown.
+     * The directory is walked and the files are parsed lazily while the stream is consumed. The returned stream holds
+     * open directory handles and has to be closed after use. If exceptions occur during parsing, the stream stops
+     * immediately and throws an {@link UncheckedIOException} or {@link InternalParseException} wrapping the cause.
      *
      * @return A {@link Stream} of {@link T} containing the parsed Java files.
-     * @throws IOException             If paths of the given directory do not match, this exception is thrown.
-     * @throws TransformationException If an error occurs during parsing (due to unparseable statements), this exception
-     *                                 is thrown.
+     * @throws IOException If the source directory cannot be opened, this exception is thrown.
      */
-    public Stream<T> parseDirectory() throws IOException, TransformationException {
-        final List<T> parsedCompilationUnits = new ArrayList<>();
-        for (final Path path : files) {
-            parsedCompilationUnits.add(parseCompilationUnit(path));
-        }
-        return parsedCompilationUnits.stream();
+    public Stream<T> parseDirectory() throws IOException {
+        return walkJavaFiles().map(this::parseCompilationUnitUnchecked);
     }
 
     /**
@@ -88,16 +95,47 @@ public Stream<T> parseDirectory() throws IOException, TransformationException {
      * The listed files are filtered for Java files. I.e., it is assumed that the directory structure follows the usual
      * Java package structure. Any hidden directories or ones that cannot be part of a valid Java package are ignored.
      * <p>
-     * If some files cannot be parsed, they are simply logged and skipped.
+     * If some files cannot be parsed, they are simply logged and skipped. If the source directory itself cannot be
+     * opened, this is logged as well and the stream is empty. Like {@link #parseDirectory()}, the returned stream is
+     * lazy and has to be closed after use.
      *
      * @return A {@link Stream} to {@link T} containing the parsed java files.
      */
     public Stream<T> parseDirectorySkipping() {
-        return files.stream().filter(JavaFileTransformation::isJavaFile)
+        final Stream<Path> javaFiles;
+        try {
+            javaFiles = walkJavaFiles();
+        }
+        catch (IOException e) {
+            log.warn("Could not open source directory: {}", e.getMessage(), e);
+            return Stream.empty();
+        }
+
+        return javaFiles
             .map(this::parsePossibleCompilationUnit)
             .flatMap(Optional::stream);
     }
 
+    private Stream<Path> walkJavaFiles() throws IOException {
+        final JavaFileWalker walker = new JavaFileWalker(sourceDirectory);
+        final Spliterator<Path> spliterator = Spliterators.spliteratorUnknownSize(
+            walker, Spliterator.ORDERED | Spliterator.NONNULL
+        );
+        return StreamSupport.stream(spliterator, false).onClose(walker::close);
+    }
+
+    private T parseCompilationUnitUnchecked(final Path javaFile) {
+        try {
+            return parseCompilationUnit(javaFile);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (TransformationException e) {
+            throw new InternalParseException(e.getMessage(), e);
+        }
+    }
+
     private Optional<T> parsePossibleCompilationUnit(Path javaFile) {
         try {
             return Optional.of(parseCompilationUnit(javaFile));
@@ -128,7 +166,7 @@ public T parseCompilationUnit(Path javaFile) throws IOException, TransformationE
             updateStatus(javaFile);
         }
 
-        final String code = FileReadUtil.readFileWithBom(javaFile.toFile());
+        final CharStream code = FileReadUtil.readCharStream(javaFile);
         try {
             return transformationFunction.apply(code);
         }
@@ -160,28 +198,102 @@ private static boolean isValidJavaFileName(final Path javaPath) {
     }
 
     /**
-     * Only traverses directories within a Java package directory structure skipping all directories that are not valid
-     * Java package names. Collects a list of seen Java sources files.
+     * Lazily traverses the directory tree depth-first, skipping all hidden directories. Yields the seen Java source
+     * files.
+     * <p>
+     * Only the directories on the path from the root to the current file are kept open.
      */
-    private static class JavaFileVisitor extends SimpleFileVisitor<Path> {
+    static final class JavaFileWalker implements Iterator<Path>, Closeable {
 
-        private final List<Path> paths;
+        private final Deque<DirectoryStream<Path>> openDirectories = new ArrayDeque<>();
+        private final Deque<Iterator<Path>> directoryIterators = new ArrayDeque<>();
 
-        private JavaFileVisitor(List<Path> paths) {
-            this.paths = paths;
+        private Path next;
+
+        JavaFileWalker(final Path root) throws IOException {
+            if (Files.isDirectory(root)) {
+                if (!isHidden(root)) {
+                    descend(root);
+                }
+            }
+            else if (isJavaFile(root)) {
+                next = root;
+            }
         }
 
         @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-            if (isJavaFile(file)) {
-                paths.add(file);
+        public boolean hasNext() {
+            while (next == null && !directoryIterators.isEmpty()) {
+                final Iterator<Path> entries = directoryIterators.peek();
+                if (!entries.hasNext()) {
+                    ascend();
+                    continue;
+                }
+
+                final Path entry = entries.next();
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    if (!isHidden(entry)) {
+                        descendUnchecked(entry);
+                    }
+                }
+                else if (isJavaFile(entry)) {
+                    next = entry;
+                }
             }
-            return super.visitFile(file, attrs);
+
+            return next != null;
         }
 
         @Override
-        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-            return isHidden(dir) ? SKIP_SUBTREE : CONTINUE;
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Path result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() {
+            while (!openDirectories.isEmpty()) {
+                ascend();
+            }
+        }
+
+        /**
+         * Gets the number of directory handles the walker currently holds.
+         *
+         * @return The number of open directories.
+         */
+        int openDirectoryCount() {
+            return openDirectories.size();
+        }
+
+        private void descend(final Path directory) throws IOException {
+            final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory);
+            openDirectories.push(directoryStream);
+            directoryIterators.push(directoryStream.iterator());
+        }
+
+        private void descendUnchecked(final Path directory) {
+            try {
+                descend(directory);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void ascend() {
+            directoryIterators.pop();
+            try {
+                openDirectories.pop().close();
+            }
+            catch (IOException e) {
+                log.debug("Directory stream failed to close properly", e);
+            }
         }
 
         private static boolean isHidden(Path dir) {
@@ -5,10 +5,21 @@
 package de.uni_passau.fim.se2.sa.ggnn.subcommand;
 
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNOutputFormat;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNPreprocessor;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNVocabulary;
 import de.uni_passau.fim.se2.sa.ggnn.subcommand.mixins.DotGraphCliOptions;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 @CommandLine.Command(
         name = "ggnn",
         description = "Builds the ggnn graph."
@@ -18,11 +29,117 @@ public class GGNNSubcommand extends PreprocessorSubcommand {
     @CommandLine.Mixin
     DotGraphCliOptions dotGraphCliOptions;
 
+    @CommandLine.Option(
+            names = {"-e", "--edges"},
+            description = "A comma separated list of the edge types that should be inferred (default: all). "
+                    + "Valid values: ${COMPLETION-CANDIDATES}.",
+            split = ","
+    )
+    List<GGNNEdgeType> edgeTypes;
+
+    @CommandLine.Option(
+            names = {"--format"},
+            description = "The format of the output graphs (default: ${DEFAULT-VALUE}). "
+                    + "Valid values: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "JSONL"
+    )
+    GGNNOutputFormat format;
+
+    @CommandLine.Option(
+            names = {"--vocabulary"},
+            description = "A file with corpus-wide ids for the node types and labels. The graphs reference these ids "
+                    + "instead of the strings. An existing vocabulary is extended, new ids are appended."
+    )
+    Path vocabularyFile;
+
+    @CommandLine.Option(
+            names = {"--seen-methods"},
+            description = "A file with the hashes of all methods whose graphs were already written. Duplicates of "
+                    + "these methods are skipped, also across runs. New methods are added to the file once all "
+                    + "graphs were written."
+    )
+    Path seenMethodsFile;
+
     @Override
     protected void process() throws ProcessingException {
-        final boolean dotGraph = dotGraphCliOptions.dotGraph;
-        final var preprocessor = new GGNNPreprocessor(getCommonOptions(), false, dotGraph);
+        final GGNNOutputFormat outputFormat = getOutputFormat();
+        final Set<GGNNEdgeType> edges = edgeTypes == null
+                ? EnumSet.allOf(GGNNEdgeType.class)
+                : EnumSet.copyOf(edgeTypes);
+        final GGNNVocabulary vocabulary = vocabularyFile == null ? null : loadVocabulary(outputFormat);
+
+        try (ContentHashSet seenMethods = seenMethodsFile == null ? null : openSeenMethods(outputFormat)) {
+            new GGNNPreprocessor(getCommonOptions(), false, outputFormat, edges, vocabulary, seenMethods).process();
+        }
+
+        if (vocabulary != null) {
+            saveVocabulary(vocabulary);
+        }
+    }
+
+    private ContentHashSet openSeenMethods(final GGNNOutputFormat outputFormat) throws ProcessingException {
+        if (outputFormat == GGNNOutputFormat.DOT) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "Seen methods cannot be skipped in the DOT format."
+            );
+        } else if (incremental) {
+            // a changed input would lose the graphs of its unchanged methods, as they were seen before
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "Seen methods cannot be skipped in the incremental mode."
+            );
+        }
+
+        try {
+            return ContentHashSet.open(seenMethodsFile);
+        } catch (IOException e) {
+            throw new ProcessingException("Could not open the seen methods " + seenMethodsFile, e);
+        }
+    }
+
+    private GGNNVocabulary loadVocabulary(final GGNNOutputFormat outputFormat) throws ProcessingException {
+        if (outputFormat != GGNNOutputFormat.JSONL) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "A vocabulary can only be used with the JSONL format."
+            );
+        } else if (incremental) {
+            // the skipped outputs would reference the ids of the vocabulary as it was when they were written
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "A vocabulary cannot be used in the incremental mode."
+            );
+        }
+
+        if (!Files.exists(vocabularyFile)) {
+            return new GGNNVocabulary();
+        }
+        try {
+            return GGNNVocabulary.read(vocabularyFile);
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read the vocabulary " + vocabularyFile, e);
+        }
+    }
+
+    private void saveVocabulary(final GGNNVocabulary vocabulary) throws ProcessingException {
+        try {
+            vocabulary.write(vocabularyFile);
+        } catch (IOException e) {
+            throw new ProcessingException("Could not write the vocabulary " + vocabularyFile, e);
+        }
+    }
 
-        preprocessor.process();
+    private GGNNOutputFormat getOutputFormat() {
+        if (!dotGraphCliOptions.dotGraph) {
+            return format;
+        } else if (format == GGNNOutputFormat.JSONL || format == GGNNOutputFormat.DOT) {
+            return GGNNOutputFormat.DOT;
+        } else {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "The dotgraph option cannot be combined with the " + format + " format."
+            );
+        }
     }
 }
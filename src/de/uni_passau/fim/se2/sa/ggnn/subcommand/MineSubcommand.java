@@ -1,11 +1,17 @@
 package de.uni_passau.fim.se2.sa.ggnn.subcommand;
 
 import de.uni_passau.fim.se2.sa.ggnn.repodriller.GGNNStudy;
+import de.uni_passau.fim.se2.sa.ggnn.repodriller.GGNNWriter;
+import de.uni_passau.fim.se2.sa.ggnn.repodriller.JavaWriter;
+import de.uni_passau.fim.se2.sa.ggnn.repodriller.MiningEngine;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
 import org.apache.commons.validator.routines.UrlValidator;
 import org.repodriller.RepoDriller;
 import picocli.CommandLine.*;
 import picocli.CommandLine.Model.CommandSpec;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -21,24 +27,74 @@ public class MineSubcommand implements Runnable {
     private List<String> repositories;
     private List<String> commits;
     private Path outputDirectory;
+    private Path cloneCache;
+    private int threads = 1;
 
+    @Option(
+            names = {"--engine"},
+            description = {"How Java files are extracted from commits: 'repodriller' computes the diff of every "
+                    + "modification, 'jgit' reads the changed files directly from the commit trees. "
+                    + "Default: ${DEFAULT-VALUE}."}
+    )
+    private MiningEngine engine = MiningEngine.REPODRILLER;
+
+    @Option(
+            names = {"--ggnn"},
+            description = {"Builds the GGNN graphs of the mined Java files while mining and writes only the graphs, "
+                    + "in the same layout as running the ggnn subcommand on the mined files."}
+    )
+    private boolean ggnn;
+
+    @Option(
+            names = {"--seen-files"},
+            description = {"A file with the hashes of all Java files that were already mined. Files with these "
+                    + "contents are skipped, also across runs. New contents are added to the file once all files "
+                    + "were written."}
+    )
+    private Path seenFilesFile;
+
+    @Option(
+            names = {"--seen-methods"},
+            description = {"Only with --ggnn: a file with the hashes of all methods whose graphs were already "
+                    + "written. Duplicates of these methods are skipped, also across runs."}
+    )
+    private Path seenMethodsFile;
 
     @Override
     public void run() {
-        new RepoDriller().start(new GGNNStudy(repositories, commits, outputDirectory));
+        if (seenMethodsFile != null && !ggnn) {
+            throw new ParameterException(spec.commandLine(), "Seen methods can only be skipped with --ggnn.");
+        }
+
+        try (ContentHashSet seenFiles = seenFilesFile == null ? ContentHashSet.inMemory() : open(seenFilesFile);
+             ContentHashSet seenMethods = seenMethodsFile == null ? null : open(seenMethodsFile)) {
+            JavaWriter writer = ggnn
+                    ? new GGNNWriter(outputDirectory, threads, seenFiles, seenMethods)
+                    : new JavaWriter(outputDirectory, seenFiles);
+            new RepoDriller().start(new GGNNStudy(repositories, commits, writer, cloneCache, threads, engine));
+        }
+    }
+
+    private static ContentHashSet open(Path file) {
+        try {
+            return ContentHashSet.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the content hashes " + file, e);
+        }
     }
 
     @Option(
             names = {"-r", "--repos"},
-            description = {"A List of Repository URLs defining which repositories should be mined."},
+            description = {"A List of Repository URLs or local repository directories defining which repositories "
+                    + "should be mined."},
             split = ",",
             required = true
     )
     public void setRepositories(final List<String> repositories) {
         UrlValidator urlValidator = new UrlValidator();
         for (String repository : repositories) {
-            if (!urlValidator.isValid(repository)) {
-                throw new ParameterException(spec.commandLine(), "Invalid repository URL: " + repository);
+            if (!urlValidator.isValid(repository) && !Path.of(repository).toFile().isDirectory()) {
+                throw new ParameterException(spec.commandLine(), "Invalid repository URL or directory: " + repository);
             }
         }
         this.repositories = repositories;
@@ -73,4 +129,31 @@ public void setOutputDirectory(final Path outputDirectory) {
         }
         this.outputDirectory = outputDirectory;
     }
+
+    @Option(
+            names = {"--clone-cache"},
+            description = {"A directory in which clones of remote repositories are kept and reused across runs. "
+                    + "A cached clone is fetched if it lacks the requested commits. When mining several "
+                    + "repositories, it is only fetched if it contains none of them. "
+                    + "By default, repositories are cloned into a temporary directory on every run."}
+    )
+    public void setCloneCache(final Path cloneCache) {
+        if (cloneCache.toFile().exists() && !cloneCache.toFile().isDirectory()) {
+            throw new ParameterException(spec.commandLine(),
+                    "The clone cache path does not correspond to a directory.");
+        }
+        this.cloneCache = cloneCache;
+    }
+
+    @Option(
+            names = {"-t", "--threads"},
+            description = {"The number of threads used to mine repositories and their commits in parallel. "
+                    + "Default: 1."}
+    )
+    public void setThreads(final int threads) {
+        if (threads < 1) {
+            throw new ParameterException(spec.commandLine(), "The number of threads has to be positive.");
+        }
+        this.threads = threads;
+    }
 }
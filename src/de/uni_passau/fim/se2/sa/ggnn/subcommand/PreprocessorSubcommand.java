@@ -4,6 +4,9 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.subcommand;
 
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.CodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.PredictionStrategy;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.BatchedFileWriter;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.CommonPreprocessorOptions;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingException;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingPath;
@@ -12,6 +15,7 @@
 import picocli.CommandLine;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
 
@@ -34,6 +38,37 @@ public abstract class PreprocessorSubcommand implements Runnable {
 
     protected Path sourcePath;
 
+    protected int threads = 1;
+
+    @CommandLine.Option(
+            names = "--prediction",
+            description = "How the parser predicts the grammar alternatives. SLL_THEN_LL is faster and yields the "
+                    + "same results. Valid values: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "LL"
+    )
+    protected PredictionStrategy predictionStrategy = PredictionStrategy.LL;
+
+    @CommandLine.Option(
+            names = "--dfa-cache",
+            description = "A file that keeps the prediction DFA of the parser between runs. It is loaded before and "
+                    + "updated after processing, so that later runs start parsing at full speed."
+    )
+    protected Path dfaCache;
+
+    @CommandLine.Option(
+            names = "--write-statistics",
+            description = "Logs how many bytes were written to the output files and the write throughput."
+    )
+    protected boolean writeStatistics;
+
+    @CommandLine.Option(
+            names = "--incremental",
+            description = "Only processes the files of the source directory that changed since the last run into the "
+                    + "output directory, and deletes the outputs of removed files. A manifest of the processed files "
+                    + "is kept in the output directory."
+    )
+    protected boolean incremental;
+
     @CommandLine.ArgGroup(exclusive = false)
     protected Output output;
 
@@ -54,19 +89,88 @@ public void setSourcePath(final File sourcePath) {
         }
     }
 
+    /**
+     * Sets the number of worker threads used to parse and transform the inputs.
+     *
+     * @param threads A positive number of threads.
+     */
+    @CommandLine.Option(
+            names = {"-t", "--threads"},
+            description = "The number of files that are processed concurrently.",
+            defaultValue = "1"
+    )
+    public void setThreads(final int threads) {
+        if (threads > 0) {
+            this.threads = threads;
+        } else {
+            throw new CommandLine.ParameterException(spec.commandLine(), "The number of threads must be positive.");
+        }
+    }
+
     @Override
     public void run() {
         validate();
 
+        final int loadedDfaStates = dfaCache == null ? 0 : loadDfaCache();
+
         try {
             process();
         } catch (ProcessingException e) {
             log.error("Could not process input!", e);
         }
+
+        if (dfaCache != null && CodeParser.dfaStateCount() > loadedDfaStates) {
+            saveDfaCache();
+        }
+
+        if (predictionStrategy == PredictionStrategy.SLL_THEN_LL) {
+            logFallbackRate();
+        }
+
+        if (writeStatistics) {
+            logWriteStatistics();
+        }
+    }
+
+    private int loadDfaCache() {
+        try {
+            return CodeParser.loadDfaCache(dfaCache);
+        } catch (IOException e) {
+            log.warn("Could not load the DFA cache, parsing starts with an empty DFA.", e);
+            return 0;
+        }
+    }
+
+    private void saveDfaCache() {
+        try {
+            CodeParser.saveDfaCache(dfaCache);
+        } catch (IOException e) {
+            log.error("Could not save the DFA cache!", e);
+        }
+    }
+
+    private void logFallbackRate() {
+        final CodeParser.Statistics statistics = CodeParser.statistics();
+        log.info(
+                "Parsed {} inputs with SLL prediction, {} ({}%) fell back to full LL prediction.",
+                statistics.sllParses(), statistics.llFallbacks(),
+                String.format("%.2f", statistics.fallbackRate() * 100)
+        );
+    }
+
+    private void logWriteStatistics() {
+        final BatchedFileWriter.Statistics statistics = BatchedFileWriter.statistics();
+        log.info(
+                "Wrote {} bytes in {} batches ({} file writes) at {} MB/s.",
+                statistics.bytes(), statistics.batches(), statistics.fileWrites(),
+                String.format("%.1f", statistics.megabytesPerSecond())
+        );
     }
 
     protected CommonPreprocessorOptions getCommonOptions() {
-        return new CommonPreprocessorOptions(getSourcePath(), getOutputPath());
+        return new CommonPreprocessorOptions(
+                getSourcePath(), getOutputPath(), threads, predictionStrategy, incremental
+        );
     }
 
     protected abstract void process() throws ProcessingException;
@@ -102,6 +206,18 @@ private void validate() {
         if (output != null && output.outputPath.isPresent()) {
             checkFileOrDirectory(output.outputPath.get(), output.outputFile);
         }
+
+        if (incremental && !getSourcePath().isDirectory()) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "The incremental mode requires a source directory."
+            );
+        } else if (incremental && !getOutputPath().isDirectory()) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(),
+                    "The incremental mode requires an output directory."
+            );
+        }
     }
 
     private void checkFileOrDirectory(final Path outputPath, boolean shouldBeFile) {
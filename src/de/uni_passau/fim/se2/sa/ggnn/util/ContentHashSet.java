@@ -0,0 +1,297 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.util;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A set of 64-bit content hashes that can be kept in a file across runs.
+ * <p>
+ * The hashes are stored in an open-addressing hash table with linear probing. A file-backed set maps the table into
+ * memory, so that it is neither read nor written as a whole; the operating system pages in the touched slots and
+ * writes back the changed ones. When the table is half full, it is rehashed into a file of twice the size that then
+ * replaces the old one. The table holds at most {@value #MAX_CAPACITY} slots, i.e. 64 million hashes in a 1 GiB file.
+ * <p>
+ * As only hashes are stored, two different contents are considered equal if their hashes collide. For 64-bit hashes
+ * this is unlikely even for hundreds of millions of contents.
+ * <p>
+ * Thread-safe.
+ */
+public final class ContentHashSet implements Closeable {
+
+    private static final int MAGIC = 0x47474853; // GGHS
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final int CAPACITY_OFFSET = 8;
+
+    private static final int SIZE_OFFSET = 12;
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private static final int MAX_CAPACITY = 1 << 27;
+
+    /**
+     * Marks empty slots. The hash zero is stored as {@link #ZERO_REPLACEMENT} instead.
+     */
+    private static final long EMPTY = 0;
+
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+    private final Path file;
+
+    private ByteBuffer table;
+
+    private int capacity;
+
+    private int size;
+
+    private boolean closed = false;
+
+    private ContentHashSet(final Path file, final ByteBuffer table, final int capacity, final int size) {
+        this.file = file;
+        this.table = table;
+        this.capacity = capacity;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty set that only lives in memory.
+     *
+     * @return The set.
+     */
+    public static ContentHashSet inMemory() {
+        return new ContentHashSet(null, newTable(null, INITIAL_CAPACITY), INITIAL_CAPACITY, 0);
+    }
+
+    /**
+     * Opens the set stored in a file, or creates an empty one if the file does not exist yet.
+     *
+     * @param file Some file that was written by this class.
+     * @return The set, whose changes are written to the file.
+     * @throws IOException Thrown if the file cannot be mapped or is no content hash set.
+     */
+    public static ContentHashSet open(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            final Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            final Path temporaryFile = temporaryFile(file);
+            newTable(temporaryFile, INITIAL_CAPACITY);
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        final MappedByteBuffer table = map(file, Files.size(file));
+        if (table.capacity() < HEADER_BYTES || table.getInt(0) != MAGIC || table.getInt(4) != VERSION) {
+            throw new IOException("Not a content hash set: " + file);
+        }
+        final int capacity = table.getInt(CAPACITY_OFFSET);
+        final int size = table.getInt(SIZE_OFFSET);
+        if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY || table.capacity() != tableBytes(capacity)
+            || size < 0 || size > capacity) {
+            throw new IOException("Malformed content hash set: " + file);
+        }
+        return new ContentHashSet(file, table, capacity, size);
+    }
+
+    /**
+     * Adds a hash to the set.
+     *
+     * @param hash Some content hash.
+     * @return True, if the hash was not contained yet.
+     */
+    public synchronized boolean add(final long hash) {
+        Preconditions.checkState(!closed, "The content hash set is already closed.");
+
+        final long value = hash == EMPTY ? ZERO_REPLACEMENT : hash;
+        if (!insert(table, capacity, value)) {
+            return false;
+        }
+
+        ++size;
+        if (size * 2L > capacity) {
+            grow();
+        }
+        table.putInt(SIZE_OFFSET, size);
+        return true;
+    }
+
+    /**
+     * Checks if the set contains a hash.
+     *
+     * @param hash Some content hash.
+     * @return True, if the hash was added before.
+     */
+    public synchronized boolean contains(final long hash) {
+        Preconditions.checkState(!closed, "The content hash set is already closed.");
+
+        final long value = hash == EMPTY ? ZERO_REPLACEMENT : hash;
+        final int mask = capacity - 1;
+        int slot = (int) (value ^ (value >>> 32)) & mask;
+        while (true) {
+            final long stored = table.getLong(offset(slot));
+            if (stored == value) {
+                return true;
+            }
+            else if (stored == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds all hashes of another set to this set.
+     *
+     * @param other Some other set.
+     */
+    public void addAll(final ContentHashSet other) {
+        Preconditions.checkArgument(other != this, "Cannot add a set to itself.");
+        for (final long value : other.values()) {
+            add(value);
+        }
+    }
+
+    private synchronized long[] values() {
+        final long[] values = new long[size];
+        int index = 0;
+        for (int slot = 0; slot < capacity; ++slot) {
+            final long value = table.getLong(offset(slot));
+            if (value != EMPTY) {
+                values[index++] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the number of hashes in the set.
+     *
+     * @return The number of hashes.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Writes all changes of a file-backed set to the disk.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (table instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    private static boolean insert(final ByteBuffer table, final int capacity, final long value) {
+        final int mask = capacity - 1;
+        int slot = (int) (value ^ (value >>> 32)) & mask;
+        while (true) {
+            final long stored = table.getLong(offset(slot));
+            if (stored == value) {
+                return false;
+            }
+            else if (stored == EMPTY) {
+                table.putLong(offset(slot), value);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("The content hash set is full.");
+        }
+
+        final int newCapacity = capacity * 2;
+        try {
+            final Path temporaryFile = file == null ? null : temporaryFile(file);
+            final ByteBuffer newTable = newTable(temporaryFile, newCapacity);
+            for (int slot = 0; slot < capacity; ++slot) {
+                final long value = table.getLong(offset(slot));
+                if (value != EMPTY) {
+                    insert(newTable, newCapacity, value);
+                }
+            }
+
+            if (file != null) {
+                ((MappedByteBuffer) newTable).force();
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            table = newTable;
+            capacity = newCapacity;
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Could not grow the content hash set " + file, e);
+        }
+    }
+
+    /**
+     * Creates an empty table.
+     *
+     * @param file     The file the table is mapped from, or {@code null} for a table in memory.
+     * @param capacity The number of slots.
+     * @return The table including its header.
+     */
+    private static ByteBuffer newTable(final Path file, final int capacity) {
+        final ByteBuffer table;
+        if (file == null) {
+            table = ByteBuffer.allocate(tableBytes(capacity));
+        }
+        else {
+            try {
+                Files.deleteIfExists(file);
+                table = map(file, tableBytes(capacity));
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Could not create the content hash set " + file, e);
+            }
+        }
+
+        table.putInt(0, MAGIC);
+        table.putInt(4, VERSION);
+        table.putInt(CAPACITY_OFFSET, capacity);
+        return table;
+    }
+
+    private static MappedByteBuffer map(final Path file, final long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    private static Path temporaryFile(final Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static int tableBytes(final int capacity) {
+        return HEADER_BYTES + capacity * Long.BYTES;
+    }
+
+    private static int offset(final int slot) {
+        return HEADER_BYTES + slot * Long.BYTES;
+    }
+}
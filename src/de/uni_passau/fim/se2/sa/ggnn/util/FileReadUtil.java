@@ -4,6 +4,9 @@
 
 package de.uni_passau.fim.se2.sa.ggnn.util;
 
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
 import org.apache.commons.io.input.BOMInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +15,14 @@
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.stream.Stream;
 
 public final class FileReadUtil {
@@ -26,13 +35,61 @@ private FileReadUtil() {
 
     /**
      * Reads the given file respecting a Unicode byte-order-marker (BOM) if present.
+     * <p>
+     * Line terminators are normalised to {@code \n} and a trailing line terminator is removed.
      *
      * @param file Some file.
      * @return The file content.
      * @throws IOException In case reading from the file fails.
      */
     public static String readFileWithBom(final File file) throws IOException {
-        return readFileWithBomLines(file).collect(Collectors.joining("\n"));
+        final Content content = Content.of(Files.readAllBytes(file.toPath()));
+        if (content.isAscii()) {
+            content.normaliseAscii();
+            return new String(content.bytes, content.offset, content.length, StandardCharsets.US_ASCII);
+        }
+        else {
+            return content.decode().toString();
+        }
+    }
+
+    /**
+     * Reads the given file as input for the lexer respecting a Unicode byte-order-marker (BOM) if present.
+     * <p>
+     * Yields the same characters as {@link #readFileWithBom(File)}, but decodes the file directly into the buffer of the
+     * stream. Files that only contain ASCII characters are not copied at all.
+     *
+     * @param file Some file.
+     * @return The file content.
+     * @throws IOException In case reading from the file fails.
+     */
+    public static CharStream readCharStream(final Path file) throws IOException {
+        return readCharStream(Files.readAllBytes(file), file.toString());
+    }
+
+    /**
+     * Decodes the content of a file as input for the lexer respecting a Unicode byte-order-marker (BOM) if present.
+     *
+     * @param bytes      The raw file content. Must not be modified afterwards, as it may be used as buffer of the
+     *                   stream.
+     * @param sourceName The name of the source, usually its file path.
+     * @return The content.
+     * @throws IOException In case the content cannot be decoded.
+     */
+    public static CharStream readCharStream(final byte[] bytes, final String sourceName) throws IOException {
+        final Content content = Content.of(bytes);
+        final CodePointBuffer buffer;
+        if (content.isAscii()) {
+            content.normaliseAscii();
+            buffer = CodePointBuffer.withBytes(ByteBuffer.wrap(content.bytes, content.offset, content.length));
+        }
+        else {
+            final CharBuffer chars = content.decode();
+            final CodePointBuffer.Builder builder = CodePointBuffer.builder(chars.remaining());
+            builder.append(chars);
+            buffer = builder.build();
+        }
+        return CodePointCharStream.fromBuffer(buffer, sourceName);
     }
 
     /**
@@ -63,4 +120,140 @@ public static Stream<String> readFileWithBomLines(final File file) throws IOExce
             }
         });
     }
+
+    /**
+     * The bytes of a file after the BOM.
+     * <p>
+     * The whole file is read with a single bulk read. Line terminators are normalised in place, for ASCII content
+     * directly in the bytes and for all other content after decoding.
+     */
+    private static final class Content {
+
+        private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        private static final byte[] UTF_16BE_BOM = {(byte) 0xFE, (byte) 0xFF};
+        private static final byte[] UTF_16LE_BOM = {(byte) 0xFF, (byte) 0xFE};
+        private static final byte[] UTF_32BE_BOM = {0, 0, (byte) 0xFE, (byte) 0xFF};
+        private static final byte[] UTF_32LE_BOM = {(byte) 0xFF, (byte) 0xFE, 0, 0};
+
+        private final byte[] bytes;
+        private final Charset charset;
+        private int offset;
+        private int length;
+
+        private Content(final byte[] bytes, final int offset, final Charset charset) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.charset = charset;
+            this.length = bytes.length - offset;
+        }
+
+        private static Content of(final byte[] bytes) {
+            // UTF-32LE has to be checked before UTF-16LE as their BOMs share the first two bytes
+            if (startsWith(bytes, UTF_8_BOM)) {
+                return new Content(bytes, UTF_8_BOM.length, StandardCharsets.UTF_8);
+            }
+            else if (startsWith(bytes, UTF_32BE_BOM)) {
+                return new Content(bytes, UTF_32BE_BOM.length, Charset.forName("UTF-32BE"));
+            }
+            else if (startsWith(bytes, UTF_32LE_BOM)) {
+                return new Content(bytes, UTF_32LE_BOM.length, Charset.forName("UTF-32LE"));
+            }
+            else if (startsWith(bytes, UTF_16BE_BOM)) {
+                return new Content(bytes, UTF_16BE_BOM.length, StandardCharsets.UTF_16BE);
+            }
+            else if (startsWith(bytes, UTF_16LE_BOM)) {
+                return new Content(bytes, UTF_16LE_BOM.length, StandardCharsets.UTF_16LE);
+            }
+            else {
+                return new Content(bytes, 0, StandardCharsets.UTF_8);
+            }
+        }
+
+        private static boolean startsWith(final byte[] bytes, final byte[] prefix) {
+            if (bytes.length < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; ++i) {
+                if (bytes[i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks if the content is plain ASCII, i.e. the bytes can be used as characters directly.
+         *
+         * @return True, if the content is UTF-8 without any multibyte characters.
+         */
+        private boolean isAscii() {
+            if (!StandardCharsets.UTF_8.equals(charset)) {
+                return false;
+            }
+            for (int i = offset; i < offset + length; ++i) {
+                if (bytes[i] < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Normalises the line terminators of ASCII content in place and moves it to the start of the array, as the
+         * streams of ANTLR do not support an offset.
+         */
+        private void normaliseAscii() {
+            int end = 0;
+            final int limit = offset + length;
+            for (int i = offset; i < limit; ++i) {
+                if (bytes[i] == '\r') {
+                    bytes[end++] = '\n';
+                    if (i + 1 < limit && bytes[i + 1] == '\n') {
+                        ++i;
+                    }
+                }
+                else {
+                    bytes[end++] = bytes[i];
+                }
+            }
+            if (end > 0 && bytes[end - 1] == '\n') {
+                --end;
+            }
+            offset = 0;
+            length = end;
+        }
+
+        /**
+         * Decodes the content replacing malformed input like an {@link InputStreamReader} and normalises its line
+         * terminators.
+         *
+         * @return The characters of the content.
+         */
+        private CharBuffer decode() throws CharacterCodingException {
+            final CharBuffer chars = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(ByteBuffer.wrap(bytes, offset, length));
+
+            final char[] array = chars.array();
+            final int start = chars.arrayOffset() + chars.position();
+            final int limit = chars.arrayOffset() + chars.limit();
+            int end = start;
+            for (int i = start; i < limit; ++i) {
+                if (array[i] == '\r') {
+                    array[end++] = '\n';
+                    if (i + 1 < limit && array[i + 1] == '\n') {
+                        ++i;
+                    }
+                }
+                else {
+                    array[end++] = array[i];
+                }
+            }
+            if (end > start && array[end - 1] == '\n') {
+                --end;
+            }
+            return CharBuffer.wrap(array, start, end - start);
+        }
+    }
 }
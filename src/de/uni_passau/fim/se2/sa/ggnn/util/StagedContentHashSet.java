@@ -0,0 +1,50 @@
+// SPDX-FileCopyrightText: 2024 Preprocessing Toolbox Contributors
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package de.uni_passau.fim.se2.sa.ggnn.util;
+
+/**
+ * Collects the content hashes of one run in memory before they are added to a persistent {@link ContentHashSet}.
+ * <p>
+ * A hash is added to the persistent set only if the output of its content was written, so that a failed or killed run
+ * does not cause later runs to skip contents whose output is missing. Therefore, the persistent set is not modified
+ * until {@link #commit()} is called after all outputs were written successfully.
+ * <p>
+ * Thread-safe.
+ */
+public final class StagedContentHashSet {
+
+    private final ContentHashSet committed;
+
+    private final ContentHashSet staged = ContentHashSet.inMemory();
+
+    /**
+     * Creates a set that stages the hashes that are not yet contained in the given set.
+     *
+     * @param committed The hashes of the contents written by previous runs.
+     */
+    public StagedContentHashSet(final ContentHashSet committed) {
+        this.committed = committed;
+    }
+
+    /**
+     * Adds a hash to the staged hashes.
+     *
+     * @param hash Some content hash.
+     * @return True, if the hash was neither committed nor staged yet.
+     */
+    public boolean add(final long hash) {
+        return !committed.contains(hash) && staged.add(hash);
+    }
+
+    /**
+     * Adds the staged hashes to the persistent set.
+     * <p>
+     * Has to be called once, after the outputs of all staged contents were written.
+     */
+    public void commit() {
+        committed.addAll(staged);
+        staged.close();
+    }
+}
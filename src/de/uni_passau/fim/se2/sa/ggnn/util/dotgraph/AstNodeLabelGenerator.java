@@ -21,24 +21,63 @@
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.type.PrimitiveType;
 import de.uni_passau.fim.se2.sa.ggnn.ast.visitor.AstVisitorWithDefaults;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * Determines the node label in the output graph.
+ * <p>
+ * The labels of most nodes are their type names, which are looked up once per class, just like the labels of
+ * modifiers and primitive types. The visitor that determines the labels is stateless and shared by all threads.
  */
 public final class AstNodeLabelGenerator {
 
+    private static final AstNodeLabelVisitor LABEL_VISITOR = new AstNodeLabelVisitor();
+
+    private static final ClassValue<String> TYPE_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(final Class<?> type) {
+            return type.getSimpleName();
+        }
+    };
+
+    private static final Map<Modifier, String> MODIFIER_LABELS = enumLabels(Modifier.class);
+
+    private static final Map<PrimitiveType, String> PRIMITIVE_TYPE_LABELS = enumLabels(PrimitiveType.class);
+
     private AstNodeLabelGenerator() {
     }
 
     public static String getLabel(final AstNode node) {
-        final AstNodeLabelVisitor labelVisitor = new AstNodeLabelVisitor();
-        return node.accept(labelVisitor, null);
+        return node.accept(LABEL_VISITOR, null);
     }
 
-    private static class AstNodeLabelVisitor implements AstVisitorWithDefaults<String, Void> {
+    /**
+     * Gets the type name of a node, i.e. the simple name of its class.
+     *
+     * @param node Some AST node.
+     * @return The cached simple class name.
+     */
+    public static String getTypeName(final AstNode node) {
+        return TYPE_NAMES.get(node.getClass());
+    }
+
+    /**
+     * Determines the labels of enum nodes once, as their {@code toString} builds a new string on every call.
+     */
+    private static <E extends Enum<E>> Map<E, String> enumLabels(final Class<E> type) {
+        final Map<E, String> labels = new EnumMap<>(type);
+        for (final E constant : type.getEnumConstants()) {
+            labels.put(constant, constant.toString());
+        }
+        return labels;
+    }
+
+    private static final class AstNodeLabelVisitor implements AstVisitorWithDefaults<String, Void> {
 
         @Override
         public String defaultAction(AstNode node, Void arg) {
-            return node.getClass().getSimpleName();
+            return getTypeName(node);
         }
 
         @Override
@@ -48,12 +87,12 @@ public <V> String visit(LiteralValueExpr<V> node, Void arg) {
 
         @Override
         public String visit(Modifier node, Void arg) {
-            return node.toString();
+            return MODIFIER_LABELS.get(node);
         }
 
         @Override
         public String visit(PrimitiveType node, Void arg) {
-            return node.toString();
+            return PRIMITIVE_TYPE_LABELS.get(node);
         }
 
         @Override
@@ -83,12 +122,12 @@ public String visit(QualifiedName node, Void arg) {
 
         @Override
         public String visit(BreakStmt node, Void arg) {
-            return "break" + node.identifier().map(id -> " " + id).orElse("");
+            return node.identifier().isPresent() ? "break " + node.identifier().get() : "break";
         }
 
         @Override
         public String visit(ContinueStmt node, Void arg) {
-            return "continue" + node.identifier().map(id -> " " + id).orElse("");
+            return node.identifier().isPresent() ? "continue " + node.identifier().get() : "continue";
         }
 
         @Override
@@ -38,9 +38,16 @@ else if (obj instanceof IdentityWrapper<?> that) {
         }
     }
 
+    /**
+     * Uses the identity hash code to be consistent with the reference equality in {@link #equals(Object)}.
+     * <p>
+     * The wrapped elements are usually AST records, whose own hash code recursively hashes the whole subtree.
+     *
+     * @return The identity hash code of the wrapped element.
+     */
     @Override
     public int hashCode() {
-        return elem.hashCode();
+        return System.identityHashCode(elem);
     }
 
     @Override
@@ -0,0 +1,68 @@
+package de.uni_passau.fim.se2.sa.ggnn.ast.parser;
+
+import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CodeParserTest {
+
+    @Test
+    public void testParseTreeStaysValidAfterReuse() {
+        final CodeParser codeParser = new CodeParser();
+
+        final JavaParser first = codeParser.parseCodeFragment("int f() { return 1; }");
+        final var firstTree = first.classBodyDeclaration();
+        final JavaParser second = codeParser.parseCodeFragment("void g() { }");
+        final var secondTree = second.classBodyDeclaration();
+
+        assertSame(first, second);
+        assertEquals("intf(){return1;}", firstTree.getText());
+        assertEquals("voidg(){}", secondTree.getText());
+    }
+
+    @Test
+    public void testSyntaxErrorsDoNotCarryOver() throws ParseException {
+        final AstCodeParser parser = new AstCodeParser();
+
+        assertThrows(ParseException.class, () -> parser.parseMethod("int f( { return"));
+        assertEquals("g", parser.parseMethod("void g() { }").declaration().name().name());
+        assertEquals(0, new CodeParser().parseCodeFragment("void h() { }").getNumberOfSyntaxErrors());
+    }
+
+    @Test
+    public void testTwoStageParsingYieldsSameAst() throws ParseException {
+        final String code = """
+            class A {
+                int f(int a) {
+                    for (int i = 0; i < a; ++i) {
+                        a = a > 2 ? a - i : (a << 1);
+                    }
+                    return switch (a) { case 1 -> 2; default -> a; };
+                }
+            }
+            """;
+
+        final CodeParser.Statistics before = CodeParser.statistics();
+        final var twoStage = new AstCodeParser(PredictionStrategy.SLL_THEN_LL).parseCodeToCompilationUnit(code);
+        final CodeParser.Statistics after = CodeParser.statistics();
+
+        assertEquals(new AstCodeParser().parseCodeToCompilationUnit(code), twoStage);
+        assertTrue(after.sllParses() > before.sllParses());
+    }
+
+    @Test
+    public void testTwoStageParsingFallsBackOnSyntaxErrors() {
+        final AstCodeParser parser = new AstCodeParser(PredictionStrategy.SLL_THEN_LL);
+
+        final CodeParser.Statistics before = CodeParser.statistics();
+        assertThrows(ParseException.class, () -> parser.parseMethod("int f( { return"));
+        final CodeParser.Statistics after = CodeParser.statistics();
+
+        assertTrue(after.llFallbacks() > before.llFallbacks());
+        assertEquals(0, new CodeParser().parseCodeFragment("void h() { }").getNumberOfSyntaxErrors());
+    }
+}
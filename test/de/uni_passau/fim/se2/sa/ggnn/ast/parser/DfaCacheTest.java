@@ -0,0 +1,142 @@
+package de.uni_passau.fim.se2.sa.ggnn.ast.parser;
+
+import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaLexer;
+import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParser;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DfaCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String CODE = """
+        class A {
+            int f(int a) {
+                for (int i = 0; i < a; ++i) {
+                    a = a > 2 ? a - i : (a << 1) + a * 3;
+                }
+                return switch (a) { case 1 -> 2; default -> a; };
+            }
+        }
+        """;
+
+    @Test
+    public void testRoundTripRestoresAllStates() throws IOException {
+        final JavaParser parser = new CodeParser().parseCodeFragment(CODE);
+        parser.compilationUnit();
+        final DFA[] warm = parser.getInterpreter().decisionToDFA;
+
+        final DFA[] loaded = emptyDfa();
+        final int states = DfaCache.read(
+            write(warm), loaded, JavaParser._ATN, JavaParser._serializedATN, new PredictionContextCache()
+        );
+
+        assertEquals(Arrays.stream(warm).mapToInt(dfa -> dfa.states.size()).sum(), states);
+        for (int decision = 0; decision < warm.length; ++decision) {
+            assertEquals(
+                warm[decision].toString(JavaParser.VOCABULARY), loaded[decision].toString(JavaParser.VOCABULARY)
+            );
+            assertEquals(describeConfigs(warm[decision]), describeConfigs(loaded[decision]));
+        }
+    }
+
+    @Test
+    public void testLoadedDfaPredictsWithoutNewStates() throws IOException {
+        new CodeParser().parseCodeFragment(CODE).compilationUnit();
+        final byte[] cache = write(new CodeParser().parseCodeFragment("").getInterpreter().decisionToDFA);
+
+        final DFA[] loaded = emptyDfa();
+        final PredictionContextCache contextCache = new PredictionContextCache();
+        final int states = DfaCache.read(cache, loaded, JavaParser._ATN, JavaParser._serializedATN, contextCache);
+
+        final JavaParser parser = new JavaParser(new CommonTokenStream(new JavaLexer(CharStreams.fromString(CODE))));
+        parser.setInterpreter(new ParserATNSimulator(parser, JavaParser._ATN, loaded, contextCache));
+        final String tree = parser.compilationUnit().toStringTree(parser);
+
+        assertEquals(new CodeParser().parseCodeFragment(CODE).compilationUnit().toStringTree(parser), tree);
+        assertEquals(states, Arrays.stream(loaded).mapToInt(dfa -> dfa.states.size()).sum());
+    }
+
+    @Test
+    public void testCacheOfOtherGrammarIsIgnored() throws IOException {
+        new CodeParser().parseCodeFragment(CODE).compilationUnit();
+        final byte[] cache = write(new CodeParser().parseCodeFragment("").getInterpreter().decisionToDFA);
+
+        final DFA[] loaded = emptyDfa();
+        final int states = DfaCache.read(cache, loaded, JavaParser._ATN, "other", new PredictionContextCache());
+
+        assertEquals(-1, states);
+        assertTrue(Arrays.stream(loaded).allMatch(dfa -> dfa.states.isEmpty()));
+    }
+
+    @Test
+    public void testTruncatedCacheIsRejected() throws IOException {
+        new CodeParser().parseCodeFragment(CODE).compilationUnit();
+        final byte[] cache = write(new CodeParser().parseCodeFragment("").getInterpreter().decisionToDFA);
+
+        final DFA[] loaded = emptyDfa();
+        final byte[] truncated = Arrays.copyOf(cache, cache.length / 2);
+        final PredictionContextCache contextCache = new PredictionContextCache();
+
+        assertThrows(
+            IOException.class,
+            () -> DfaCache.read(truncated, loaded, JavaParser._ATN, JavaParser._serializedATN, contextCache)
+        );
+        assertTrue(Arrays.stream(loaded).allMatch(dfa -> dfa.states.isEmpty()));
+    }
+
+    @Test
+    public void testSavedCacheHasDefaultPermissions() throws IOException {
+        assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null);
+        final Path cacheFile = tempDir.resolve("dfa.cache");
+        final Path plainFile = Files.writeString(tempDir.resolve("plain"), "");
+
+        new CodeParser().parseCodeFragment(CODE).compilationUnit();
+        CodeParser.saveDfaCache(cacheFile);
+
+        assertEquals(Files.getPosixFilePermissions(plainFile), Files.getPosixFilePermissions(cacheFile));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private static byte[] write(final DFA[] dfa) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DfaCache.write(out, dfa, JavaParser._serializedATN, Integer.MAX_VALUE);
+        return out.toByteArray();
+    }
+
+    private static DFA[] emptyDfa() {
+        final DFA[] dfa = new DFA[JavaParser._ATN.getNumberOfDecisions()];
+        for (int decision = 0; decision < dfa.length; ++decision) {
+            dfa[decision] = new DFA(JavaParser._ATN.getDecisionState(decision), decision);
+        }
+        return dfa;
+    }
+
+    private static String describeConfigs(final DFA dfa) {
+        return dfa.getStates().stream()
+            .map(state -> state.stateNumber + ":" + state.configs)
+            .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,91 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+
+/**
+ * Generates synthetic methods of a given size for the benchmarks.
+ */
+public final class BenchmarkMethods {
+
+    private BenchmarkMethods() {
+        throw new IllegalCallerException("utility class constructor");
+    }
+
+    /**
+     * A method consisting of a single assignment with a left-deep expression tree of the given number of operands.
+     *
+     * @param operands The number of operands.
+     * @return The method source code.
+     */
+    public static String longExpression(final int operands) {
+        final StringBuilder sb = new StringBuilder("int sum(int a) {\n    int x = a");
+        for (int i = 1; i < operands; ++i) {
+            sb.append(" + a");
+        }
+        sb.append(";\n    return x;\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * A method with the given number of statements, each one reading the previous variable.
+     *
+     * @param statements The number of statements.
+     * @return The method source code.
+     */
+    public static String manyStatements(final int statements) {
+        final StringBuilder sb = new StringBuilder("int chain(int v0) {\n");
+        for (int i = 1; i <= statements; ++i) {
+            sb.append("    int v").append(i).append(" = v").append(i - 1).append(" + ").append(i).append(";\n");
+        }
+        sb.append("    return v").append(statements).append(";\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * A method with the given number of consecutive loops, each one containing a nested loop with a branch.
+     *
+     * @param loops The number of outer loops.
+     * @return The method source code.
+     */
+    public static String nestedLoops(final int loops) {
+        final StringBuilder sb = new StringBuilder("int loops(int v0) {\n");
+        for (int i = 1; i <= loops; ++i) {
+            sb.append("    int v").append(i).append(" = v").append(i - 1).append(";\n");
+            sb.append("    for (int i").append(i).append(" = 0; i").append(i).append(" < v0; ++i").append(i)
+                .append(") {\n");
+            sb.append("        while (v").append(i).append(" > i").append(i).append(") {\n");
+            sb.append("            if (v").append(i).append(" % 2 == 0) {\n");
+            sb.append("                v").append(i).append(" = v").append(i).append(" / 2;\n");
+            sb.append("            }\n");
+            sb.append("            v").append(i).append(" = v").append(i).append(" - 1;\n");
+            sb.append("        }\n");
+            sb.append("        v").append(i).append(" = v").append(i).append(" + i").append(i).append(";\n");
+            sb.append("    }\n");
+        }
+        sb.append("    return v").append(loops).append(";\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * A method with the given number of guarded throw statements that are not caught within the method.
+     *
+     * @param statements The number of throw statements.
+     * @return The method source code.
+     */
+    public static String manyThrows(final int statements) {
+        final StringBuilder sb = new StringBuilder("void check(int v) {\n");
+        for (int i = 1; i <= statements; ++i) {
+            sb.append("    if (v == ").append(i).append(") {\n");
+            sb.append("        throw new IllegalArgumentException(\"").append(i).append("\");\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public static MethodDeclaration parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+}
@@ -0,0 +1,49 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg.CfgBuilder;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg.ControlFlowGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the control flow graph of generated methods with thousands of statements.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main CfgConstructionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CfgConstructionBenchmark {
+
+    @Param({"1000", "4000"})
+    public int size;
+
+    @Param({"statements", "throws"})
+    public String shape;
+
+    private MethodDeclaration method;
+
+    @Setup
+    public void setUp() throws ParseException {
+        final String code = "throws".equals(shape)
+            ? BenchmarkMethods.manyThrows(size)
+            : BenchmarkMethods.manyStatements(size);
+        method = BenchmarkMethods.parse(code);
+    }
+
+    @Benchmark
+    public ControlFlowGraph buildCfg() {
+        return new CfgBuilder().build(method);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{CfgConstructionBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,52 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFacts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing the reaching definitions and reaching uses of methods with many variables, either as straight-line
+ * code or spread over nested loops.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main DataFlowBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DataFlowBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    @Param({"statements", "loops"})
+    public String shape;
+
+    private MethodDeclaration method;
+
+    @Setup
+    public void setUp() throws ParseException {
+        final String code = "loops".equals(shape)
+            ? BenchmarkMethods.nestedLoops(size / 5)
+            : BenchmarkMethods.manyStatements(size);
+        method = BenchmarkMethods.parse(code);
+    }
+
+    @Benchmark
+    public void dataFlowPairs(final Blackhole blackhole) {
+        final DataFlowFacts facts = new DataFlowFacts(method);
+        blackhole.consume(facts.getDefUsePairs());
+        blackhole.consume(facts.getUseUsePairs());
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{DataFlowBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,64 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNCompactGraph;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.NodeIndex;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors.GGNNEdgesVisitor;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting all GGNN edges of a method once its data flow facts are known, both into edge sets and into the
+ * compact graph representation.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main EdgeExtractionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EdgeExtractionBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    private MethodDeclaration method;
+
+    private GGNNEdgesVisitor visitor;
+
+    @Setup
+    public void setUp() throws ParseException {
+        method = BenchmarkMethods.parse(BenchmarkMethods.manyStatements(size));
+        visitor = new GGNNEdgesVisitor(method);
+        // computes the lazily cached def-use pairs outside the measurement
+        visitor.getEdges();
+    }
+
+    @Benchmark
+    public Map<GGNNEdgeType, Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>>> extractEdges() {
+        return visitor.getEdges();
+    }
+
+    @Benchmark
+    public GGNNCompactGraph collectEdges() {
+        final NodeIndex index = NodeIndex.preOrder(method);
+        final var collector = new GGNNCompactGraph.EdgeCollector(index, visitor.edgeTypes());
+        visitor.collectEdges(collector::addEdge);
+        return collector.build("bench");
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{EdgeExtractionBenchmark.class.getSimpleName()});
+    }
+}
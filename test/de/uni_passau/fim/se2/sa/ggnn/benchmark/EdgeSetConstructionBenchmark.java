@@ -0,0 +1,66 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors.ChildVisitor;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.visitors.NextTokenVisitor;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
+import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the CHILD and NEXT_TOKEN edge sets of a method in relation to the method size.
+ * <p>
+ * The generated methods contain a single expression with {@code size} operands. As the expression is a left-deep tree,
+ * hashing the edge nodes structurally costs time quadratic in the size, while identity hashing keeps the edge set
+ * construction linear.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main EdgeSetConstructionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EdgeSetConstructionBenchmark {
+
+    @Param({"100", "200", "400", "800"})
+    public int size;
+
+    private MethodDeclaration method;
+
+    @Setup
+    public void setUp() throws ParseException {
+        method = BenchmarkMethods.parse(BenchmarkMethods.longExpression(size));
+    }
+
+    @Benchmark
+    public Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> buildEdges() {
+        final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap = new IdentityHashMap<>();
+        buildIdentityMap(method, astNodeMap);
+
+        final Set<Pair<IdentityWrapper<AstNode>, IdentityWrapper<AstNode>>> edges = new HashSet<>();
+        method.accept(new ChildVisitor(astNodeMap), edges);
+        method.accept(new NextTokenVisitor(astNodeMap), edges);
+        return edges;
+    }
+
+    private static void buildIdentityMap(
+        final AstNode node, final IdentityHashMap<AstNode, IdentityWrapper<AstNode>> astNodeMap
+    ) {
+        astNodeMap.put(node, IdentityWrapper.of(node));
+        node.children().forEach(child -> buildIdentityMap(child, astNodeMap));
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{EdgeSetConstructionBenchmark.class.getSimpleName()});
+    }
+}
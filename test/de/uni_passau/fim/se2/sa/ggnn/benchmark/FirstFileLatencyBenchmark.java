@@ -0,0 +1,111 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.CodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the latency of parsing the first files of a program run with and without a DFA cache of an earlier run.
+ * <p>
+ * The earlier run is a separate process that parses all Java files of the {@code corpus} directory except the first
+ * {@code files} ones and saves its DFA. The generated parser is skipped. Each measurement runs in a fresh JVM and
+ * parses the first {@code files} files, with {@code dfaCache=warm} after loading the cache of the earlier run.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main FirstFileLatencyBenchmark} from the project directory.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class FirstFileLatencyBenchmark {
+
+    @Param({"src"})
+    public String corpus;
+
+    @Param({"1", "20", "100"})
+    public int files;
+
+    @Param({"cold", "warm"})
+    public String dfaCache;
+
+    private Path cacheFile;
+
+    private List<String> firstFiles;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        firstFiles = new ArrayList<>();
+        for (final Path file : javaFiles(Path.of(corpus)).subList(0, files)) {
+            firstFiles.add(Files.readString(file));
+        }
+
+        cacheFile = Files.createTempFile("dfa", ".cache");
+        final Process earlierRun = new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            EarlierRun.class.getName(), corpus, String.valueOf(files), cacheFile.toString()
+        ).inheritIO().start();
+        if (earlierRun.waitFor() != 0) {
+            throw new IllegalStateException("Could not create the DFA cache.");
+        }
+    }
+
+    @TearDown
+    public void deleteCache() throws IOException {
+        Files.deleteIfExists(cacheFile);
+    }
+
+    @Benchmark
+    public List<AstNode> parseFirstFiles() throws IOException, ParseException {
+        if ("warm".equals(dfaCache)) {
+            CodeParser.loadDfaCache(cacheFile);
+        }
+
+        final AstCodeParser parser = new AstCodeParser();
+        final List<AstNode> units = new ArrayList<>(files);
+        for (final String file : firstFiles) {
+            units.add(parser.parseCodeToCompilationUnit(file));
+        }
+        return units;
+    }
+
+    private static List<Path> javaFiles(final Path corpus) throws IOException {
+        try (Stream<Path> walk = Files.walk(corpus)) {
+            return walk.filter(f -> f.toString().endsWith(".java") && !f.toString().contains("javaparser"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Parses all but the given number of first files of a corpus and saves the DFA.
+     */
+    public static final class EarlierRun {
+
+        public static void main(String[] args) throws IOException, ParseException {
+            final List<Path> files = javaFiles(Path.of(args[0]));
+            final AstCodeParser parser = new AstCodeParser();
+            for (final Path file : files.subList(Integer.parseInt(args[1]), files.size())) {
+                parser.parseCodeToCompilationUnit(Files.readString(file));
+            }
+            CodeParser.saveDfaCache(Path.of(args[2]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{FirstFileLatencyBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,57 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNCompactGraph;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNContextGraphBuilder;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNGraphBuilder;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNJsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialising the GGNN graph of a method to JSON, once via the context graph and the {@code ObjectMapper} and
+ * once streamed by the {@link GGNNJsonWriter}.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main JsonSerializationBenchmark -prof gc} to include the allocations per graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final GGNNJsonWriter jsonWriter = new GGNNJsonWriter();
+
+    private GGNNCompactGraph graph;
+
+    @Setup
+    public void setUp() throws ParseException {
+        graph = new GGNNGraphBuilder().build(BenchmarkMethods.parse(BenchmarkMethods.nestedLoops(size / 10)));
+    }
+
+    @Benchmark
+    public String objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(GGNNContextGraphBuilder.build(graph));
+    }
+
+    @Benchmark
+    public String jsonWriter() {
+        jsonWriter.write(graph, graph.name());
+        return jsonWriter.takeOutput();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JsonSerializationBenchmark.class.getSimpleName()});
+    }
+}
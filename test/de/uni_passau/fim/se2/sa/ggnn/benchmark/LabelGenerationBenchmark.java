@@ -0,0 +1,69 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNCompactGraph;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNGraphBuilder;
+import de.uni_passau.fim.se2.sa.ggnn.util.dotgraph.AstNodeLabelGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures determining the labels and type names of all nodes of the GGNN graph of a method, once via the
+ * {@link AstNodeLabelGenerator} and once via the labels memoised by the graph, as used when a graph is written more
+ * than once.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main LabelGenerationBenchmark -prof gc} to include the allocations per graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LabelGenerationBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    private GGNNCompactGraph graph;
+
+    @Setup
+    public void setUp() throws ParseException {
+        graph = new GGNNGraphBuilder().build(BenchmarkMethods.parse(BenchmarkMethods.nestedLoops(size / 10)));
+    }
+
+    @Benchmark
+    public void labels(final Blackhole blackhole) {
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            blackhole.consume(AstNodeLabelGenerator.getLabel(graph.node(id)));
+        }
+    }
+
+    @Benchmark
+    public void memoisedLabels(final Blackhole blackhole) {
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            blackhole.consume(graph.nodeLabel(id));
+        }
+    }
+
+    @Benchmark
+    public void simpleNames(final Blackhole blackhole) {
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            blackhole.consume(graph.node(id).getClass().getSimpleName());
+        }
+    }
+
+    @Benchmark
+    public void typeNames(final Blackhole blackhole) {
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            blackhole.consume(graph.nodeType(id));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{LabelGenerationBenchmark.class.getSimpleName()});
+    }
+}
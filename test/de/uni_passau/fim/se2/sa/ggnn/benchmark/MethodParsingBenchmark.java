@@ -0,0 +1,88 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MemberDeclarator;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.CodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.PredictionStrategy;
+import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParser;
+import de.uni_passau.fim.se2.sa.ggnn.javaparser.JavaParserBaseVisitor;
+import org.antlr.v4.runtime.misc.Interval;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures parsing single methods as in the JSON Lines mode of the preprocessors.
+ * <p>
+ * The methods are taken from the {@code ExpectedResults} sources. Each operation parses one method, i.e. the score is
+ * the number of methods per second.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main MethodParsingBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MethodParsingBenchmark {
+
+    @Param({"LL", "SLL_THEN_LL"})
+    public PredictionStrategy predictionStrategy;
+
+    private AstCodeParser parser;
+
+    private List<String> methods;
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException, URISyntaxException {
+        parser = new AstCodeParser(predictionStrategy);
+        methods = new ArrayList<>();
+        final Path fixtures = Path.of(MethodParsingBenchmark.class.getClassLoader().getResource("DoWhile.java").toURI())
+            .getParent();
+        try (Stream<Path> files = Files.list(fixtures)) {
+            for (final Path file : files.filter(f -> f.toString().endsWith(".java")).sorted().toList()) {
+                methods.addAll(extractMethods(Files.readString(file)));
+            }
+        }
+    }
+
+    @Benchmark
+    public MemberDeclarator<MethodDeclaration> parseMethod() throws ParseException {
+        final String method = methods.get(next);
+        next = (next + 1) % methods.size();
+        return parser.parseMethod(method);
+    }
+
+    private static List<String> extractMethods(final String code) {
+        final List<String> methods = new ArrayList<>();
+        new CodeParser().parseCodeFragment(code).compilationUnit().accept(new JavaParserBaseVisitor<Void>() {
+            @Override
+            public Void visitClassBodyDeclaration(final JavaParser.ClassBodyDeclarationContext ctx) {
+                if (ctx.memberDeclaration() != null && ctx.memberDeclaration().methodDeclaration() != null) {
+                    methods.add(ctx.start.getInputStream().getText(
+                        Interval.of(ctx.start.getStartIndex(), ctx.stop.getStopIndex())
+                    ));
+                }
+                return super.visitClassBodyDeclaration(ctx);
+            }
+        });
+        return methods;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{MethodParsingBenchmark.class.getSimpleName()});
+    }
+}
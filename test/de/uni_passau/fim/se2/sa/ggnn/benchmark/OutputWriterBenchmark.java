@@ -0,0 +1,106 @@
+package de.uni_passau.fim.se2.sa.ggnn.benchmark;
+
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.BatchedFileWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures writing many small output files and one large output file, once line by line with an auto-flushing
+ * {@link PrintWriter} per file and once with the {@link BatchedFileWriter}.
+ * <p>
+ * Each operation writes {@code lines} lines of {@code lineLength} characters. The files are spread over directories
+ * of 100 files each, like the outputs of a source tree.
+ * <p>
+ * Run via {@code mvn test-compile} and {@code java -cp target/test-classes:target/classes:<dependencies>
+ * org.openjdk.jmh.Main OutputWriterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OutputWriterBenchmark {
+
+    @Param({"10000"})
+    public int lines;
+
+    @Param({"300", "3000"})
+    public int lineLength;
+
+    private Path outputDirectory;
+
+    private Path[] outputFiles;
+
+    private String line;
+
+    @Setup
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("output");
+        outputFiles = new Path[lines];
+        for (int i = 0; i < lines; ++i) {
+            outputFiles[i] = outputDirectory.resolve("package" + i / 100).resolve("Class" + i + ".jsonl");
+        }
+        line = "{\"graph\": [" + "1, ".repeat(lineLength / 3) + "]}";
+    }
+
+    @TearDown
+    public void deleteOutput() throws IOException {
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void printWriterPerFile() throws IOException {
+        for (final Path file : outputFiles) {
+            Files.createDirectories(file.getParent());
+            try (var os = Files.newOutputStream(file); var pw = new PrintWriter(os, true, StandardCharsets.UTF_8)) {
+                pw.println(line);
+            }
+        }
+    }
+
+    @Benchmark
+    public void batchedPerFile() throws IOException {
+        try (BatchedFileWriter writer = new BatchedFileWriter()) {
+            for (final Path file : outputFiles) {
+                writer.writeLine(file, line);
+            }
+        }
+    }
+
+    @Benchmark
+    public void printWriterSingleFile() throws IOException {
+        final Path file = outputDirectory.resolve("result.jsonl");
+        try (var os = Files.newOutputStream(file); var pw = new PrintWriter(os, true, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; ++i) {
+                pw.println(line);
+            }
+        }
+    }
+
+    @Benchmark
+    public void batchedSingleFile() throws IOException {
+        final Path file = outputDirectory.resolve("result.jsonl");
+        try (BatchedFileWriter writer = new BatchedFileWriter()) {
+            for (int i = 0; i < lines; ++i) {
+                writer.writeLine(file, line);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{OutputWriterBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,64 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchedFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testGroupsLinesPerFileAcrossBatches() throws IOException {
+        final Path a = tempDir.resolve("a.jsonl");
+        final Path b = tempDir.resolve("sub/dir/b.jsonl");
+
+        try (BatchedFileWriter writer = new BatchedFileWriter(8)) {
+            for (int i = 0; i < 50; ++i) {
+                writer.writeLine(i % 3 == 0 ? b : a, "line " + i);
+            }
+        }
+
+        final List<String> expectedA = IntStream.range(0, 50)
+            .filter(i -> i % 3 != 0).mapToObj(i -> "line " + i).toList();
+        final List<String> expectedB = IntStream.range(0, 50)
+            .filter(i -> i % 3 == 0).mapToObj(i -> "line " + i).toList();
+        assertEquals(expectedA, Files.readAllLines(a));
+        assertEquals(expectedB, Files.readAllLines(b));
+    }
+
+    @Test
+    public void testTruncatesExistingFiles() throws IOException {
+        final Path file = tempDir.resolve("result.txt");
+        Files.writeString(file, "some old and much longer content\n");
+
+        try (BatchedFileWriter writer = new BatchedFileWriter()) {
+            writer.writeLine(file, "{\"ä\": 1}");
+        }
+
+        assertEquals("{\"ä\": 1}" + System.lineSeparator(), Files.readString(file));
+    }
+
+    @Test
+    public void testRethrowsWriteFailure() throws IOException {
+        final Path blocked = tempDir.resolve("blocked");
+        Files.writeString(blocked, "");
+
+        final BatchedFileWriter writer = new BatchedFileWriter(1);
+        assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 100; ++i) {
+                writer.writeLine(blocked.resolve("out.jsonl"), "line");
+            }
+            writer.close();
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelPipelineTest {
+
+    @Test
+    public void testKeepsInputOrder() {
+        final List<Integer> inputs = IntStream.range(0, 200).boxed().toList();
+
+        final List<Integer> results;
+        try (var stream = ParallelPipeline.mapOrdered(inputs.stream(), ParallelPipelineTest::slowSquare, 8)) {
+            results = stream.toList();
+        }
+
+        assertEquals(inputs.stream().map(i -> i * i).toList(), results);
+    }
+
+    @Test
+    public void testReadsAtMostCapacityAhead() {
+        final AtomicInteger read = new AtomicInteger();
+        final Stream<Integer> inputs = IntStream.range(0, 100).boxed().peek(i -> read.incrementAndGet());
+
+        try (var stream = ParallelPipeline.mapOrdered(inputs, i -> i, 2, 4)) {
+            final var it = stream.iterator();
+            it.next();
+            assertTrue(read.get() <= 5, "Reader ran ahead of the consumer: " + read.get());
+        }
+    }
+
+    @Test
+    public void testPropagatesWorkerFailure() {
+        final Stream<Integer> inputs = Stream.of(1, 2, 3);
+
+        try (var stream = ParallelPipeline.<Integer, Integer>mapOrdered(inputs, i -> {
+            throw new IllegalStateException("fail " + i);
+        }, 2)) {
+            assertThrows(IllegalStateException.class, stream::toList);
+        }
+    }
+
+    private static int slowSquare(final int i) {
+        try {
+            Thread.sleep(i % 3);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return i * i;
+    }
+}
@@ -0,0 +1,134 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GGNNBinaryReaderTest {
+
+    private static final String METHOD = """
+        String f(int a, String s) {
+            int b = a;
+            for (int i = 0; i < a; ++i) {
+                if (b > i) {
+                    b = b - i;
+                }
+            }
+            return s + "\\"quoted\\" \\u00e4 \\t" + b + 'x';
+        }
+        """;
+
+    @Test
+    public void testRoundTrip(@TempDir final Path dir) throws ParseException, IOException {
+        final GGNNCompactGraph f = new GGNNGraphBuilder().build(parse(METHOD));
+        final GGNNCompactGraph g = new GGNNGraphBuilder(EnumSet.of(GGNNEdgeType.NEXT_TOKEN))
+            .build(parse("void g() { h(); }"));
+
+        final GGNNBinaryWriter writer = new GGNNBinaryWriter();
+        writer.write(f, f.name());
+        writer.write(g, null);
+        final Path file = dir.resolve("graphs.ggnn");
+        Files.write(file, writer.takeOutput());
+
+        final GGNNContextGraph relabelled = GGNNContextGraphBuilder.build(g);
+        assertEquals(
+            List.of(
+                GGNNContextGraphBuilder.build(f),
+                new GGNNContextGraph(null, relabelled.labelNodes(), relabelled.contextGraph())
+            ),
+            GGNNBinaryReader.readAll(file)
+        );
+    }
+
+    @Test
+    public void testDuplicateAndUnsortedLabelNodes() throws ParseException, IOException {
+        final MethodDeclaration method = parse(METHOD);
+        final var collector = new GGNNCompactGraph.EdgeCollector(
+            NodeIndex.preOrder(method), EnumSet.of(GGNNEdgeType.CHILD)
+        );
+        collector.addEdge(GGNNEdgeType.CHILD, 3, 1);
+        collector.addEdge(GGNNEdgeType.CHILD, 0, 2);
+        final GGNNCompactGraph graph = collector.build("f", 40, 3, 19, 3, 17, 35, 1);
+
+        final GGNNBinaryWriter writer = new GGNNBinaryWriter();
+        writer.write(graph, "f");
+
+        assertEquals(List.of(GGNNContextGraphBuilder.build(graph)), readAll(writer.takeOutput()));
+    }
+
+    @Test
+    public void testConcatenatedBlocks() throws ParseException, IOException {
+        final GGNNCompactGraph f = new GGNNGraphBuilder().build(parse(METHOD));
+        final GGNNCompactGraph g = new GGNNGraphBuilder().build(parse("void g() { h(); }"));
+
+        final GGNNBinaryWriter writer = new GGNNBinaryWriter();
+        writer.write(f, f.name());
+        final byte[] first = writer.takeOutput();
+        assertArrayEquals(new byte[0], writer.takeOutput());
+        writer.write(g, g.name());
+        final byte[] second = writer.takeOutput();
+
+        final byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+
+        assertEquals(
+            List.of(GGNNContextGraphBuilder.build(f), GGNNContextGraphBuilder.build(g)),
+            readAll(both)
+        );
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        try (GGNNBinaryReader reader = new GGNNBinaryReader(new ByteArrayInputStream(new byte[0]))) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testRejectsOtherData() {
+        final byte[] json = "{\"label\":\"f\"}".getBytes();
+        assertThrows(IOException.class, () -> readAll(json));
+    }
+
+    @Test
+    public void testRejectsTruncatedBlock() throws ParseException {
+        final GGNNCompactGraph graph = new GGNNGraphBuilder().build(parse(METHOD));
+        final GGNNBinaryWriter writer = new GGNNBinaryWriter();
+        writer.write(graph, graph.name());
+        final byte[] block = writer.takeOutput();
+
+        assertThrows(IOException.class, () -> readAll(Arrays.copyOf(block, block.length - 1)));
+    }
+
+    private static List<GGNNContextGraph> readAll(final byte[] bytes) throws IOException {
+        try (GGNNBinaryReader reader = new GGNNBinaryReader(new ByteArrayInputStream(bytes))) {
+            final List<GGNNContextGraph> graphs = new ArrayList<>();
+            reader.forEachRemaining(graphs::add);
+            return graphs;
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static MethodDeclaration parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+}
@@ -0,0 +1,48 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GGNNCompactGraphTest {
+
+    @Test
+    public void testNodesAreNumberedInPreOrder() throws ParseException {
+        final MethodDeclaration method = parse("int f(int a) { return a; }");
+        final GGNNCompactGraph graph = new GGNNGraphBuilder().build(method);
+
+        assertEquals(method, graph.node(0));
+        assertEquals(1, graph.labelNodeCount());
+        assertEquals(method.name(), graph.node(graph.labelNode(0)));
+    }
+
+    @Test
+    public void testEdgesAreSortedAndUnique() throws ParseException {
+        final MethodDeclaration method = parse("int f(int a) { return a; }");
+        final NodeIndex index = NodeIndex.preOrder(method);
+        final var collector = new GGNNCompactGraph.EdgeCollector(index, EnumSet.of(GGNNEdgeType.CHILD));
+        collector.addEdge(GGNNEdgeType.CHILD, 2, 1);
+        collector.addEdge(GGNNEdgeType.CHILD, 0, 2);
+        collector.addEdge(GGNNEdgeType.CHILD, 2, 1);
+        collector.addEdge(GGNNEdgeType.CHILD, 0, 1);
+
+        final GGNNCompactGraph graph = collector.build("f");
+        final List<List<Integer>> edges = new ArrayList<>();
+        graph.edges(GGNNEdgeType.CHILD).forEach((source, target) -> edges.add(List.of(source, target)));
+
+        assertEquals(List.of(List.of(0, 1), List.of(0, 2), List.of(2, 1)), edges);
+        assertEquals(0, graph.edges(GGNNEdgeType.LAST_READ).size());
+        assertEquals(EnumSet.of(GGNNEdgeType.CHILD), graph.edgeTypes());
+    }
+
+    private static MethodDeclaration parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+}
@@ -0,0 +1,95 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GGNNJsonWriterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String METHOD = """
+        String f(int a, String s) {
+            int b = a;
+            for (int i = 0; i < a; ++i) {
+                if (b > i) {
+                    b = b - i;
+                }
+            }
+            return s + "\\"quoted\\" \\u00e4 \\t" + b + 'x';
+        }
+        """;
+
+    @Test
+    public void testSameJsonAsObjectMapper() throws ParseException, JsonProcessingException {
+        final GGNNCompactGraph graph = new GGNNGraphBuilder().build(parse(METHOD));
+
+        final GGNNJsonWriter writer = new GGNNJsonWriter();
+        writer.write(graph, graph.name());
+
+        assertEquals(MAPPER.writeValueAsString(GGNNContextGraphBuilder.build(graph)), writer.takeOutput());
+    }
+
+    @Test
+    public void testLabelNodesInHashSetOrder() throws ParseException, JsonProcessingException {
+        final MethodDeclaration method = parse(METHOD);
+        final NodeIndex index = NodeIndex.preOrder(method);
+        final var collector = new GGNNCompactGraph.EdgeCollector(index, EnumSet.of(GGNNEdgeType.CHILD));
+        collector.addEdge(GGNNEdgeType.CHILD, 0, 1);
+        final GGNNCompactGraph graph = collector.build("f", 40, 3, 19, 3, 17, 35, 1);
+
+        final GGNNJsonWriter writer = new GGNNJsonWriter();
+        writer.write(graph, "f");
+
+        assertEquals(MAPPER.writeValueAsString(GGNNContextGraphBuilder.build(graph)), writer.takeOutput());
+    }
+
+    @Test
+    public void testLinesAreSeparatedAndTaken() throws ParseException, JsonProcessingException {
+        final GGNNCompactGraph graph = new GGNNGraphBuilder(EnumSet.of(GGNNEdgeType.NEXT_TOKEN))
+            .build(parse("void g() { h(); }"));
+        final String json = MAPPER.writeValueAsString(GGNNContextGraphBuilder.build(graph));
+        final String relabelled = json.replaceFirst("\"label\":\"g\"", "\"label\":null");
+
+        final GGNNJsonWriter writer = new GGNNJsonWriter();
+        writer.write(graph, "g");
+        writer.write(graph, null);
+        assertEquals(json + System.lineSeparator() + relabelled, writer.takeOutput());
+
+        assertEquals("", writer.takeOutput());
+        writer.write(graph, "g");
+        assertEquals(json, writer.takeOutput());
+    }
+
+    @Test
+    public void testVocabularyIds() throws ParseException, JsonProcessingException {
+        final GGNNCompactGraph graph = new GGNNGraphBuilder().build(parse(METHOD));
+        final GGNNVocabulary vocabulary = new GGNNVocabulary();
+
+        final GGNNJsonWriter writer = new GGNNJsonWriter(vocabulary);
+        writer.write(graph, graph.name());
+        final JsonNode json = MAPPER.readTree(writer.takeOutput());
+
+        final GGNNContextGraph expected = GGNNContextGraphBuilder.build(graph);
+        final JsonNode contextGraph = json.get("contextGraph");
+        for (int id = 0; id < graph.nodeCount(); ++id) {
+            final int nodeType = contextGraph.get("nodeTypeMap").get(Integer.toString(id)).intValue();
+            final int nodeLabel = contextGraph.get("nodeLabelMap").get(Integer.toString(id)).intValue();
+            assertEquals(expected.contextGraph().nodeTypeMap().get(id), vocabulary.nodeTypes().get(nodeType));
+            assertEquals(expected.contextGraph().nodeLabelMap().get(id), vocabulary.nodeLabels().get(nodeLabel));
+        }
+        assertEquals(MAPPER.valueToTree(expected.contextGraph().edges()), contextGraph.get("edges"));
+    }
+
+    private static MethodDeclaration parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+}
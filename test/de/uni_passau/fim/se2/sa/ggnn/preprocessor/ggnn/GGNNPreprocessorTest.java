@@ -0,0 +1,258 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.PredictionStrategy;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.CommonPreprocessorOptions;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingException;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingPath;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GGNNPreprocessorTest {
+
+    private static final String MARKER = "not regenerated";
+
+    @TempDir
+    Path sources;
+
+    @TempDir
+    Path outputs;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.writeString(sources.resolve("A.java"), "class A { int a() { return 1; } }");
+        Files.createDirectories(sources.resolve("sub"));
+        Files.writeString(sources.resolve("sub").resolve("B.java"), "class B { int b() { return 2; } }");
+        Files.writeString(sources.resolve("C.java"), "class C { int c() { return 3; } }");
+    }
+
+    @Test
+    public void testIncrementalSkipsUnchangedInputs() throws IOException {
+        process(EnumSet.allOf(GGNNEdgeType.class));
+        assertTrue(Files.exists(outputs.resolve("C.jsonl")));
+        final String b = Files.readString(outputs.resolve("sub").resolve("B.jsonl"));
+        Files.writeString(outputs.resolve("A.jsonl"), MARKER);
+
+        Files.writeString(sources.resolve("sub").resolve("B.java"), "class B { int b2() { return 2; } }");
+        Files.delete(sources.resolve("C.java"));
+        process(EnumSet.allOf(GGNNEdgeType.class));
+
+        assertEquals(MARKER, Files.readString(outputs.resolve("A.jsonl")));
+        assertNotEquals(b, Files.readString(outputs.resolve("sub").resolve("B.jsonl")));
+        assertTrue(Files.readString(outputs.resolve("sub").resolve("B.jsonl")).contains("\"b2\""));
+        assertFalse(Files.exists(outputs.resolve("C.jsonl")));
+    }
+
+    @Test
+    public void testIncrementalDeletesOutputsOfUnparseableInputs() throws IOException {
+        process(EnumSet.allOf(GGNNEdgeType.class));
+
+        Files.writeString(sources.resolve("sub").resolve("B.java"), "class B { int b( }");
+        process(EnumSet.allOf(GGNNEdgeType.class));
+
+        assertFalse(Files.exists(outputs.resolve("sub").resolve("B.jsonl")));
+        assertTrue(Files.exists(outputs.resolve("A.jsonl")));
+    }
+
+    @Test
+    public void testIncrementalRegeneratesAllOutputsForOtherConfiguration() throws IOException {
+        process(EnumSet.allOf(GGNNEdgeType.class));
+        Files.writeString(outputs.resolve("A.jsonl"), MARKER);
+
+        process(EnumSet.of(GGNNEdgeType.CHILD));
+
+        assertNotEquals(MARKER, Files.readString(outputs.resolve("A.jsonl")));
+    }
+
+    @Test
+    public void testIncrementalRegeneratesMissingOutputs() throws IOException {
+        process(EnumSet.allOf(GGNNEdgeType.class));
+        Files.delete(outputs.resolve("A.jsonl"));
+
+        process(EnumSet.allOf(GGNNEdgeType.class));
+
+        assertTrue(Files.exists(outputs.resolve("A.jsonl")));
+    }
+
+    @Test
+    public void testIncrementalRejectsVocabulary() {
+        final var options = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(outputs), 1, PredictionStrategy.LL, true
+        );
+        final Set<GGNNEdgeType> edgeTypes = EnumSet.allOf(GGNNEdgeType.class);
+        final var vocabulary = new GGNNVocabulary();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new GGNNPreprocessor(options, false, GGNNOutputFormat.JSONL, edgeTypes, vocabulary)
+        );
+    }
+
+    @Test
+    public void testProcessCompilationUnitMatchesFileOutput() throws IOException {
+        process(EnumSet.allOf(GGNNEdgeType.class));
+        final var options = new CommonPreprocessorOptions(ProcessingPath.console(), ProcessingPath.console());
+        final var preprocessor = new GGNNPreprocessor(options, false, false);
+
+        final String code = Files.readString(sources.resolve("sub").resolve("B.java"));
+        assertEquals(
+            List.of(Files.readString(outputs.resolve("sub").resolve("B.jsonl")).strip()),
+            preprocessor.processCompilationUnit(code).toList()
+        );
+        assertEquals(List.of(), preprocessor.processCompilationUnit("class B { int b( }").toList());
+    }
+
+    @Test
+    public void testSeenMethodsAreSkipped() throws IOException {
+        Files.writeString(sources.resolve("D.java"), "class D {\n  // a comment\n  int a()  { return 1; }\n}");
+        final Path seenMethods = outputs.resolve("seen-methods.bin");
+        final var options = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(outputs.resolve("first"))
+        );
+        try (ContentHashSet seen = ContentHashSet.open(seenMethods)) {
+            final var preprocessor = new GGNNPreprocessor(
+                options, false, GGNNOutputFormat.JSONL, EnumSet.allOf(GGNNEdgeType.class), null, seen
+            );
+            preprocessor.process();
+            assertEquals(1, preprocessor.getDuplicateMethods());
+        }
+        final long written = Stream.of("A.jsonl", "C.jsonl", "D.jsonl", "sub/B.jsonl")
+            .map(f -> outputs.resolve("first").resolve(f))
+            .filter(f -> readString(f).contains("\"label\""))
+            .count();
+        assertEquals(3, written);
+
+        Files.writeString(sources.resolve("E.java"), "class E { int e() { return 5; } }");
+        final var secondOptions = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(outputs.resolve("second"))
+        );
+        try (ContentHashSet seen = ContentHashSet.open(seenMethods)) {
+            final var preprocessor = new GGNNPreprocessor(
+                secondOptions, false, GGNNOutputFormat.JSONL, EnumSet.allOf(GGNNEdgeType.class), null, seen
+            );
+            preprocessor.process();
+            assertEquals(4, preprocessor.getDuplicateMethods());
+        }
+        assertTrue(Files.readString(outputs.resolve("second").resolve("E.jsonl")).contains("\"e\""));
+        assertEquals("", Files.readString(outputs.resolve("second").resolve("A.jsonl")).strip());
+    }
+
+    @Test
+    public void testSeenMethodsAreKeptIfWritingFails() throws IOException {
+        final Path seenMethods = outputs.resolve("seen-methods.bin");
+        final Path notADirectory = outputs.resolve("file");
+        Files.writeString(notADirectory, "");
+        final var failingOptions = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(notADirectory)
+        );
+        try (ContentHashSet seen = ContentHashSet.open(seenMethods)) {
+            final var preprocessor = new GGNNPreprocessor(
+                failingOptions, false, GGNNOutputFormat.JSONL, EnumSet.allOf(GGNNEdgeType.class), null, seen
+            );
+            assertThrows(ProcessingException.class, preprocessor::process);
+            assertEquals(0, seen.size());
+        }
+
+        final var options = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(outputs.resolve("second"))
+        );
+        try (ContentHashSet seen = ContentHashSet.open(seenMethods)) {
+            final var preprocessor = new GGNNPreprocessor(
+                options, false, GGNNOutputFormat.JSONL, EnumSet.allOf(GGNNEdgeType.class), null, seen
+            );
+            preprocessor.process();
+            assertEquals(0, preprocessor.getDuplicateMethods());
+            assertEquals(3, seen.size());
+        }
+        assertTrue(Files.readString(outputs.resolve("second").resolve("A.jsonl")).contains("\"a\""));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GGNNOutputFormat.class, names = {"JSONL", "BINARY"})
+    public void testSeenMethodsAreSkippedInInputOrderWithThreads(final GGNNOutputFormat format) throws IOException {
+        for (int i = 0; i < 40; ++i) {
+            Files.writeString(
+                sources.resolve("D" + i + ".java"),
+                "class D" + i + " { int d" + i + "() { return " + i + "; } int dup() { return 42; } }"
+            );
+        }
+
+        final Map<Path, byte[]> expected = processSkippingSeenMethods(format, 1, outputs.resolve("sequential"));
+        for (int run = 0; run < 5; ++run) {
+            final Path output = outputs.resolve("parallel" + run);
+            final Map<Path, byte[]> actual = processSkippingSeenMethods(format, 4, output);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (final Path file : expected.keySet()) {
+                assertArrayEquals(expected.get(file), actual.get(file), file::toString);
+            }
+        }
+
+        if (format == GGNNOutputFormat.JSONL) {
+            final long withDuplicate = expected.values().stream()
+                .filter(content -> new String(content, StandardCharsets.UTF_8).contains("\"dup\""))
+                .count();
+            assertEquals(1, withDuplicate);
+        }
+    }
+
+    private Map<Path, byte[]> processSkippingSeenMethods(
+        final GGNNOutputFormat format, final int threads, final Path output
+    ) throws IOException {
+        final var options = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(output), threads
+        );
+        try (ContentHashSet seen = ContentHashSet.inMemory()) {
+            final var preprocessor = new GGNNPreprocessor(
+                options, false, format, EnumSet.allOf(GGNNEdgeType.class), null, seen
+            );
+            preprocessor.process();
+            assertEquals(39, preprocessor.getDuplicateMethods());
+        }
+
+        final Map<Path, byte[]> contents = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(output)) {
+            for (final Path file : files.filter(Files::isRegularFile).toList()) {
+                contents.put(output.relativize(file), Files.readAllBytes(file));
+            }
+        }
+        return contents;
+    }
+
+    private static String readString(final Path file) {
+        try {
+            return Files.readString(file);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void process(final Set<GGNNEdgeType> edgeTypes) {
+        final var options = new CommonPreprocessorOptions(
+            ProcessingPath.directory(sources), ProcessingPath.directory(outputs), 1, PredictionStrategy.LL, true
+        );
+        new GGNNPreprocessor(options, false, GGNNOutputFormat.JSONL, edgeTypes).process();
+    }
+}
@@ -0,0 +1,64 @@
+package de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GGNNVocabularyTest {
+
+    @Test
+    public void testDenseIdsPerTable() {
+        final GGNNVocabulary vocabulary = new GGNNVocabulary();
+
+        assertEquals(0, vocabulary.nodeTypeId("Identifier"));
+        assertEquals(1, vocabulary.nodeTypeId("Block"));
+        assertEquals(0, vocabulary.nodeTypeId("Identifier"));
+        assertEquals(0, vocabulary.nodeLabelId("Block"));
+
+        assertEquals(List.of("Identifier", "Block"), vocabulary.nodeTypes());
+        assertEquals(List.of("Block"), vocabulary.nodeLabels());
+    }
+
+    @Test
+    public void testConcurrentIdsAreDense() {
+        final GGNNVocabulary vocabulary = new GGNNVocabulary();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> vocabulary.nodeLabelId("label" + i % 1000));
+
+        final List<String> labels = vocabulary.nodeLabels();
+        assertEquals(1000, labels.size());
+        for (int id = 0; id < labels.size(); ++id) {
+            assertEquals(id, vocabulary.nodeLabelId(labels.get(id)));
+        }
+    }
+
+    @Test
+    public void testReadExtendsWrittenVocabulary(@TempDir final Path dir) throws IOException {
+        final GGNNVocabulary vocabulary = new GGNNVocabulary();
+        vocabulary.nodeTypeId("Identifier");
+        vocabulary.nodeLabelId("x");
+        vocabulary.nodeLabelId("y");
+        final Path file = dir.resolve("vocab").resolve("vocabulary.json");
+        vocabulary.write(file);
+
+        final GGNNVocabulary read = GGNNVocabulary.read(file);
+        assertEquals(1, read.nodeLabelId("y"));
+        assertEquals(2, read.nodeLabelId("z"));
+        assertEquals(List.of("Identifier"), read.nodeTypes());
+        assertEquals(List.of("x", "y", "z"), read.nodeLabels());
+    }
+
+    @Test
+    public void testRejectsOtherJson(@TempDir final Path dir) throws IOException {
+        final Path file = Files.writeString(dir.resolve("vocabulary.json"), "{\"label\":\"f\"}");
+        assertThrows(IOException.class, () -> GGNNVocabulary.read(file));
+    }
+}
@@ -4,6 +4,7 @@
 import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
 import de.uni_passau.fim.se2.sa.ggnn.ast.parser.TransformationException;
 import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNEdgeType;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFacts;
 import de.uni_passau.fim.se2.sa.ggnn.util.SourceFixtureParser;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.IdentityWrapper;
 import de.uni_passau.fim.se2.sa.ggnn.util.functional.Pair;
@@ -12,11 +13,13 @@
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -62,4 +65,46 @@ public void testGetEdges() {
 
         // Add specific assertions based on expected edge counts and types
     }
+
+    @Test
+    public void testGetEdgesOfSelectedTypes() {
+        final Set<GGNNEdgeType> types = EnumSet.of(GGNNEdgeType.CHILD, GGNNEdgeType.GUARDED_BY);
+        final var edgesMap = new GGNNEdgesVisitor(method, types).getEdges();
+
+        assertEquals(types, edgesMap.keySet());
+        assertEquals(visitor.getEdges().get(GGNNEdgeType.CHILD), edgesMap.get(GGNNEdgeType.CHILD));
+        assertEquals(visitor.getEdges().get(GGNNEdgeType.GUARDED_BY), edgesMap.get(GGNNEdgeType.GUARDED_BY));
+    }
+
+    @Test
+    public void testNoDataFlowFactsWithoutDataFlowEdges() {
+        final AtomicInteger computations = new AtomicInteger();
+        final GGNNEdgesVisitor selectedVisitor = new GGNNEdgesVisitor(
+            method, EnumSet.of(GGNNEdgeType.CHILD, GGNNEdgeType.NEXT_TOKEN, GGNNEdgeType.GUARDED_BY),
+            () -> {
+                computations.incrementAndGet();
+                return new DataFlowFacts(method);
+            }
+        );
+
+        selectedVisitor.getEdges();
+        assertEquals(0, computations.get());
+    }
+
+    @Test
+    public void testDataFlowFactsComputedOnceForDataFlowEdges() {
+        final AtomicInteger computations = new AtomicInteger();
+        final GGNNEdgesVisitor selectedVisitor = new GGNNEdgesVisitor(
+            method, EnumSet.of(GGNNEdgeType.LAST_WRITE, GGNNEdgeType.LAST_READ),
+            () -> {
+                computations.incrementAndGet();
+                return new DataFlowFacts(method);
+            }
+        );
+
+        final var edgesMap = selectedVisitor.getEdges();
+        assertEquals(1, computations.get());
+        assertEquals(visitor.getEdges().get(GGNNEdgeType.LAST_WRITE), edgesMap.get(GGNNEdgeType.LAST_WRITE));
+        assertEquals(visitor.getEdges().get(GGNNEdgeType.LAST_READ), edgesMap.get(GGNNEdgeType.LAST_READ));
+    }
 }
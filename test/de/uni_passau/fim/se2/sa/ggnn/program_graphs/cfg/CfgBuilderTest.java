@@ -0,0 +1,60 @@
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.declaration.MethodDeclaration;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.statement.ThrowStmt;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.PGNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CfgBuilderTest {
+
+    @Test
+    public void testEntryAndExitNodes() throws ParseException {
+        final ControlFlowGraph cfg = new CfgBuilder().build(parse("int f(int a) { a++; return a; }"));
+
+        assertSame(PGNode.ENTRY_NODE_LABEL, cfg.entryNode().node());
+        assertSame(PGNode.EXIT_NODE_LABEL, cfg.exitNode().node());
+        assertTrue(cfg.getImmediatePredecessors(cfg.entryNode()).isEmpty());
+        assertTrue(cfg.getImmediateSuccessors(cfg.exitNode()).isEmpty());
+        assertEquals(4, cfg.getVertices().size());
+    }
+
+    @Test
+    public void testUncaughtThrowsLeadToExit() throws ParseException {
+        final MethodDeclaration method = parse("""
+            void f(int a) {
+                if (a == 1) {
+                    throw new IllegalArgumentException();
+                }
+                if (a == 2) {
+                    throw new IllegalStateException();
+                }
+            }
+            """);
+        final ControlFlowGraph cfg = new CfgBuilder().build(method);
+
+        final long throwsToExit = cfg.getImmediatePredecessors(cfg.exitNode()).stream()
+            .filter(node -> node.node() instanceof ThrowStmt)
+            .count();
+        assertEquals(2, throwsToExit);
+    }
+
+    @Test
+    public void testReversalKeepsEntryAndExit() throws ParseException {
+        final ControlFlowGraph cfg = new CfgBuilder().build(parse("int f(int a) { return a; }"));
+
+        final ControlFlowGraph reversed = cfg.reversedEntryExitNotSwapped();
+        assertEquals(cfg.entryNode(), reversed.entryNode());
+        assertEquals(cfg.exitNode(), reversed.exitNode());
+        assertEquals(cfg.entryNode(), cfg.reversed().entryNode());
+    }
+
+    private static MethodDeclaration parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+}
@@ -0,0 +1,85 @@
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.data_flow_analysis;
+
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.PGNode;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.cfg.ControlFlowGraph;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.DataFlowFacts;
+import de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.Definition;
+import de.uni_passau.fim.se2.sa.ggnn.util.SourceFixtureParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataFlowAnalysisTest {
+
+    @Test
+    public void testBitVectorSolverMatchesSetSolver() throws Exception {
+        final DataFlowFacts context = new DataFlowFacts(
+            new SourceFixtureParser().getMethodInSourceFixture("main", "ExtendedExample.java")
+        );
+        final GenKillTransferFunction<Definition> genKill = reachingDefinitions(context);
+        final TransferFunction<Definition> setBased = genKill::apply;
+
+        for (final JoinFunction<Definition> join : List.of(
+            new JoinFunction.MayFunction<Definition>(), new JoinFunction.MustFunction<Definition>()
+        )) {
+            final var bitVectorFacts = analyse(context, genKill, join);
+            final var setFacts = analyse(context, setBased, join);
+
+            assertFalse(setFacts.inFacts().isEmpty());
+            assertEquals(setFacts.inFacts(), bitVectorFacts.inFacts());
+            assertEquals(setFacts.outFacts(), bitVectorFacts.outFacts());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"doWhile, DoWhile.java", "forLoop, ForLoop.java", "main, ExtendedExample.java"})
+    public void testReversePostorderProcessesLoopBodiesAtMostTwice(final String methodName, final String fileName)
+        throws Exception {
+        final DataFlowFacts context = new DataFlowFacts(
+            new SourceFixtureParser().getMethodInSourceFixture(methodName, fileName)
+        );
+        final int nodeCount = context.getCfg().getVertices().size();
+
+        for (final JoinFunction<Definition> join : List.of(
+            new JoinFunction.MayFunction<Definition>(), new JoinFunction.MustFunction<Definition>()
+        )) {
+            final var facts = analyse(context, reachingDefinitions(context), join);
+            assertTrue(facts.transfers() <= 2 * nodeCount, "Transfers: " + facts.transfers());
+        }
+    }
+
+    private static GenKillTransferFunction<Definition> reachingDefinitions(final DataFlowFacts context) {
+        final Map<PGNode, List<Definition>> defs = context.getDefinitions();
+
+        return new GenKillTransferFunction<>() {
+            @Override
+            public List<Definition> gen(final PGNode node) {
+                return defs.getOrDefault(node, Collections.emptyList());
+            }
+
+            @Override
+            public boolean kills(final Definition generated, final Definition fact) {
+                return generated.name().equals(fact.name());
+            }
+        };
+    }
+
+    private static DataFlowAnalysis.Facts<Definition> analyse(
+        final DataFlowFacts context, final TransferFunction<Definition> transfer, final JoinFunction<Definition> join
+    ) {
+        return new DataFlowAnalysisBuilder<>(Definition.class)
+            .withFlowDirection(new FlowDirection.ForwardFlowDirection<ControlFlowGraph>())
+            .withJoin(join)
+            .withTransfer(transfer)
+            .build()
+            .applyAnalysis(context);
+    }
+}
@@ -0,0 +1,69 @@
+package de.uni_passau.fim.se2.sa.ggnn.program_graphs.ddg.data_flow_analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkListTest {
+
+    // 0 -> 3 -> {1, 2} -> 4 -> 3 (back edge), 4 -> 5; node 6 is unreachable
+    private static final int[][] GRAPH = {{3}, {4}, {4}, {1, 2}, {3, 5}, {}, {0}};
+
+    @Test
+    public void testPollsInReversePostorder() {
+        final WorkList workList = new WorkList(GRAPH, new int[]{0});
+        for (int node = GRAPH.length - 1; node >= 0; --node) {
+            workList.add(node);
+        }
+
+        final List<Integer> order = pollAll(workList);
+
+        assertEquals(GRAPH.length, order.size());
+        assertEquals(List.of(0, 3), order.subList(0, 2));
+        assertTrue(order.indexOf(4) > order.indexOf(1) && order.indexOf(4) > order.indexOf(2));
+        assertTrue(order.indexOf(5) > order.indexOf(4));
+        assertEquals(6, order.get(order.size() - 1));
+    }
+
+    @Test
+    public void testQueuesNodesOnlyOnce() {
+        final WorkList workList = new WorkList(GRAPH, new int[]{0});
+        workList.add(4);
+        workList.add(3);
+        workList.add(4);
+
+        assertEquals(List.of(3, 4), pollAll(workList));
+    }
+
+    @Test
+    public void testRequeuesNodeBeforeLaterNodes() {
+        final WorkList workList = new WorkList(GRAPH, new int[]{0});
+        workList.add(5);
+        workList.add(4);
+        assertEquals(4, workList.poll());
+
+        workList.add(3);
+
+        assertEquals(List.of(3, 5), pollAll(workList));
+    }
+
+    @Test
+    public void testPollEmpty() {
+        final WorkList workList = new WorkList(GRAPH, new int[]{0});
+        assertTrue(workList.isEmpty());
+        assertThrows(IllegalStateException.class, workList::poll);
+    }
+
+    private static List<Integer> pollAll(final WorkList workList) {
+        final List<Integer> order = new ArrayList<>();
+        while (!workList.isEmpty()) {
+            order.add(workList.poll());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,124 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CloneCacheTest {
+
+    @Test
+    public void testClonesOnce(@TempDir Path tempDir) throws IOException, GitAPIException {
+        Path remote = tempDir.resolve("remote");
+        String url = remote.toUri().toString();
+        try (Git git = Git.init().setDirectory(remote.toFile()).call()) {
+            String first = commit(git, remote, "A.java", "class A {}").getName();
+
+            CloneCache cache = new CloneCache(tempDir.resolve("cache"));
+            Path clone = cache.get(url, List.of(first));
+            assertTrue(hasCommit(clone, first));
+            assertEquals(List.of(clone), list(tempDir.resolve("cache")));
+
+            Path marker = clone.resolve("marker");
+            Files.createFile(marker);
+            assertEquals(clone, cache.get(url, List.of(first)));
+            assertTrue(Files.exists(marker), "Expected the cached clone to be reused.");
+
+            String second = commit(git, remote, "B.java", "class B {}").getName();
+            assertFalse(hasCommit(clone, second));
+            assertEquals(clone, new CloneCache(tempDir.resolve("cache")).get(url, List.of(first, second)));
+            assertTrue(hasCommit(clone, second), "Expected the cached clone to be fetched.");
+            assertTrue(Files.exists(marker));
+        }
+    }
+
+    @Test
+    public void testCommitsOfSeveralRepositoriesDoNotForceFetch(@TempDir Path tempDir)
+            throws IOException, GitAPIException {
+        Path remoteA = tempDir.resolve("a");
+        Path remoteB = tempDir.resolve("b");
+        try (Git a = Git.init().setDirectory(remoteA.toFile()).call();
+             Git b = Git.init().setDirectory(remoteB.toFile()).call()) {
+            String a1 = commit(a, remoteA, "A.java", "class A {}").getName();
+            String b1 = commit(b, remoteB, "B.java", "class B {}").getName();
+            List<String> commits = List.of(a1, b1);
+
+            CloneCache cache = new CloneCache(tempDir.resolve("cache"));
+            Path cloneA = cache.getContainingAny(remoteA.toUri().toString(), commits);
+            Path cloneB = cache.getContainingAny(remoteB.toUri().toString(), commits);
+            assertTrue(hasCommit(cloneA, a1));
+            assertTrue(hasCommit(cloneB, b1));
+
+            String a2 = commit(a, remoteA, "C.java", "class C {}").getName();
+            cache.getContainingAny(remoteA.toUri().toString(), commits);
+            assertFalse(hasCommit(cloneA, a2), "Expected a clone containing some of the commits not to be fetched.");
+
+            cache.getContainingAny(remoteA.toUri().toString(), List.of(a2, b1));
+            assertTrue(hasCommit(cloneA, a2), "Expected a clone containing none of the commits to be fetched.");
+        }
+    }
+
+    @Test
+    public void testCloneNameDistinguishesForks() {
+        String upstream = CloneCache.cloneName("https://github.com/HouariZegai/Calculator.git");
+        String fork = CloneCache.cloneName("https://github.com/someone/Calculator/");
+
+        assertTrue(upstream.startsWith("Calculator-"));
+        assertTrue(upstream.endsWith(".git"));
+        assertTrue(fork.startsWith("Calculator-"));
+        assertNotEquals(upstream, fork);
+    }
+
+    @Test
+    public void testMinesLocalAndCachedRepositories(@TempDir Path tempDir) throws IOException, GitAPIException {
+        Path remote = tempDir.resolve("remote");
+        String commit;
+        try (Git git = Git.init().setDirectory(remote.toFile()).call()) {
+            commit = commit(git, remote, "Calculator.java", "class Calculator {}").getName();
+        }
+
+        Path localOutput = tempDir.resolve("local");
+        new GGNNStudy(List.of(remote.toString()), List.of(commit), localOutput).execute();
+        assertEquals(List.of("Calculator.java"), fileNames(localOutput));
+
+        Path cachedOutput = tempDir.resolve("cached");
+        new GGNNStudy(List.of(remote.toUri().toString()), List.of(commit), new JavaWriter(cachedOutput), tempDir.resolve("cache"), 4,
+                MiningEngine.REPODRILLER).execute();
+        assertEquals(List.of("Calculator.java"), fileNames(cachedOutput));
+        assertEquals(1, list(tempDir.resolve("cache")).size());
+    }
+
+    private static RevCommit commit(Git git, Path workTree, String file, String content)
+            throws IOException, GitAPIException {
+        Files.writeString(workTree.resolve(file), content);
+        git.add().addFilepattern(file).call();
+        return git.commit().setMessage("Add " + file).setAuthor("a", "a@example.com").call();
+    }
+
+    private static boolean hasCommit(Path repository, String commit) throws IOException {
+        try (Git git = Git.open(repository.toFile())) {
+            return git.getRepository().hasObject(ObjectId.fromString(commit));
+        }
+    }
+
+    private static List<String> fileNames(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).map(f -> f.getFileName().toString()).toList();
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
@@ -12,7 +12,9 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +43,7 @@ public void tearDown() throws IOException {
         // Clean up the target directory after each test
         if (Files.exists(outputDirectory)) {
             Files.walk(outputDirectory)
+                    .sorted(Comparator.reverseOrder())
                     .map(Path::toFile)
                     .forEach(file -> {
                         if (!file.delete()) {
@@ -68,9 +71,9 @@ public void testOutputContainsExpectedFiles() throws IOException {
         new RepoDriller().start(ggnnStudy);
 
         // Example file name that should be created (modify according to the actual expected file name)
-        Path expectedFile = outputDirectory.resolve("CalculatorUI.java");
+        String expectedFile = "CalculatorUI.java";
 
-        assertTrue(Files.exists(expectedFile), "Expected file not found: " + expectedFile);
+        assertTrue(containsFile(expectedFile), "Expected file not found: " + expectedFile);
     }
 
     @Test
@@ -78,9 +81,9 @@ public void testOutputNotContainsExpectedFiles() throws IOException {
         new RepoDriller().start(ggnnStudy);
 
         // Example file name that should be created (modify according to the actual expected file name)
-        Path expectedFile = outputDirectory.resolve("Calculator.java");
+        String expectedFile = "Calculator.java";
 
-        assertFalse(Files.exists(expectedFile), "Expected file found: " + expectedFile);
+        assertFalse(containsFile(expectedFile), "Expected file found: " + expectedFile);
     }
 
     @Test
@@ -129,4 +132,13 @@ public void testHandlesMultipleRepositories() {
             throw new RuntimeException("Error reading the output directory", e);
         }
     }
+
+    private boolean containsFile(String fileName) throws IOException {
+        if (!Files.exists(outputDirectory)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            return files.anyMatch(file -> file.getFileName().toString().equals(fileName));
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.CommonPreprocessorOptions;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ProcessingPath;
+import de.uni_passau.fim.se2.sa.ggnn.preprocessor.ggnn.GGNNPreprocessor;
+import de.uni_passau.fim.se2.sa.ggnn.util.ContentHashSet;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.repodriller.persistence.PersistenceMechanism;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GGNNWriterTest {
+
+    private static final String A = "class A { int a() { return 1; } }";
+    private static final String B = "class B { int b() { return 2; } }";
+
+    @Test
+    public void testWritesGraphsInsteadOfFiles(@TempDir Path outputDirectory) throws IOException {
+        GGNNWriter writer = new GGNNWriter(outputDirectory, 2);
+        PersistenceMechanism repository = writer.forRepository("repo");
+        repository.write("c1", "src/A.java", A);
+        repository.write("c1", "src/B.java", B);
+        repository.write("c2", "src/A.java", A);
+        repository.write("c2", "Broken.java", "class Broken { int b( }");
+        repository.close();
+        writer.close();
+        writer.close();
+
+        GGNNPreprocessor preprocessor = new GGNNPreprocessor(
+                new CommonPreprocessorOptions(ProcessingPath.console(), ProcessingPath.console()), false, false
+        );
+        Path commit = outputDirectory.resolve("repo").resolve("c1");
+        assertEquals(
+                preprocessor.processCompilationUnit(A).toList(),
+                Files.readAllLines(commit.resolve("src").resolve("A.jsonl"))
+        );
+        assertEquals(
+                preprocessor.processCompilationUnit(B).toList(),
+                Files.readAllLines(commit.resolve("src").resolve("B.jsonl"))
+        );
+        assertEquals(List.of(), list(outputDirectory.resolve("repo").resolve("c2")));
+        assertEquals(1, writer.getDuplicateFiles());
+        assertFalse(Files.exists(commit.resolve("src").resolve("A.java")));
+    }
+
+    @Test
+    public void testContentHashIgnoresFormattingOfLines() {
+        long hash = JavaWriter.contentHash("class A {\n    int a;\n}\n");
+
+        assertEquals(hash, JavaWriter.contentHash("\uFEFFclass A {  \r\n    int a;\t\r\n}\r\n\r\n"));
+        assertEquals(hash, JavaWriter.contentHash("class A {\n    int a;\n}"));
+        assertNotEquals(hash, JavaWriter.contentHash("class A {\n  int a;\n}\n"));
+        assertNotEquals(hash, JavaWriter.contentHash("class A {\n\n    int a;\n}\n"));
+    }
+
+    @Test
+    public void testSkipsSeenFilesAndMethodsAcrossRuns(@TempDir Path tempDir) throws IOException {
+        Path seenFiles = tempDir.resolve("seen-files.bin");
+        Path seenMethods = tempDir.resolve("seen-methods.bin");
+        try (ContentHashSet files = ContentHashSet.open(seenFiles);
+             ContentHashSet methods = ContentHashSet.open(seenMethods)) {
+            GGNNWriter writer = new GGNNWriter(tempDir.resolve("first"), 1, files, methods);
+            writer.write("c1", "A.java", A);
+            writer.close();
+        }
+
+        String b = "class B { int a() { return 1; } int b() { return 2; } }";
+        try (ContentHashSet files = ContentHashSet.open(seenFiles);
+             ContentHashSet methods = ContentHashSet.open(seenMethods)) {
+            GGNNWriter writer = new GGNNWriter(tempDir.resolve("second"), 1, files, methods);
+            writer.write("c2", "A.java", A + "\n");
+            writer.write("c2", "B.java", b);
+            writer.close();
+            assertEquals(1, writer.getDuplicateFiles());
+        }
+
+        assertFalse(Files.exists(tempDir.resolve("second").resolve("c2").resolve("A.jsonl")));
+        List<String> graphs = Files.readAllLines(tempDir.resolve("second").resolve("c2").resolve("B.jsonl"));
+        assertEquals(1, graphs.size());
+        assertTrue(graphs.get(0).contains("\"label\":\"b\""));
+    }
+
+    @Test
+    public void testKeepsSeenFilesAndMethodsIfWritingFails(@TempDir Path tempDir) throws IOException {
+        Path seenFiles = tempDir.resolve("seen-files.bin");
+        Path seenMethods = tempDir.resolve("seen-methods.bin");
+        Path notADirectory = tempDir.resolve("file");
+        Files.writeString(notADirectory, "");
+        try (ContentHashSet files = ContentHashSet.open(seenFiles);
+             ContentHashSet methods = ContentHashSet.open(seenMethods)) {
+            GGNNWriter writer = new GGNNWriter(notADirectory, 1, files, methods);
+            writer.write("c1", "A.java", A);
+            assertThrows(RuntimeException.class, writer::close);
+            assertEquals(0, files.size());
+            assertEquals(0, methods.size());
+        }
+
+        try (ContentHashSet files = ContentHashSet.open(seenFiles);
+             ContentHashSet methods = ContentHashSet.open(seenMethods)) {
+            GGNNWriter writer = new GGNNWriter(tempDir.resolve("output"), 1, files, methods);
+            writer.write("c1", "A.java", A);
+            writer.close();
+            assertEquals(1, files.size());
+            assertEquals(1, methods.size());
+        }
+        assertTrue(Files.readString(tempDir.resolve("output").resolve("c1").resolve("A.jsonl")).contains("\"a\""));
+    }
+
+    @Test
+    public void testWritesGraphsOfMinedRepositoriesIfMiningFails(@TempDir Path tempDir)
+            throws IOException, GitAPIException {
+        Path repository = tempDir.resolve("repository");
+        String commit;
+        try (Git git = Git.init().setDirectory(repository.toFile()).call()) {
+            Files.writeString(repository.resolve("A.java"), A);
+            git.add().addFilepattern("A.java").call();
+            commit = git.commit().setMessage("Add A").setAuthor("a", "a@example.com").call().getName();
+        }
+        String missingRepository = tempDir.resolve("missing").toUri().toString();
+
+        GGNNWriter writer = new GGNNWriter(tempDir.resolve("output"), 1);
+        GGNNStudy study = new GGNNStudy(
+                List.of(repository.toString(), missingRepository), List.of(commit), writer, null, 1, MiningEngine.JGIT
+        );
+        assertThrows(RuntimeException.class, study::execute);
+
+        List<Path> graphs = list(tempDir.resolve("output"));
+        assertEquals(1, graphs.size());
+        assertEquals(commit, graphs.get(0).getParent().getFileName().toString());
+        assertFalse(Files.readAllLines(graphs.get(0)).isEmpty());
+        assertThrows(IllegalStateException.class, () -> writer.write(commit, "B.java", B));
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return List.of();
+        }
+        try (var files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package de.uni_passau.fim.se2.sa.ggnn.repodriller;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.repodriller.domain.ModificationType;
+import org.repodriller.persistence.PersistenceMechanism;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JavaBlobExtractorTest {
+
+    @Test
+    public void testExtractsChangedJavaFiles(@TempDir Path tempDir) throws IOException, GitAPIException {
+        Path repo = tempDir.resolve("repo");
+        String first;
+        String second;
+        try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+            write(repo, "A.java", "class A {}");
+            write(repo, "src/B.java", "class B {}");
+            write(repo, "README.md", "readme");
+            first = commit(git);
+
+            write(repo, "A.java", "class A { int a; }");
+            Files.delete(repo.resolve("src/B.java"));
+            write(repo, "src/C.javax", "class C {}");
+            write(repo, "README.md", "changed");
+            second = commit(git);
+        }
+
+        List<Object[]> writes = new ArrayList<>();
+        new JavaBlobExtractor(List.of(second, "0".repeat(40)), 1).extract(repo, recorder(writes));
+
+        assertEquals(2, writes.size());
+        assertArrayEquals(
+                new Object[]{second, "A.java", "class A { int a; }", ModificationType.MODIFY, "a", "a"},
+                writes.get(0)
+        );
+        assertArrayEquals(
+                new Object[]{second, "src/C.javax", "class C {}", ModificationType.ADD, "a", "a"},
+                writes.get(1)
+        );
+
+        writes.clear();
+        new JavaBlobExtractor(List.of(first), 1).extract(repo, recorder(writes));
+        assertEquals(List.of("A.java", "src/B.java"), writes.stream().map(w -> w[1]).toList());
+    }
+
+    @Test
+    public void testMatchesRepoDrillerEngine(@TempDir Path tempDir) throws IOException, GitAPIException {
+        Path repo = tempDir.resolve("repo");
+        List<String> commits = new ArrayList<>();
+        try (Git git = Git.init().setDirectory(repo.toFile()).call()) {
+            write(repo, "A.java", "class A {}");
+            write(repo, "pkg/B.java", "class B {}");
+            commits.add(commit(git));
+            write(repo, "pkg/B.java", "class B { void f() {} }");
+            write(repo, "pkg/C.java", "class C {}");
+            commits.add(commit(git));
+        }
+
+        for (String commit : commits) {
+            Path repoDrillerOutput = tempDir.resolve("repodriller-" + commit);
+            Path jgitOutput = tempDir.resolve("jgit-" + commit);
+            new GGNNStudy(List.of(repo.toString()), List.of(commit), new JavaWriter(repoDrillerOutput), null, 1,
+                    MiningEngine.REPODRILLER).execute();
+            new GGNNStudy(List.of(repo.toString()), List.of(commit), new JavaWriter(jgitOutput), null, 2,
+                    MiningEngine.JGIT).execute();
+
+            assertEquals(read(repoDrillerOutput), read(jgitOutput));
+        }
+    }
+
+    private static PersistenceMechanism recorder(List<Object[]> writes) {
+        return new PersistenceMechanism() {
+            @Override
+            public void write(Object... objects) {
+                writes.add(objects);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static void write(Path repo, String file, String content) throws IOException {
+        Files.createDirectories(repo.resolve(file).getParent());
+        Files.writeString(repo.resolve(file), content);
+    }
+
+    private static String commit(Git git) throws GitAPIException {
+        git.add().addFilepattern(".").call();
+        git.add().addFilepattern(".").setUpdate(true).call();
+        return git.commit().setMessage("commit").setAuthor("a", "a@example.com").setCommitter("a", "a@example.com")
+                .call().getName();
+    }
+
+    private static Map<String, String> read(Path directory) throws IOException {
+        Map<String, String> files = new HashMap<>();
+        try (var paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                files.put(directory.relativize(path).toString(), Files.readString(path));
+            }
+        }
+        return files;
+    }
+}
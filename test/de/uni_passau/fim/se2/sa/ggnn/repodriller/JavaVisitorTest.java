@@ -27,6 +27,7 @@ public void setUp() throws IOException {
         // Clean up the target directory before each test
         if (Files.exists(targetDir)) {
             Files.walk(targetDir)
+                    .sorted(Comparator.reverseOrder())
                     .map(Path::toFile)
                     .forEach(file -> {
                         if (!file.delete()) {
@@ -42,6 +43,7 @@ public void tearDown() throws IOException {
         // Clean up the target directory after each test
         if (Files.exists(targetDir)) {
             Files.walk(targetDir)
+                    .sorted(Comparator.reverseOrder())
                     .map(Path::toFile)
                     .forEach(file -> {
                         if (!file.delete()) {
@@ -85,8 +87,9 @@ public void testProcessWritesJavaModificationsWithNewline() throws IOException {
         JavaWriter writer = new JavaWriter(targetDir);
 
         javaVisitor.process(null, commit, writer);
+        writer.close();
 
-        Path writtenFile = targetDir.resolve("TestFile.java");
+        Path writtenFile = targetDir.resolve("abc123/some/path/TestFile.java");
         assertTrue(Files.exists(writtenFile), "Expected file not found.");
 
         String content = new String(Files.readAllBytes(writtenFile));
@@ -128,8 +131,9 @@ public void testProcessWritesJavaModifications() throws IOException {
         JavaWriter writer = new JavaWriter(targetDir);
 
         javaVisitor.process(null, commit, writer);
+        writer.close();
 
-        Path writtenFile = targetDir.resolve("TestFile.java");
+        Path writtenFile = targetDir.resolve("abc123/some/path/TestFile.java");
         assertTrue(Files.exists(writtenFile), "Expected file not found.");
 
         String content = new String(Files.readAllBytes(writtenFile));
@@ -149,6 +153,7 @@ public void testProcessIgnoresNonJavaModifications() throws IOException {
         JavaWriter writer = new JavaWriter(targetDir);
 
         javaVisitor.process(null, commit, writer);
+        writer.close();
 
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetDir)) {
             assertTrue(!stream.iterator().hasNext(), "No files should be written for non-Java modifications.");
@@ -165,6 +170,7 @@ public void testProcessHandlesEmptyModificationsList() throws IOException {
         JavaWriter writer = new JavaWriter(targetDir);
 
         javaVisitor.process(null, commit, writer);
+        writer.close();
 
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetDir)) {
             assertTrue(!stream.iterator().hasNext(), "No files should be written for empty modifications list.");
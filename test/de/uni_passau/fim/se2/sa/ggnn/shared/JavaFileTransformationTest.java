@@ -0,0 +1,153 @@
+package de.uni_passau.fim.se2.sa.ggnn.shared;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JavaFileTransformationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSkipsHiddenDirectories() throws IOException {
+        final Path visible = write("a/A.java");
+        write(".git/B.java");
+        write("a/.hidden/C.java");
+        write("a/.hidden/d/D.java");
+
+        assertEquals(List.of(visible), walk(tempDir));
+    }
+
+    @Test
+    public void testSkipsNonJavaFiles() throws IOException {
+        final Path javaFile = write("a/A.java");
+        write("a/A.class");
+        write("a/README.md");
+        write("a/1Invalid.java");
+
+        assertEquals(List.of(javaFile), walk(tempDir));
+    }
+
+    @Test
+    public void testWalksDepthFirst() throws IOException {
+        final List<Path> files = List.of(
+            write("A.java"), write("a/B.java"), write("a/b/C.java"), write("a/b/D.java"), write("a/c/E.java"),
+            write("d/F.java"), write("d/e/f/G.java")
+        );
+
+        final List<Path> walked = walk(tempDir);
+
+        assertEquals(Set.copyOf(files), Set.copyOf(walked));
+        assertEquals(files.size(), walked.size());
+        // the files below each directory are yielded as one block before the walker leaves the directory
+        for (final String directory : List.of("a", "a/b", "a/c", "d", "d/e", "d/e/f")) {
+            assertContiguous(walked, tempDir.resolve(directory));
+        }
+    }
+
+    @Test
+    public void testSingleFileRoot() throws IOException {
+        final Path file = write("A.java");
+
+        assertEquals(List.of(file), walk(file));
+    }
+
+    @Test
+    public void testCloseReleasesDirectoriesOnPartialConsumption() throws IOException {
+        write("a/b/c/A.java");
+        write("a/b/c/B.java");
+
+        final JavaFileTransformation.JavaFileWalker walker = new JavaFileTransformation.JavaFileWalker(tempDir);
+        assertTrue(walker.hasNext());
+        walker.next();
+        assertEquals(4, walker.openDirectoryCount());
+
+        walker.close();
+        assertEquals(0, walker.openDirectoryCount());
+        assertFalse(walker.hasNext());
+    }
+
+    @Test
+    public void testFullConsumptionReleasesDirectories() throws IOException {
+        write("a/b/A.java");
+        write("c/B.java");
+
+        final JavaFileTransformation.JavaFileWalker walker = new JavaFileTransformation.JavaFileWalker(tempDir);
+        while (walker.hasNext()) {
+            walker.next();
+        }
+        assertEquals(0, walker.openDirectoryCount());
+    }
+
+    @Test
+    public void testParseDirectoryIsLazy() throws IOException {
+        write("a/A.java");
+        write("b/B.java");
+
+        final List<String> parsed = new ArrayList<>();
+        final JavaFileTransformation<String> transformation = new JavaFileTransformation<>(
+            tempDir, false, code -> {
+                parsed.add(code.getSourceName());
+                return code.getSourceName();
+            }
+        );
+
+        try (Stream<String> results = transformation.parseDirectory()) {
+            assertTrue(parsed.isEmpty());
+            assertEquals(1, results.limit(1).count());
+        }
+        assertEquals(1, parsed.size());
+    }
+
+    @Test
+    public void testParseDirectorySkippingMissingDirectory() throws IOException {
+        final JavaFileTransformation<String> transformation = new JavaFileTransformation<>(
+            tempDir.resolve("missing"), false, code -> code.getSourceName()
+        );
+
+        try (Stream<String> results = transformation.parseDirectorySkipping()) {
+            assertEquals(0, results.count());
+        }
+    }
+
+    private Path write(final String relativePath) throws IOException {
+        final Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "class X {}");
+        return file;
+    }
+
+    private static List<Path> walk(final Path root) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (JavaFileTransformation.JavaFileWalker walker = new JavaFileTransformation.JavaFileWalker(root)) {
+            walker.forEachRemaining(files::add);
+        }
+        return files;
+    }
+
+    private static void assertContiguous(final List<Path> walked, final Path directory) {
+        int first = -1;
+        int last = -1;
+        int count = 0;
+        for (int i = 0; i < walked.size(); ++i) {
+            if (walked.get(i).startsWith(directory)) {
+                first = first < 0 ? i : first;
+                last = i;
+                ++count;
+            }
+        }
+        assertEquals(last - first + 1, count, () -> "Files below " + directory + " are interleaved: " + walked);
+    }
+}
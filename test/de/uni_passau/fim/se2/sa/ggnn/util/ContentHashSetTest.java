@@ -0,0 +1,79 @@
+package de.uni_passau.fim.se2.sa.ggnn.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContentHashSetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testAddInMemory() {
+        try (ContentHashSet set = ContentHashSet.inMemory()) {
+            assertTrue(set.add(0));
+            assertTrue(set.add(1));
+            assertTrue(set.add(-1));
+            assertFalse(set.add(0));
+            assertFalse(set.add(-1));
+            assertEquals(3, set.size());
+        }
+    }
+
+    @Test
+    public void testContainsAndAddAll() {
+        try (ContentHashSet set = ContentHashSet.inMemory();
+             ContentHashSet other = ContentHashSet.inMemory()) {
+            assertTrue(set.add(1));
+            assertTrue(other.add(0));
+            assertTrue(other.add(1));
+            assertTrue(other.add(2));
+            assertFalse(set.contains(0));
+
+            set.addAll(other);
+            assertTrue(set.contains(0));
+            assertTrue(set.contains(2));
+            assertFalse(set.contains(3));
+            assertEquals(3, set.size());
+        }
+    }
+
+    @Test
+    public void testPersistsAcrossGrowth() throws IOException {
+        final Path file = tempDir.resolve("sub").resolve("seen.bin");
+        final int count = 200_000;
+
+        try (ContentHashSet set = ContentHashSet.open(file)) {
+            for (long i = 0; i < count; ++i) {
+                assertTrue(set.add(i * 0x5DEECE66DL));
+            }
+        }
+
+        try (ContentHashSet set = ContentHashSet.open(file)) {
+            assertEquals(count, set.size());
+            for (long i = 0; i < count; ++i) {
+                assertFalse(set.add(i * 0x5DEECE66DL));
+            }
+            assertTrue(set.add(42));
+            assertEquals(count + 1, set.size());
+        }
+        assertFalse(Files.exists(file.resolveSibling("seen.bin.tmp")));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        final Path file = tempDir.resolve("other.bin");
+        Files.writeString(file, "{\"nodeTypes\": []}");
+
+        assertThrows(IOException.class, () -> ContentHashSet.open(file));
+    }
+}
@@ -0,0 +1,118 @@
+package de.uni_passau.fim.se2.sa.ggnn.util;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileReadUtilTest {
+
+    private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "", "\n", "class A {}", "class A {}\n", "class A {}\n\n", "class A {\n}\r\n", "a\r\nb\rc\n\rd\r",
+            "\r\r\n\n", "String s = \"äöü\";\r\n", "int 😀 = 1;\n", "a b\u0085c\n",
+        }
+    )
+    public void testSameContentAsLines(final String code) throws IOException {
+        final Path file = write(code.getBytes(StandardCharsets.UTF_8));
+
+        final String expected;
+        try (Stream<String> lines = FileReadUtil.readFileWithBomLines(file.toFile())) {
+            expected = lines.collect(Collectors.joining("\n"));
+        }
+
+        assertEquals(expected, FileReadUtil.readFileWithBom(file.toFile()));
+        assertEquals(expected, text(FileReadUtil.readCharStream(file)));
+    }
+
+    @Test
+    public void testUtf8Bom() throws IOException {
+        final Path file = write(UTF_8_BOM, "class A {}\r\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("class A {}", FileReadUtil.readFileWithBom(file.toFile()));
+        assertEquals("class A {}", text(FileReadUtil.readCharStream(file)));
+    }
+
+    @Test
+    public void testUtf8BomWithNonAsciiContent() throws IOException {
+        final Path file = write(UTF_8_BOM, "class Ä {}\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("class Ä {}", FileReadUtil.readFileWithBom(file.toFile()));
+        assertEquals("class Ä {}", text(FileReadUtil.readCharStream(file)));
+    }
+
+    @Test
+    public void testUtf16LittleEndianBom() throws IOException {
+        final Path file = write(new byte[]{(byte) 0xFF, (byte) 0xFE}, utf("class 😀 {\r\n}\r\n", "UTF-16LE"));
+
+        assertEquals("class 😀 {\n}", FileReadUtil.readFileWithBom(file.toFile()));
+        assertEquals("class 😀 {\n}", text(FileReadUtil.readCharStream(file)));
+    }
+
+    @Test
+    public void testUtf16BigEndianBom() throws IOException {
+        final Path file = write(new byte[]{(byte) 0xFE, (byte) 0xFF}, utf("class A {}\n", "UTF-16BE"));
+
+        assertEquals("class A {}", FileReadUtil.readFileWithBom(file.toFile()));
+    }
+
+    @Test
+    public void testUtf32LittleEndianBom() throws IOException {
+        final Path file = write(new byte[]{(byte) 0xFF, (byte) 0xFE, 0, 0}, utf("class A {}\n", "UTF-32LE"));
+
+        assertEquals("class A {}", FileReadUtil.readFileWithBom(file.toFile()));
+    }
+
+    @Test
+    public void testCodePointsOfStream() throws IOException {
+        final Path file = write("a😀b".getBytes(StandardCharsets.UTF_8));
+        final CharStream stream = FileReadUtil.readCharStream(file);
+
+        assertEquals(3, stream.size());
+        assertEquals(0x1F600, stream.LA(2));
+        assertEquals(file.toString(), stream.getSourceName());
+    }
+
+    @Test
+    public void testMalformedInputIsReplaced() throws IOException {
+        final Path file = write(new byte[]{'a', (byte) 0xC3, 'b'});
+
+        assertEquals("a�b", FileReadUtil.readFileWithBom(file.toFile()));
+        assertEquals("a�b", text(FileReadUtil.readCharStream(file)));
+    }
+
+    private Path write(final byte[]... parts) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (final byte[] part : parts) {
+            out.write(part);
+        }
+        return Files.write(tempDir.resolve("A.java"), out.toByteArray());
+    }
+
+    private static byte[] utf(final String text, final String charset) {
+        return text.getBytes(Charset.forName(charset));
+    }
+
+    private static String text(final CharStream stream) {
+        return stream.getText(Interval.of(0, stream.size() - 1));
+    }
+}
@@ -0,0 +1,81 @@
+package de.uni_passau.fim.se2.sa.ggnn.util.dotgraph;
+
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.AstNode;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.Modifier;
+import de.uni_passau.fim.se2.sa.ggnn.ast.model.type.PrimitiveType;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.AstCodeParser;
+import de.uni_passau.fim.se2.sa.ggnn.ast.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AstNodeLabelGeneratorTest {
+
+    private static final String METHOD = """
+        public static int f(int a) {
+            outer:
+            for (int i = 0; i < a; ++i) {
+                while (true) {
+                    if (i > 2) {
+                        break outer;
+                    }
+                    if (i > 1) {
+                        continue outer;
+                    }
+                    if (i > 0) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+            return 42;
+        }
+        """;
+
+    @Test
+    public void testLabels() throws ParseException {
+        final List<String> labels = nodes(parse(METHOD)).stream().map(AstNodeLabelGenerator::getLabel).toList();
+
+        assertTrue(labels.contains("outer: ForStmt"));
+        assertTrue(labels.contains("break outer"));
+        assertTrue(labels.contains("continue outer"));
+        assertTrue(labels.contains("break"));
+        assertTrue(labels.contains("continue"));
+        assertTrue(labels.contains("int"));
+        assertTrue(labels.contains("42"));
+        assertTrue(labels.contains("MethodDeclaration"));
+    }
+
+    @Test
+    public void testEnumLabels() {
+        assertEquals("public", AstNodeLabelGenerator.getLabel(Modifier.PUBLIC));
+        assertEquals("non-sealed", AstNodeLabelGenerator.getLabel(Modifier.NON_SEALED));
+        assertEquals("boolean", AstNodeLabelGenerator.getLabel(PrimitiveType.BOOLEAN));
+    }
+
+    @Test
+    public void testTypeNamesAreCached() throws ParseException {
+        for (final AstNode node : nodes(parse(METHOD))) {
+            assertEquals(node.getClass().getSimpleName(), AstNodeLabelGenerator.getTypeName(node));
+            assertSame(AstNodeLabelGenerator.getTypeName(node), AstNodeLabelGenerator.getTypeName(node));
+        }
+    }
+
+    private static AstNode parse(final String code) throws ParseException {
+        return new AstCodeParser().parseMethod(code).declaration();
+    }
+
+    private static List<AstNode> nodes(final AstNode root) {
+        final List<AstNode> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); ++i) {
+            nodes.addAll(nodes.get(i).children());
+        }
+        return nodes;
+    }
+}